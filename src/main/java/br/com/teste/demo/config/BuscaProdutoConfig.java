@@ -0,0 +1,42 @@
+package br.com.teste.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Índice de trigramas (pg_trgm) sobre LOWER(PRODUTO.TITULO), que atende o {@code LIKE '%texto%'} dos filtros
+ * por título (/produtos/filtrar e /produtos/por-titulo) sem varrer a tabela.
+ * O Hibernate não cria extensões nem índices GIN, então ele é criado na inicialização, depois que o
+ * entityManagerFactory criou ou atualizou o schema, e só no PostgreSQL; no H2 dos testes o mesmo filtro
+ * continua correto, com varredura.
+ */
+@Configuration
+@DependsOn("entityManagerFactory")
+public class BuscaProdutoConfig {
+
+    public static final String INDICE_TITULO = "IDX_PRODUTO_TITULO_TRGM";
+
+    private final DataSource dataSource;
+
+    public BuscaProdutoConfig(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void criarIndiceTitulo() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao ->
+                "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(postgres)) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDICE_TITULO
+                + " ON PRODUTO USING gin (LOWER(TITULO) gin_trgm_ops)");
+    }
+}
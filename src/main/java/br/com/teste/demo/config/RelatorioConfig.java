@@ -0,0 +1,20 @@
+package br.com.teste.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class RelatorioConfig {
+
+    /**
+     * Executor usado para calcular em paralelo as seções do relatório geral.
+     * Cada seção roda em uma virtual thread, já que passa quase todo o tempo aguardando o banco.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService relatorioExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
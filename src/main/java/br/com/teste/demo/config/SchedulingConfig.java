@@ -0,0 +1,12 @@
+package br.com.teste.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas {@code @Scheduled} de toda a aplicação, que não dependem da configuração dos relatórios
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
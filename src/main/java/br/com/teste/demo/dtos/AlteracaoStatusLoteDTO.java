@@ -0,0 +1,26 @@
+package br.com.teste.demo.dtos;
+
+import br.com.teste.demo.enums.StatusPedido;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedidos a alterar, por ids ou pelos filtros de /pedidos/filtrar (um ou outro), e o novo status
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlteracaoStatusLoteDTO {
+
+    private List<Long> ids = new ArrayList<>();
+    private StatusPedido status;
+    private LocalDateTime dataInicio;
+    private LocalDateTime dataFim;
+    private BigDecimal valorMinimo;
+    private BigDecimal valorMaximo;
+    private StatusPedido novoStatus;
+}
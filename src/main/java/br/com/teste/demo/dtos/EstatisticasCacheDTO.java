@@ -0,0 +1,15 @@
+package br.com.teste.demo.dtos;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstatisticasCacheDTO {
+
+    private long tamanho;
+    private long acertos;
+    private long falhas;
+    private double taxaAcerto;
+    private long remocoes;
+}
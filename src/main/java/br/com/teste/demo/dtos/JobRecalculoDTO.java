@@ -0,0 +1,55 @@
+package br.com.teste.demo.dtos;
+
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.JobRecalculo;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobRecalculoDTO {
+
+    private Long id;
+    private StatusJobRecalculo status;
+    private StatusPedido filtroStatusPedido;
+    private LocalDateTime filtroDataInicio;
+    private LocalDateTime filtroDataFim;
+    private BigDecimal filtroValorMinimo;
+    private BigDecimal filtroValorMaximo;
+    private long totalPedidos;
+    private long processados;
+    private long alterados;
+    /** Percentual de pedidos já processados, de 0 a 100 */
+    private int progresso;
+    private String erro;
+    private LocalDateTime dataCadastro;
+    private LocalDateTime dataAtualizacao;
+    private LocalDateTime dataConclusao;
+
+    public static JobRecalculoDTO fromEntity(JobRecalculo job) {
+        int progresso = job.getTotalPedidos() > 0
+                ? (int) Math.min(100, job.getProcessados() * 100 / job.getTotalPedidos())
+                : 100;
+        return new JobRecalculoDTO(
+                job.getId(),
+                job.getStatus(),
+                job.getFiltroStatusPedido(),
+                job.getFiltroDataInicio(),
+                job.getFiltroDataFim(),
+                job.getFiltroValorMinimo(),
+                job.getFiltroValorMaximo(),
+                job.getTotalPedidos(),
+                job.getProcessados(),
+                job.getAlterados(),
+                progresso,
+                job.getErro(),
+                job.getDataCadastro(),
+                job.getDataAtualizacao(),
+                job.getDataConclusao()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.teste.demo.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> itens = new ArrayList<>();
+    private String next;
+}
@@ -2,6 +2,7 @@ package br.com.teste.demo.dtos;
 
 import br.com.teste.demo.enums.StatusPedido;
 import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -46,4 +47,22 @@ public class PedidoDTO {
 //                itensDTO
         );
     }
+
+    /**
+     * Pedido lido sem a entidade; os itens ficam vazios
+     */
+    public static PedidoDTO fromResumo(ResumoPedido pedido) {
+        return new PedidoDTO(
+                pedido.id(),
+                pedido.numero(),
+                pedido.statusPedido(),
+                pedido.subtotal(),
+                pedido.desconto(),
+                pedido.frete(),
+                pedido.valorTotal(),
+                pedido.dataCadastro(),
+                pedido.dataAtualizacao(),
+                new ArrayList<>()
+        );
+    }
 }
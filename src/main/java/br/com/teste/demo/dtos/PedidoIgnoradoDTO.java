@@ -0,0 +1,14 @@
+package br.com.teste.demo.dtos;
+
+import br.com.teste.demo.enums.StatusPedido;
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PedidoIgnoradoDTO {
+
+    private Long pedidoId;
+    private StatusPedido statusAtual;
+    private String motivo;
+}
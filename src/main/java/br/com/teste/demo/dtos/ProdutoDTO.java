@@ -23,14 +23,14 @@ public class ProdutoDTO {
 
     public static ProdutoDTO fromEntity(Produto produto) {
         return new ProdutoDTO(
-//                produto.getId(),
-//                produto.getTitulo(),
-//                produto.getDescricao(),
-//                produto.getValor(),
-//                produto.getCategoria(),
-//                produto.getStatus(),
-//                produto.getDataCadastro(),
-//                produto.getDataAtualizacao()
+                produto.getId(),
+                produto.getTitulo(),
+                produto.getDescricao(),
+                produto.getValor(),
+                produto.getCategoria(),
+                produto.getStatus(),
+                produto.getDataCadastro(),
+                produto.getDataAtualizacao()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package br.com.teste.demo.dtos;
+
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.models.RegraPreco;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegraPrecoDTO {
+
+    private TipoRegraPreco tipo;
+    private BigDecimal valorMinimo;
+    private BigDecimal percentual;
+    private BigDecimal valor;
+
+    public static RegraPrecoDTO fromEntity(RegraPreco regra) {
+        return new RegraPrecoDTO(regra.getTipo(), regra.getValorMinimo(), regra.getPercentual(), regra.getValor());
+    }
+
+    public RegraPreco toEntity() {
+        RegraPreco regra = new RegraPreco();
+        regra.setTipo(tipo);
+        regra.setValorMinimo(valorMinimo);
+        regra.setPercentual(percentual);
+        regra.setValor(valor);
+        return regra;
+    }
+}
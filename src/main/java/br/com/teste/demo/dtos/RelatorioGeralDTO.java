@@ -17,4 +17,6 @@ public class RelatorioGeralDTO {
     private List<RelatorioPorStatusDTO> pedidosPorStatus = new ArrayList<>();
     private List<RelatorioProdutoDTO> produtosMaisVendidos = new ArrayList<>();
     private List<RelatorioFormaPagamentoDTO> formasPagamento = new ArrayList<>();
+    private boolean parcial;
+    private List<String> secoesPendentes = new ArrayList<>();
 }
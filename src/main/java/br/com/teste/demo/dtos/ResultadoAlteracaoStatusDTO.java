@@ -0,0 +1,15 @@
+package br.com.teste.demo.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoAlteracaoStatusDTO {
+
+    private long alterados;
+    private List<PedidoIgnoradoDTO> ignorados = new ArrayList<>();
+}
@@ -0,0 +1,23 @@
+package br.com.teste.demo.dtos;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoPedidoLoteDTO {
+
+    private int indice;
+    private boolean sucesso;
+    private Long pedidoId;
+    private Long numero;
+    private String erro;
+
+    public static ResultadoPedidoLoteDTO sucesso(int indice, Long pedidoId, Long numero) {
+        return new ResultadoPedidoLoteDTO(indice, true, pedidoId, numero, null);
+    }
+
+    public static ResultadoPedidoLoteDTO falha(int indice, String erro) {
+        return new ResultadoPedidoLoteDTO(indice, false, null, null, erro);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.teste.demo.dtos;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SugestaoProdutoDTO {
+
+    private Long id;
+    private String titulo;
+    private BigDecimal valor;
+}
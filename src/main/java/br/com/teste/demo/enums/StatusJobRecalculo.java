@@ -0,0 +1,27 @@
+package br.com.teste.demo.enums;
+
+public enum StatusJobRecalculo {
+    PENDENTE(1),
+    EXECUTANDO(2),
+    CONCLUIDO(3),
+    FALHOU(4);
+
+    private final int id;
+
+    StatusJobRecalculo(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static StatusJobRecalculo fromId(int id) {
+        for (StatusJobRecalculo status : values()) {
+            if (status.getId() == id) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Id inválido para Status do Job de Recálculo: " + id);
+    }
+}
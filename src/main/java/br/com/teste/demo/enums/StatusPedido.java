@@ -15,6 +15,18 @@ public enum StatusPedido {
         return id;
     }
 
+    /**
+     * Transições aceitas em toda alteração de status do pedido (individual, em lote ou por pagamento):
+     * pendente pode ser pago ou cancelado, pago só pode ser cancelado e cancelado é final
+     */
+    public boolean podeMudarPara(StatusPedido destino) {
+        return switch (this) {
+            case PENDENTE_PAGAMENTO -> destino == PAGO || destino == CANCELADO;
+            case PAGO -> destino == CANCELADO;
+            case CANCELADO -> false;
+        };
+    }
+
     public static StatusPedido fromId(int id) {
         for (StatusPedido status : values()) {
             if (status.getId() == id) {
@@ -0,0 +1,25 @@
+package br.com.teste.demo.enums;
+
+public enum TipoRegraPreco {
+    DESCONTO(1),
+    FRETE(2);
+
+    private final int id;
+
+    TipoRegraPreco(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static TipoRegraPreco fromId(int id) {
+        for (TipoRegraPreco tipo : values()) {
+            if (tipo.getId() == id) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Id inválido para Tipo de Regra de Preço: " + id);
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.teste.demo.enums.converters;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * FORMA_PAGAMENTO de VENDA_DIARIA, em que os pedidos sem pagamento aprovado ficam com {@link #SEM_FORMA_PAGAMENTO}
+ * em vez de NULL: como o banco considera os NULLs distintos entre si, a chave única (DATA, STATUS, FORMA_PAGAMENTO)
+ * não impediria linhas duplicadas para esses pedidos nem serviria de alvo para o ON CONFLICT.
+ */
+@Converter
+public class FormaPagamentoVendaDiariaConverter implements AttributeConverter<FormaPagamento, Integer> {
+
+    public static final int SEM_FORMA_PAGAMENTO = 0;
+
+    @Override
+    public Integer convertToDatabaseColumn(FormaPagamento formaPagamento) {
+        if (formaPagamento == null) {
+            return SEM_FORMA_PAGAMENTO;
+        }
+        return formaPagamento.getId();
+    }
+
+    @Override
+    public FormaPagamento convertToEntityAttribute(Integer id) {
+        if (id == null || id == SEM_FORMA_PAGAMENTO) {
+            return null;
+        }
+        return FormaPagamento.fromId(id);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.teste.demo.enums.converters;
+
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class StatusJobRecalculoConverter implements AttributeConverter<StatusJobRecalculo, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(StatusJobRecalculo status) {
+        return status != null ? status.getId() : null;
+    }
+
+    @Override
+    public StatusJobRecalculo convertToEntityAttribute(Integer id) {
+        return id != null ? StatusJobRecalculo.fromId(id) : null;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.teste.demo.enums.converters;
+
+import br.com.teste.demo.enums.TipoRegraPreco;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class TipoRegraPrecoConverter implements AttributeConverter<TipoRegraPreco, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(TipoRegraPreco tipo) {
+        return tipo != null ? tipo.getId() : null;
+    }
+
+    @Override
+    public TipoRegraPreco convertToEntityAttribute(Integer id) {
+        return id != null ? TipoRegraPreco.fromId(id) : null;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.teste.demo.events;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Variação aplicada aos totais de vendas de um dia quando um pedido entra ou sai de um agrupamento.
+ * Os valores já vêm com o sinal da variação (negativos quando o pedido é retirado).
+ */
+public record VendaDiariaAlteradaEvent(
+        LocalDate data,
+        StatusPedido statusPedido,
+        FormaPagamento formaPagamento,
+        long pedidos,
+        BigDecimal valorTotal,
+        BigDecimal desconto,
+        BigDecimal frete,
+        long itens
+) {
+}
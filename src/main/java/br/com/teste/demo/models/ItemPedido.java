@@ -1,5 +1,6 @@
 package br.com.teste.demo.models;
 
+import br.com.teste.demo.models.generators.SequenciaId;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -7,18 +8,20 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "ITEM_PEDIDO")
+@Table(name = "ITEM_PEDIDO", indexes = {
+        @Index(name = "IDX_ITEM_PEDIDO_VENDAS", columnList = "PEDIDO_ID, PRODUTO_ID, QUANTIDADE, VALOR_TOTAL")
+})
 public class ItemPedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaId("SEQ_ITEM_PEDIDO")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PEDIDO_ID", nullable = false)
     private Pedido pedido;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PRODUTO_ID", nullable = false)
     private Produto produto;
 
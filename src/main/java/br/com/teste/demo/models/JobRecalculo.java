@@ -0,0 +1,80 @@
+package br.com.teste.demo.models;
+
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.converters.StatusJobRecalculoConverter;
+import br.com.teste.demo.enums.converters.StatusPedidoConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Recálculo em massa dos pedidos que atendem a um filtro.
+ * Guarda o cursor (dataCadastro, id) do último bloco confirmado, de onde o job continua se for interrompido.
+ */
+@Data
+@Entity
+@Table(name = "JOB_RECALCULO")
+public class JobRecalculo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "STATUS", nullable = false)
+    @Convert(converter = StatusJobRecalculoConverter.class)
+    private StatusJobRecalculo status;
+
+    @Column(name = "FILTRO_STATUS_PEDIDO")
+    @Convert(converter = StatusPedidoConverter.class)
+    private StatusPedido filtroStatusPedido;
+
+    @Column(name = "FILTRO_DATA_INICIO")
+    private LocalDateTime filtroDataInicio;
+
+    @Column(name = "FILTRO_DATA_FIM")
+    private LocalDateTime filtroDataFim;
+
+    @Column(name = "FILTRO_VALOR_MINIMO")
+    private BigDecimal filtroValorMinimo;
+
+    @Column(name = "FILTRO_VALOR_MAXIMO")
+    private BigDecimal filtroValorMaximo;
+
+    @Column(name = "CURSOR_DATA_CADASTRO")
+    private LocalDateTime cursorDataCadastro;
+
+    @Column(name = "CURSOR_ID")
+    private Long cursorId;
+
+    @Column(name = "TOTAL_PEDIDOS", nullable = false)
+    private long totalPedidos;
+
+    @Column(name = "PROCESSADOS", nullable = false)
+    private long processados;
+
+    @Column(name = "ALTERADOS", nullable = false)
+    private long alterados;
+
+    /** Token da execução que assumiu o job; só ela pode gravar progresso e finalizá-lo */
+    @Column(name = "EXECUCAO", length = 36)
+    private String execucao;
+
+    @Column(name = "ERRO", length = 1000)
+    private String erro;
+
+    @Column(name = "DATA_CADASTRO")
+    private LocalDateTime dataCadastro;
+
+    /**
+     * Atualizada a cada bloco confirmado e renovada enquanto um bloco demora;
+     * um job EXECUTANDO sem atualização recente é considerado interrompido
+     */
+    @Column(name = "DATA_ATUALIZACAO")
+    private LocalDateTime dataAtualizacao;
+
+    @Column(name = "DATA_CONCLUSAO")
+    private LocalDateTime dataConclusao;
+}
@@ -4,22 +4,27 @@ import br.com.teste.demo.enums.FormaPagamento;
 import br.com.teste.demo.enums.StatusPagamento;
 import br.com.teste.demo.enums.converters.FormaPagamentoConverter;
 import br.com.teste.demo.enums.converters.StatusPagamentoConverter;
+import br.com.teste.demo.models.generators.SequenciaId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "PAGAMENTO")
+@Table(name = "PAGAMENTO", indexes = {
+        @Index(name = "IDX_PAGAMENTO_CURSOR", columnList = "DATA_CADASTRO DESC, ID DESC"),
+        @Index(name = "IDX_PAGAMENTO_DATA_PAGAMENTO", columnList = "DATA_PAGAMENTO")
+})
 public class Pagamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaId("SEQ_PAGAMENTO")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PEDIDO_ID", nullable = false)
     private Pedido pedido;
 
@@ -66,4 +71,10 @@ public class Pagamento {
 
     @Column(name = "DATA_ATUALIZACAO")
     private LocalDateTime dataAtualizacao;
+
+    /** Controle de concorrência otimista: incrementada a cada UPDATE, que só grava se ela não mudou desde a leitura */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao;
 }
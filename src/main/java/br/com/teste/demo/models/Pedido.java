@@ -1,9 +1,11 @@
 package br.com.teste.demo.models;
 
 import br.com.teste.demo.enums.StatusPedido;
-import br.com.teste.demo.enums.converters.StatusProdutoConverter;
+import br.com.teste.demo.enums.converters.StatusPedidoConverter;
+import br.com.teste.demo.models.generators.SequenciaId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,18 +14,32 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "PEDIDO")
+@Table(name = "PEDIDO", indexes = {
+        @Index(name = "IDX_PEDIDO_CURSOR", columnList = "DATA_CADASTRO DESC, ID DESC"),
+        @Index(name = "IDX_PEDIDO_STATUS_CURSOR", columnList = "STATUS, DATA_CADASTRO DESC, ID DESC"),
+        @Index(name = "UK_PEDIDO_NUMERO", columnList = "NUMERO", unique = true)
+})
+@NamedEntityGraph(name = Pedido.GRAFO_RESUMO)
+@NamedEntityGraph(name = Pedido.GRAFO_COM_ITENS,
+        attributeNodes = @NamedAttributeNode(value = "itens", subgraph = "itens"),
+        subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("produto")))
 public class Pedido {
 
+    /** Somente as colunas de PEDIDO, sem itens nem pagamentos */
+    public static final String GRAFO_RESUMO = "Pedido.resumo";
+
+    /** Pedido com itens e o produto de cada item, carregados na mesma consulta */
+    public static final String GRAFO_COM_ITENS = "Pedido.comItens";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaId("SEQ_PEDIDO")
     private Long id;
 
     @Column(name = "NUMERO")
     private Long numero;
 
     @Column(name = "STATUS")
-    @Convert(converter = StatusProdutoConverter.class)
+    @Convert(converter = StatusPedidoConverter.class)
     private StatusPedido statusPedido;
 
     @Column(name = "SUBTOTAL")
@@ -44,6 +60,12 @@ public class Pedido {
     @Column(name = "DATA_ATUALIZACAO")
     private LocalDateTime dataAtualizacao;
 
+    /** Controle de concorrência otimista: incrementada a cada UPDATE, que só grava se ela não mudou desde a leitura */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao;
+
     @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemPedido> itens = new ArrayList<>();
 
@@ -2,6 +2,7 @@ package br.com.teste.demo.models;
 
 import br.com.teste.demo.enums.StatusProduto;
 import br.com.teste.demo.enums.converters.StatusProdutoConverter;
+import br.com.teste.demo.models.generators.SequenciaId;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,11 +13,14 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "PRODUTO")
+@Table(name = "PRODUTO", indexes = {
+        @Index(name = "IDX_PRODUTO_CURSOR", columnList = "DATA_CADASTRO DESC, ID DESC"),
+        @Index(name = "IDX_PRODUTO_CATEGORIA_CURSOR", columnList = "CATEGORIA, DATA_CADASTRO DESC, ID DESC")
+})
 public class Produto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenciaId("SEQ_PRODUTO")
     private Long id;
 
     @Column(name = "TITULO")
@@ -0,0 +1,43 @@
+package br.com.teste.demo.models;
+
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.enums.converters.TipoRegraPrecoConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Faixa de desconto ou de frete aplicada pelo cálculo do pedido a partir de um valor mínimo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "REGRA_PRECO")
+public class RegraPreco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "TIPO", nullable = false)
+    @Convert(converter = TipoRegraPrecoConverter.class)
+    private TipoRegraPreco tipo;
+
+    /** Valor a partir do qual a faixa vale (subtotal no desconto, subtotal com desconto no frete); nulo = sem mínimo */
+    @Column(name = "VALOR_MINIMO", precision = 19, scale = 2)
+    private BigDecimal valorMinimo;
+
+    /** Percentual do subtotal nas faixas de desconto (0.10 = 10%) */
+    @Column(name = "PERCENTUAL", precision = 7, scale = 4)
+    private BigDecimal percentual;
+
+    /** Valor do frete nas faixas de frete */
+    @Column(name = "VALOR", precision = 19, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "DATA_CADASTRO")
+    private LocalDateTime dataCadastro;
+}
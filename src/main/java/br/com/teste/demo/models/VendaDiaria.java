@@ -0,0 +1,53 @@
+package br.com.teste.demo.models;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.converters.FormaPagamentoVendaDiariaConverter;
+import br.com.teste.demo.enums.converters.StatusPedidoConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de pedidos pré-agregados por dia, status e forma de pagamento aprovada
+ */
+@Data
+@Entity
+@Table(name = "VENDA_DIARIA", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_VENDA_DIARIA", columnNames = {"DATA", "STATUS", "FORMA_PAGAMENTO"})
+})
+public class VendaDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "DATA", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "STATUS", nullable = false)
+    @Convert(converter = StatusPedidoConverter.class)
+    private StatusPedido statusPedido;
+
+    /** Null quando o pedido não tem pagamento aprovado, gravado como 0 */
+    @Column(name = "FORMA_PAGAMENTO", nullable = false)
+    @Convert(converter = FormaPagamentoVendaDiariaConverter.class)
+    private FormaPagamento formaPagamento;
+
+    @Column(name = "QUANTIDADE_PEDIDOS", nullable = false)
+    private Long quantidadePedidos = 0L;
+
+    @Column(name = "VALOR_TOTAL", nullable = false)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    @Column(name = "DESCONTO", nullable = false)
+    private BigDecimal desconto = BigDecimal.ZERO;
+
+    @Column(name = "FRETE", nullable = false)
+    private BigDecimal frete = BigDecimal.ZERO;
+
+    @Column(name = "QUANTIDADE_ITENS", nullable = false)
+    private Long quantidadeItens = 0L;
+}
@@ -0,0 +1,21 @@
+package br.com.teste.demo.models.generators;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Identificador gerado pela sequência informada, com otimizador pooled.
+ * O tamanho de alocação vem da propriedade {@value SequenciaIdGenerator#TAMANHO_ALOCACAO}.
+ */
+@IdGeneratorType(SequenciaIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SequenciaId {
+
+    /** Nome da sequência no banco */
+    String value();
+}
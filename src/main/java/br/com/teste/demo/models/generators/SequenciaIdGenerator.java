@@ -0,0 +1,39 @@
+package br.com.teste.demo.models.generators;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * SequenceStyleGenerator com o tamanho de alocação lido da configuração em vez de fixo na anotação.
+ * Ao contrário de IDENTITY, o id é conhecido antes do INSERT, o que permite ao Hibernate agrupar os
+ * INSERTs em lotes JDBC. O INCREMENT BY da sequência no banco precisa ser igual ao tamanho de alocação.
+ */
+public class SequenciaIdGenerator extends SequenceStyleGenerator {
+
+    public static final String TAMANHO_ALOCACAO = "demo.id.tamanho_alocacao";
+
+    private static final int TAMANHO_ALOCACAO_PADRAO = 50;
+
+    private final String sequencia;
+
+    public SequenciaIdGenerator(SequenciaId configuracao) {
+        this.sequencia = configuracao.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int tamanhoAlocacao = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(TAMANHO_ALOCACAO, StandardConverters.INTEGER, TAMANHO_ALOCACAO_PADRAO);
+
+        parameters.setProperty(SEQUENCE_PARAM, sequencia);
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(tamanhoAlocacao));
+        parameters.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -1,6 +1,8 @@
 package br.com.teste.demo.repositories;
 
 import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.repositories.projections.ProdutoMaisVendido;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,14 +14,16 @@ import java.util.List;
 @Repository
 public interface ItemPedidoRepository extends JpaRepository<ItemPedido, Long> {
 
-    @Query("SELECT i.produto.id as produtoId, i.produto.titulo as produtoTitulo, " +
-           "SUM(i.quantidade) as quantidadeVendida, " +
-           "SUM(i.valorTotal) as valorTotalVendido, " +
-           "COUNT(DISTINCT i.pedido.id) as numeroPedidos " +
+    @Query("SELECT new br.com.teste.demo.repositories.projections.ProdutoMaisVendido(" +
+           "i.produto.id, i.produto.titulo, " +
+           "SUM(i.quantidade), " +
+           "SUM(i.valorTotal), " +
+           "COUNT(DISTINCT i.pedido.id)) " +
            "FROM ItemPedido i " +
-           "WHERE i.pedido.dataCadastro BETWEEN :dataInicio AND :dataFim " +
+           "WHERE i.pedido.dataCadastro >= :dataInicio AND i.pedido.dataCadastro < :dataFim " +
            "GROUP BY i.produto.id, i.produto.titulo " +
            "ORDER BY SUM(i.quantidade) DESC")
-    List<Object[]> findProdutosMaisVendidosByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                                                      @Param("dataFim") LocalDateTime dataFim);
+    List<ProdutoMaisVendido> findProdutosMaisVendidosByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
+                                                               @Param("dataFim") LocalDateTime dataFim,
+                                                               Limit limite);
 }
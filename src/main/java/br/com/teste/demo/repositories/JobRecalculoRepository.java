@@ -0,0 +1,77 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import br.com.teste.demo.models.JobRecalculo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobRecalculoRepository extends JpaRepository<JobRecalculo, Long> {
+
+    /**
+     * Jobs pendentes ou executando sem atualização desde o limite, candidatos a serem retomados
+     */
+    @Query("SELECT j.id FROM JobRecalculo j WHERE j.status = :pendente " +
+           "OR (j.status = :executando AND j.dataAtualizacao < :limite)")
+    List<Long> findIdsParaRetomar(@Param("pendente") StatusJobRecalculo pendente,
+                                  @Param("executando") StatusJobRecalculo executando,
+                                  @Param("limite") LocalDateTime limite);
+
+    /**
+     * Passa o job para EXECUTANDO em nome da execução informada se ele ainda estiver pendente ou parado desde o limite.
+     * Devolve 0 se outra execução já o assumiu.
+     */
+    @Modifying
+    @Query("UPDATE JobRecalculo j SET j.status = :executando, j.execucao = :execucao, j.dataAtualizacao = :agora, " +
+           "j.erro = NULL " +
+           "WHERE j.id = :id AND (j.status = :pendente OR (j.status = :executando AND j.dataAtualizacao < :limite))")
+    int assumir(@Param("id") Long id,
+                @Param("execucao") String execucao,
+                @Param("pendente") StatusJobRecalculo pendente,
+                @Param("executando") StatusJobRecalculo executando,
+                @Param("limite") LocalDateTime limite,
+                @Param("agora") LocalDateTime agora);
+
+    /**
+     * Renova a data de atualização enquanto um bloco demora, para o job não ser tomado como parado.
+     * Devolve 0 se o job passou para outra execução.
+     */
+    @Modifying
+    @Query("UPDATE JobRecalculo j SET j.dataAtualizacao = :agora WHERE j.id = :id AND j.execucao = :execucao")
+    int renovar(@Param("id") Long id,
+                @Param("execucao") String execucao,
+                @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE JobRecalculo j SET j.status = :pendente, j.dataConclusao = NULL WHERE j.id = :id AND j.status = :falhou")
+    int reabrir(@Param("id") Long id,
+                @Param("falhou") StatusJobRecalculo falhou,
+                @Param("pendente") StatusJobRecalculo pendente);
+
+    @Modifying
+    @Query("UPDATE JobRecalculo j SET j.cursorDataCadastro = :cursorData, j.cursorId = :cursorId, " +
+           "j.processados = :processados, j.alterados = :alterados, j.dataAtualizacao = :agora " +
+           "WHERE j.id = :id AND j.execucao = :execucao")
+    int registrarProgresso(@Param("id") Long id,
+                           @Param("execucao") String execucao,
+                           @Param("cursorData") LocalDateTime cursorData,
+                           @Param("cursorId") Long cursorId,
+                           @Param("processados") long processados,
+                           @Param("alterados") long alterados,
+                           @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE JobRecalculo j SET j.status = :status, j.erro = :erro, j.dataAtualizacao = :agora, " +
+           "j.dataConclusao = :agora WHERE j.id = :id AND j.execucao = :execucao")
+    int finalizar(@Param("id") Long id,
+                  @Param("execucao") String execucao,
+                  @Param("status") StatusJobRecalculo status,
+                  @Param("erro") String erro,
+                  @Param("agora") LocalDateTime agora);
+}
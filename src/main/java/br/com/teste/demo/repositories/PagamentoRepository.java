@@ -3,22 +3,29 @@ package br.com.teste.demo.repositories;
 import br.com.teste.demo.enums.FormaPagamento;
 import br.com.teste.demo.enums.StatusPagamento;
 import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.repositories.projections.FormaPagamentoPedido;
+import br.com.teste.demo.repositories.projections.TotalPorFormaPagamento;
+import br.com.teste.demo.repositories.specifications.Filtros;
+import br.com.teste.demo.repositories.specifications.PagamentoSpecifications;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
+public interface PagamentoRepository extends JpaRepository<Pagamento, Long>, JpaSpecificationExecutor<Pagamento>,
+        PagamentoRepositoryCustom {
 
     List<Pagamento> findByPedidoId(Long pedidoId);
 
-    List<Pagamento> findByFormaPagamento(FormaPagamento formaPagamento);
-
     List<Pagamento> findByStatusPagamento(StatusPagamento statusPagamento);
 
     Optional<Pagamento> findByCodigoTransacao(String codigoTransacao);
@@ -29,15 +36,39 @@ public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
     List<Pagamento> findByPedidoIdAndStatus(@Param("pedidoId") Long pedidoId,
                                              @Param("status") StatusPagamento status);
 
-    @Query("SELECT p FROM Pagamento p WHERE " +
-           "(:formaPagamento IS NULL OR p.formaPagamento = :formaPagamento) AND " +
-           "(:statusPagamento IS NULL OR p.statusPagamento = :statusPagamento) AND " +
-           "(:dataInicio IS NULL OR p.dataPagamento >= :dataInicio) AND " +
-           "(:dataFim IS NULL OR p.dataPagamento <= :dataFim)")
-    List<Pagamento> findByFiltros(
-            @Param("formaPagamento") FormaPagamento formaPagamento,
-            @Param("statusPagamento") StatusPagamento statusPagamento,
-            @Param("dataInicio") LocalDateTime dataInicio,
-            @Param("dataFim") LocalDateTime dataFim
-    );
+    default List<Pagamento> findByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                          LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return findAll(PagamentoSpecifications.filtros(formaPagamento, statusPagamento, dataInicio, dataFim));
+    }
+
+    /**
+     * Página de findByFiltros a partir do cursor (dataCadastro, id), do mais recente para o mais antigo.
+     * Cursor nulo devolve a primeira página.
+     */
+    default List<Pagamento> findPaginaByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                                LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                LocalDateTime cursorData, Long cursorId, Limit limite) {
+        Specification<Pagamento> filtros = PagamentoSpecifications.filtros(formaPagamento, statusPagamento,
+                dataInicio, dataFim).and(Filtros.anteriorAoCursor(cursorData, cursorId));
+        return findBy(filtros, consulta -> Filtros.pagina(consulta, limite));
+    }
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.TotalPorFormaPagamento(" +
+           "p.formaPagamento, COUNT(p), COALESCE(SUM(p.valor), 0)) " +
+           "FROM Pagamento p WHERE p.dataPagamento >= :dataInicio AND p.dataPagamento < :dataFim " +
+           "GROUP BY p.formaPagamento")
+    List<TotalPorFormaPagamento> totaisPorFormaPagamentoByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
+                                                                  @Param("dataFim") LocalDateTime dataFim);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.FormaPagamentoPedido(p.pedido.id, p.formaPagamento) " +
+           "FROM Pagamento p WHERE p.statusPagamento = :status " +
+           "AND p.pedido.dataCadastro >= :dataInicio AND p.pedido.dataCadastro < :dataFim")
+    List<FormaPagamentoPedido> findByStatusAndDataPedido(@Param("status") StatusPagamento status,
+                                                      @Param("dataInicio") LocalDateTime dataInicio,
+                                                      @Param("dataFim") LocalDateTime dataFim);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.FormaPagamentoPedido(p.pedido.id, p.formaPagamento) " +
+           "FROM Pagamento p WHERE p.statusPagamento = :status AND p.pedido.id IN :pedidoIds")
+    List<FormaPagamentoPedido> findByStatusAndPedidoIdIn(@Param("status") StatusPagamento status,
+                                                         @Param("pedidoIds") Collection<Long> pedidoIds);
 }
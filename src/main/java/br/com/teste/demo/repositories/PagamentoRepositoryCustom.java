@@ -0,0 +1,18 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.models.Pagamento;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface PagamentoRepositoryCustom {
+
+    /**
+     * Mesmos filtros de findByFiltros, percorridos sob demanda para exportação.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    Stream<Pagamento> streamByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                      LocalDateTime dataInicio, LocalDateTime dataFim);
+}
@@ -0,0 +1,44 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.repositories.specifications.PagamentoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+class PagamentoRepositoryCustomImpl implements PagamentoRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    PagamentoRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Pagamento> streamByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                             LocalDateTime dataInicio, LocalDateTime dataFim) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Pagamento> query = cb.createQuery(Pagamento.class);
+        Root<Pagamento> pagamento = query.from(Pagamento.class);
+        pagamento.fetch("pedido");
+        Predicate filtros = PagamentoSpecifications.filtros(formaPagamento, statusPagamento, dataInicio, dataFim)
+                .toPredicate(pagamento, query, cb);
+        if (filtros != null) {
+            query.where(filtros);
+        }
+        query.select(pagamento).orderBy(cb.asc(pagamento.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
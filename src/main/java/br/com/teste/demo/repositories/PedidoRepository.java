@@ -2,78 +2,135 @@ package br.com.teste.demo.repositories;
 
 import br.com.teste.demo.enums.StatusPedido;
 import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.projections.PedidoConsolidacao;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import br.com.teste.demo.repositories.specifications.PedidoSpecifications;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
-
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido>,
+        PedidoRepositoryCustom {
+
+    @EntityGraph(Pedido.GRAFO_COM_ITENS)
+    @Query("SELECT p FROM Pedido p WHERE p.id = :id")
+    Optional<Pedido> findComItensById(@Param("id") Long id);
+
+    /**
+     * Carrega itens e produtos de uma página já buscada, sem multiplicar as linhas da consulta paginada
+     */
+    @EntityGraph(Pedido.GRAFO_COM_ITENS)
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids")
+    List<Pedido> findComItensByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.ResumoPedido(" +
+           "p.id, p.numero, p.statusPedido, p.subtotal, p.desconto, p.frete, p.valorTotal, " +
+           "p.dataCadastro, p.dataAtualizacao, p.versao, " +
+           "(SELECT COALESCE(SUM(i.quantidade), 0) FROM ItemPedido i WHERE i.pedido = p)) " +
+           "FROM Pedido p WHERE p.id = :id")
+    Optional<ResumoPedido> findResumoById(@Param("id") Long id);
+
+    /**
+     * Troca o status com um único UPDATE, sem carregar o pedido. Só grava se o pedido ainda está no status e na
+     * versão lidos (compare-and-set) e incrementa a versão, como faria o flush da entidade.
+     * Devolve 0 quando outra transação alterou o pedido antes.
+     */
+    @Modifying
+    @Query("UPDATE Pedido p SET p.statusPedido = :novoStatus, p.dataAtualizacao = :agora, p.versao = p.versao + 1 " +
+           "WHERE p.id = :id AND p.statusPedido = :statusAtual AND p.versao = :versao")
+    int atualizarStatus(@Param("id") Long id,
+                        @Param("statusAtual") StatusPedido statusAtual,
+                        @Param("versao") Long versao,
+                        @Param("novoStatus") StatusPedido novoStatus,
+                        @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.ResumoPedido(" +
+           "p.id, p.numero, p.statusPedido, p.subtotal, p.desconto, p.frete, p.valorTotal, " +
+           "p.dataCadastro, p.dataAtualizacao, p.versao, " +
+           "(SELECT COALESCE(SUM(i.quantidade), 0) FROM ItemPedido i WHERE i.pedido = p)) " +
+           "FROM Pedido p WHERE p.id IN :ids ORDER BY p.id")
+    List<ResumoPedido> findResumoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Versão de atualizarStatus para um bloco de pedidos: um único UPDATE, só nos que ainda estão em um dos
+     * status de origem. Quem chama confere a quantidade devolvida e as versões com somaVersoesByIdIn.
+     */
+    @Modifying
+    @Query("UPDATE Pedido p SET p.statusPedido = :novoStatus, p.dataAtualizacao = :agora, p.versao = p.versao + 1 " +
+           "WHERE p.id IN :ids AND p.statusPedido IN :origens")
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids,
+                              @Param("origens") Collection<StatusPedido> origens,
+                              @Param("novoStatus") StatusPedido novoStatus,
+                              @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT COALESCE(SUM(p.versao), 0) FROM Pedido p WHERE p.id IN :ids")
+    long somaVersoesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Pedido.GRAFO_COM_ITENS)
     List<Pedido> findByStatusPedido(StatusPedido statusPedido);
 
-    List<Pedido> findByDataCadastroGreaterThanEqual(LocalDateTime data);
-
-    List<Pedido> findByDataCadastroBetween(LocalDateTime dataInicio, LocalDateTime dataFim);
-
-    List<Pedido> findByValorTotalGreaterThanEqual(BigDecimal valor);
-
-    List<Pedido> findByValorTotalLessThanEqual(BigDecimal valor);
-
-    List<Pedido> findByValorTotalBetween(BigDecimal valorMinimo, BigDecimal valorMaximo);
-
-    @Query("SELECT p FROM Pedido p WHERE " +
-           "(:status IS NULL OR p.statusPedido = :status) AND " +
-           "(:dataInicio IS NULL OR p.dataCadastro >= :dataInicio) AND " +
-           "(:dataFim IS NULL OR p.dataCadastro <= :dataFim) AND " +
-           "(:valorMinimo IS NULL OR p.valorTotal >= :valorMinimo) AND " +
-           "(:valorMaximo IS NULL OR p.valorTotal <= :valorMaximo)")
-    List<Pedido> findByFiltros(
-            @Param("status") StatusPedido status,
-            @Param("dataInicio") LocalDateTime dataInicio,
-            @Param("dataFim") LocalDateTime dataFim,
-            @Param("valorMinimo") BigDecimal valorMinimo,
-            @Param("valorMaximo") BigDecimal valorMaximo
-    );
-
-    // Queries para relatórios
-    @Query("SELECT COUNT(p) FROM Pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    Long countPedidosByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                               @Param("dataFim") LocalDateTime dataFim);
-
-    @Query("SELECT COALESCE(SUM(p.valorTotal), 0) FROM Pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    BigDecimal sumValorTotalByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                                      @Param("dataFim") LocalDateTime dataFim);
-
-    @Query("SELECT COALESCE(SUM(p.desconto), 0) FROM Pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    BigDecimal sumDescontosByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                                     @Param("dataFim") LocalDateTime dataFim);
-
-    @Query("SELECT COALESCE(SUM(p.frete), 0) FROM Pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    BigDecimal sumFreteByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                                 @Param("dataFim") LocalDateTime dataFim);
-
-    @Query("SELECT COUNT(p) FROM Pedido p WHERE p.statusPedido = :status")
-    Long countByStatus(@Param("status") StatusPedido status);
-
-    @Query("SELECT COALESCE(SUM(p.valorTotal), 0) FROM Pedido p WHERE p.statusPedido = :status")
-    BigDecimal sumValorTotalByStatus(@Param("status") StatusPedido status);
-
-    @Query("SELECT COUNT(p) FROM Pedido p WHERE p.statusPedido = :status AND p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    Long countByStatusAndPeriodo(@Param("status") StatusPedido status,
-                                  @Param("dataInicio") LocalDateTime dataInicio,
-                                  @Param("dataFim") LocalDateTime dataFim);
-
-    @Query("SELECT COALESCE(SUM(p.valorTotal), 0) FROM Pedido p WHERE p.statusPedido = :status AND p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    BigDecimal sumValorTotalByStatusAndPeriodo(@Param("status") StatusPedido status,
-                                               @Param("dataInicio") LocalDateTime dataInicio,
+    /**
+     * Percorre os pedidos do período sob demanda, em lotes do tamanho do fetch size, para exportação.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim ORDER BY p.id")
+    Stream<Pedido> streamByDataCadastroBetween(@Param("dataInicio") LocalDateTime dataInicio,
                                                @Param("dataFim") LocalDateTime dataFim);
 
-    @Query("SELECT COALESCE(SUM(i.quantidade), 0) FROM ItemPedido i JOIN i.pedido p WHERE p.dataCadastro BETWEEN :dataInicio AND :dataFim")
-    Integer sumQuantidadeProdutosByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
-                                          @Param("dataFim") LocalDateTime dataFim);
+    default long countByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        return count(PedidoSpecifications.filtros(status, dataInicio, dataFim, valorMinimo, valorMaximo));
+    }
+
+    // Queries para relatórios: o período é sempre [dataInicio, dataFim), como nas vendas diárias
+    @Query("SELECT new br.com.teste.demo.repositories.projections.ResumoVendas(" +
+           "COUNT(p), " +
+           "COALESCE(SUM(p.valorTotal), 0), " +
+           "COALESCE(SUM(p.desconto), 0), " +
+           "COALESCE(SUM(p.frete), 0), " +
+           "(SELECT COALESCE(SUM(i.quantidade), 0) FROM ItemPedido i JOIN i.pedido ip " +
+           " WHERE ip.dataCadastro >= :dataInicio AND ip.dataCadastro < :dataFim)) " +
+           "FROM Pedido p WHERE p.dataCadastro >= :dataInicio AND p.dataCadastro < :dataFim")
+    ResumoVendas resumoVendasByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
+                                       @Param("dataFim") LocalDateTime dataFim);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.TotalPorStatus(" +
+           "p.statusPedido, COUNT(p), COALESCE(SUM(p.valorTotal), 0)) " +
+           "FROM Pedido p GROUP BY p.statusPedido")
+    List<TotalPorStatus> totaisPorStatus();
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.TotalPorStatus(" +
+           "p.statusPedido, COUNT(p), COALESCE(SUM(p.valorTotal), 0)) " +
+           "FROM Pedido p WHERE p.dataCadastro >= :dataInicio AND p.dataCadastro < :dataFim " +
+           "GROUP BY p.statusPedido")
+    List<TotalPorStatus> totaisPorStatusByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
+                                                  @Param("dataFim") LocalDateTime dataFim);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.PedidoConsolidacao(" +
+           "p.id, p.dataCadastro, p.statusPedido, p.valorTotal, p.desconto, p.frete, " +
+           "(SELECT COALESCE(SUM(i.quantidade), 0) FROM ItemPedido i WHERE i.pedido = p)) " +
+           "FROM Pedido p WHERE p.dataCadastro >= :dataInicio AND p.dataCadastro < :dataFim")
+    List<PedidoConsolidacao> findConsolidacaoByPeriodo(@Param("dataInicio") LocalDateTime dataInicio,
+                                                       @Param("dataFim") LocalDateTime dataFim);
 }
@@ -0,0 +1,38 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.projections.ChavePedido;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas por filtros de pedidos que precisam de grafo de carga ou projeção, montadas com Criteria
+ * sobre PedidoSpecifications
+ */
+public interface PedidoRepositoryCustom {
+
+    /**
+     * Pedidos com itens e produtos, só com os predicados dos filtros informados
+     */
+    List<Pedido> findByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                               BigDecimal valorMinimo, BigDecimal valorMaximo);
+
+    /**
+     * Página de findByFiltros a partir do cursor (dataCadastro, id), do mais recente para o mais antigo.
+     * Cursor nulo devolve a primeira página. Traz só o resumo; os itens vêm de findComItensByIdIn.
+     */
+    List<Pedido> findPaginaByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                     BigDecimal valorMinimo, BigDecimal valorMaximo,
+                                     LocalDateTime cursorData, Long cursorId, Limit limite);
+
+    /**
+     * Só as chaves dos pedidos de findByFiltros a partir do cursor, na mesma ordem de findPaginaByFiltros
+     */
+    List<ChavePedido> findChavesByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                          BigDecimal valorMinimo, BigDecimal valorMaximo,
+                                          LocalDateTime cursorData, Long cursorId, Limit limite);
+}
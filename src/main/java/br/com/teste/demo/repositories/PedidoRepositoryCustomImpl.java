@@ -0,0 +1,85 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.projections.ChavePedido;
+import br.com.teste.demo.repositories.specifications.Filtros;
+import br.com.teste.demo.repositories.specifications.PedidoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class PedidoRepositoryCustomImpl implements PedidoRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    PedidoRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Pedido> findByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                      BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Pedido> query = cb.createQuery(Pedido.class);
+        Root<Pedido> pedido = query.from(Pedido.class);
+        filtrar(query, pedido, cb, PedidoSpecifications.filtros(status, dataInicio, dataFim, valorMinimo, valorMaximo));
+
+        return entityManager.createQuery(query.select(pedido))
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Pedido.GRAFO_COM_ITENS))
+                .getResultList();
+    }
+
+    @Override
+    public List<Pedido> findPaginaByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                            BigDecimal valorMinimo, BigDecimal valorMaximo,
+                                            LocalDateTime cursorData, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Pedido> query = cb.createQuery(Pedido.class);
+        Root<Pedido> pedido = query.from(Pedido.class);
+        filtrar(query, pedido, cb, PedidoSpecifications.filtros(status, dataInicio, dataFim, valorMinimo, valorMaximo)
+                .and(Filtros.anteriorAoCursor(cursorData, cursorId)));
+        query.select(pedido).orderBy(cb.desc(pedido.get("dataCadastro")), cb.desc(pedido.get("id")));
+
+        TypedQuery<Pedido> consulta = entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Pedido.GRAFO_RESUMO));
+        return limitar(consulta, limite).getResultList();
+    }
+
+    @Override
+    public List<ChavePedido> findChavesByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                 BigDecimal valorMinimo, BigDecimal valorMaximo,
+                                                 LocalDateTime cursorData, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChavePedido> query = cb.createQuery(ChavePedido.class);
+        Root<Pedido> pedido = query.from(Pedido.class);
+        filtrar(query, pedido, cb, PedidoSpecifications.filtros(status, dataInicio, dataFim, valorMinimo, valorMaximo)
+                .and(Filtros.anteriorAoCursor(cursorData, cursorId)));
+        query.select(cb.construct(ChavePedido.class, pedido.get("id"), pedido.get("dataCadastro")))
+                .orderBy(cb.desc(pedido.get("dataCadastro")), cb.desc(pedido.get("id")));
+
+        return limitar(entityManager.createQuery(query), limite).getResultList();
+    }
+
+    private static void filtrar(CriteriaQuery<?> query, Root<Pedido> pedido, CriteriaBuilder cb,
+                                Specification<Pedido> filtros) {
+        Predicate predicado = filtros.toPredicate(pedido, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+    }
+
+    private static <T> TypedQuery<T> limitar(TypedQuery<T> consulta, Limit limite) {
+        return limite.isLimited() ? consulta.setMaxResults(limite.max()) : consulta;
+    }
+}
@@ -2,16 +2,25 @@ package br.com.teste.demo.repositories;
 
 import br.com.teste.demo.enums.StatusProduto;
 import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.specifications.Filtros;
+import br.com.teste.demo.repositories.specifications.ProdutoSpecifications;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, JpaSpecificationExecutor<Produto>,
+        ProdutoRepositoryCustom {
+
+    @Query("SELECT p.id FROM Produto p ORDER BY p.id")
+    List<Long> findAllIds();
 
     List<Produto> findByTituloContainingIgnoreCase(String titulo);
 
@@ -21,21 +30,22 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
 
     List<Produto> findByValorGreaterThanEqual(BigDecimal valor);
 
-    List<Produto> findByValorLessThanEqual(BigDecimal valor);
-
     List<Produto> findByValorBetween(BigDecimal valorMinimo, BigDecimal valorMaximo);
 
-    @Query("SELECT p FROM Produto p WHERE " +
-           "(:titulo IS NULL OR LOWER(p.titulo) LIKE LOWER(CONCAT('%', :titulo, '%'))) AND " +
-           "(:categoria IS NULL OR p.categoria = :categoria) AND " +
-           "(:valorMinimo IS NULL OR p.valor >= :valorMinimo) AND " +
-           "(:valorMaximo IS NULL OR p.valor <= :valorMaximo) AND " +
-           "(:status IS NULL OR p.status = :status)")
-    List<Produto> findByFiltros(
-            @Param("titulo") String titulo,
-            @Param("categoria") String categoria,
-            @Param("valorMinimo") BigDecimal valorMinimo,
-            @Param("valorMaximo") BigDecimal valorMaximo,
-            @Param("status") StatusProduto status
-    );
+    default List<Produto> findByFiltros(String titulo, String categoria, BigDecimal valorMinimo,
+                                        BigDecimal valorMaximo, StatusProduto status) {
+        return findAll(ProdutoSpecifications.filtros(titulo, categoria, valorMinimo, valorMaximo, status));
+    }
+
+    /**
+     * Página de findByFiltros a partir do cursor (dataCadastro, id), do mais recente para o mais antigo.
+     * Cursor nulo devolve a primeira página.
+     */
+    default List<Produto> findPaginaByFiltros(String titulo, String categoria, BigDecimal valorMinimo,
+                                              BigDecimal valorMaximo, StatusProduto status,
+                                              LocalDateTime cursorData, Long cursorId, Limit limite) {
+        Specification<Produto> filtros = ProdutoSpecifications.filtros(titulo, categoria, valorMinimo, valorMaximo, status)
+                .and(Filtros.anteriorAoCursor(cursorData, cursorId));
+        return findBy(filtros, consulta -> Filtros.pagina(consulta, limite));
+    }
 }
@@ -0,0 +1,42 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.repositories.projections.ChaveProduto;
+import br.com.teste.demo.repositories.projections.ProdutoRelevancia;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de produtos que precisam de projeção ou de ordem por relevância, montadas com Criteria
+ * sobre ProdutoSpecifications
+ */
+public interface ProdutoRepositoryCustom {
+
+    /** Título igual ao texto */
+    int RELEVANCIA_TITULO = 4;
+    /** Título começa com o texto */
+    int RELEVANCIA_INICIO = 3;
+    /** Alguma palavra do título começa com o texto */
+    int RELEVANCIA_PALAVRA = 2;
+    /** Texto em qualquer outra posição do título */
+    int RELEVANCIA_TRECHO = 1;
+
+    /**
+     * Produtos cujo título contém o texto, sem diferenciar maiúsculas, com os demais filtros informados.
+     * Ordenados pela relevância (RELEVANCIA_*) e, no empate, pelo id, a partir do cursor (relevância, id);
+     * cursor nulo devolve a primeira página. O filtro é o LOWER(TITULO) LIKE '%texto%' atendido no PostgreSQL
+     * pelo índice de trigramas IDX_PRODUTO_TITULO_TRGM, então só os produtos encontrados são lidos e ordenados.
+     */
+    List<ProdutoRelevancia> findPaginaByTitulo(String titulo, String categoria, BigDecimal valorMinimo,
+                                               BigDecimal valorMaximo, StatusProduto status,
+                                               Integer cursorRelevancia, Long cursorId, Limit limite);
+
+    /**
+     * Só as chaves dos produtos a partir do cursor (dataCadastro, id), do mais recente para o mais antigo,
+     * para que os produtos venham do cache. Cursor nulo devolve a primeira página.
+     */
+    List<ChaveProduto> findChavesPagina(LocalDateTime cursorData, Long cursorId, Limit limite);
+}
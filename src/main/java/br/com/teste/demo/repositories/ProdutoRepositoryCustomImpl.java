@@ -0,0 +1,81 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.projections.ChaveProduto;
+import br.com.teste.demo.repositories.projections.ProdutoRelevancia;
+import br.com.teste.demo.repositories.specifications.Filtros;
+import br.com.teste.demo.repositories.specifications.ProdutoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+class ProdutoRepositoryCustomImpl implements ProdutoRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    ProdutoRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProdutoRelevancia> findPaginaByTitulo(String titulo, String categoria, BigDecimal valorMinimo,
+                                                      BigDecimal valorMaximo, StatusProduto status,
+                                                      Integer cursorRelevancia, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Produto> produto = query.from(Produto.class);
+
+        String texto = titulo.toLowerCase(Locale.ROOT);
+        Expression<String> tituloMinusculo = cb.lower(produto.get("titulo"));
+        Expression<Integer> relevancia = cb.<Integer>selectCase()
+                .when(cb.equal(tituloMinusculo, texto), cb.literal(RELEVANCIA_TITULO))
+                .when(cb.like(tituloMinusculo, texto + "%"), cb.literal(RELEVANCIA_INICIO))
+                .when(cb.like(tituloMinusculo, "% " + texto + "%"), cb.literal(RELEVANCIA_PALAVRA))
+                .otherwise(cb.literal(RELEVANCIA_TRECHO));
+
+        Predicate predicado = ProdutoSpecifications.filtros(titulo, categoria, valorMinimo, valorMaximo, status)
+                .toPredicate(produto, query, cb);
+        if (cursorRelevancia != null) {
+            predicado = cb.and(predicado, cb.or(cb.lessThan(relevancia, cursorRelevancia),
+                    cb.and(cb.equal(relevancia, cursorRelevancia), cb.greaterThan(produto.get("id"), cursorId))));
+        }
+        query.multiselect(produto, relevancia).where(predicado)
+                .orderBy(cb.desc(relevancia), cb.asc(produto.get("id")));
+
+        return limitar(entityManager.createQuery(query), limite).getResultList().stream()
+                .map(linha -> new ProdutoRelevancia(linha.get(0, Produto.class), linha.get(1, Integer.class)))
+                .toList();
+    }
+
+    @Override
+    public List<ChaveProduto> findChavesPagina(LocalDateTime cursorData, Long cursorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChaveProduto> query = cb.createQuery(ChaveProduto.class);
+        Root<Produto> produto = query.from(Produto.class);
+        Specification<Produto> cursor = Filtros.anteriorAoCursor(cursorData, cursorId);
+        if (cursor != null) {
+            query.where(cursor.toPredicate(produto, query, cb));
+        }
+        query.select(cb.construct(ChaveProduto.class, produto.get("id"), produto.get("dataCadastro")))
+                .orderBy(cb.desc(produto.get("dataCadastro")), cb.desc(produto.get("id")));
+
+        return limitar(entityManager.createQuery(query), limite).getResultList();
+    }
+
+    private static <T> TypedQuery<T> limitar(TypedQuery<T> consulta, Limit limite) {
+        return limite.isLimited() ? consulta.setMaxResults(limite.max()) : consulta;
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.models.RegraPreco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RegraPrecoRepository extends JpaRepository<RegraPreco, Long> {
+}
@@ -0,0 +1,33 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface VendaDiariaRepository extends JpaRepository<VendaDiaria, Long>, VendaDiariaRepositoryCustom {
+
+    List<VendaDiaria> findByDataGreaterThanEqualAndDataLessThan(LocalDate dataInicio, LocalDate dataFim);
+
+    @Modifying
+    @Query("DELETE FROM VendaDiaria v WHERE v.data >= :dataInicio AND v.data < :dataFim")
+    int deleteByPeriodo(@Param("dataInicio") LocalDate dataInicio,
+                        @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT new br.com.teste.demo.repositories.projections.ResumoVendas(" +
+           "COALESCE(SUM(v.quantidadePedidos), 0), " +
+           "COALESCE(SUM(v.valorTotal), 0), " +
+           "COALESCE(SUM(v.desconto), 0), " +
+           "COALESCE(SUM(v.frete), 0), " +
+           "COALESCE(SUM(v.quantidadeItens), 0)) " +
+           "FROM VendaDiaria v WHERE v.data >= :dataInicio AND v.data < :dataFim")
+    ResumoVendas resumoVendasByPeriodo(@Param("dataInicio") LocalDate dataInicio,
+                                       @Param("dataFim") LocalDate dataFim);
+}
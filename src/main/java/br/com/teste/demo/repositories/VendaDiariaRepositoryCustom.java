@@ -0,0 +1,25 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface VendaDiariaRepositoryCustom {
+
+    /**
+     * Soma os valores à linha (data, status, forma de pagamento), criando-a se ainda não existe, em um único comando.
+     * Duas transações que registram a primeira venda do mesmo agrupamento não violam UK_VENDA_DIARIA: a segunda
+     * espera a primeira e soma sobre a linha que ela criou. Deve ser chamado dentro de uma transação.
+     */
+    void acumular(LocalDate data, StatusPedido status, FormaPagamento formaPagamento, long pedidos,
+                  BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete, long itens);
+
+    /**
+     * Bloqueia {@link #acumular} nas demais transações até o fim da atual, depois de esperar as que já acumularam
+     * terminarem, para que uma reconstrução leia os pedidos e regrave os totais sem incrementos concorrentes.
+     * Só no PostgreSQL (advisory lock); nos demais bancos não bloqueia.
+     */
+    void bloquearParaReconstrucao();
+}
@@ -0,0 +1,91 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.converters.FormaPagamentoVendaDiariaConverter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+class VendaDiariaRepositoryCustomImpl implements VendaDiariaRepositoryCustom {
+
+    /** Chave do advisory lock: compartilhado por quem acumula, exclusivo na reconstrução */
+    private static final long BLOQUEIO = "VENDA_DIARIA".hashCode();
+
+    /** O advisory lock compartilhado é obtido no mesmo comando, antes do INSERT */
+    private static final String ACUMULAR_POSTGRES =
+            "INSERT INTO VENDA_DIARIA (DATA, STATUS, FORMA_PAGAMENTO, QUANTIDADE_PEDIDOS, VALOR_TOTAL, DESCONTO, " +
+            "FRETE, QUANTIDADE_ITENS) " +
+            "SELECT :data, :status, :formaPagamento, :pedidos, :valorTotal, :desconto, :frete, :itens " +
+            "FROM (SELECT pg_advisory_xact_lock_shared(:bloqueio)) bloqueio " +
+            "ON CONFLICT (DATA, STATUS, FORMA_PAGAMENTO) DO UPDATE SET " +
+            "QUANTIDADE_PEDIDOS = VENDA_DIARIA.QUANTIDADE_PEDIDOS + EXCLUDED.QUANTIDADE_PEDIDOS, " +
+            "VALOR_TOTAL = VENDA_DIARIA.VALOR_TOTAL + EXCLUDED.VALOR_TOTAL, " +
+            "DESCONTO = VENDA_DIARIA.DESCONTO + EXCLUDED.DESCONTO, " +
+            "FRETE = VENDA_DIARIA.FRETE + EXCLUDED.FRETE, " +
+            "QUANTIDADE_ITENS = VENDA_DIARIA.QUANTIDADE_ITENS + EXCLUDED.QUANTIDADE_ITENS";
+
+    private static final String ACUMULAR_MERGE =
+            "MERGE INTO VENDA_DIARIA v " +
+            "USING (VALUES (:data, :status, :formaPagamento, :pedidos, :valorTotal, :desconto, :frete, :itens)) " +
+            "s (DATA, STATUS, FORMA_PAGAMENTO, QUANTIDADE_PEDIDOS, VALOR_TOTAL, DESCONTO, FRETE, QUANTIDADE_ITENS) " +
+            "ON v.DATA = s.DATA AND v.STATUS = s.STATUS AND v.FORMA_PAGAMENTO = s.FORMA_PAGAMENTO " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "QUANTIDADE_PEDIDOS = v.QUANTIDADE_PEDIDOS + s.QUANTIDADE_PEDIDOS, " +
+            "VALOR_TOTAL = v.VALOR_TOTAL + s.VALOR_TOTAL, " +
+            "DESCONTO = v.DESCONTO + s.DESCONTO, " +
+            "FRETE = v.FRETE + s.FRETE, " +
+            "QUANTIDADE_ITENS = v.QUANTIDADE_ITENS + s.QUANTIDADE_ITENS " +
+            "WHEN NOT MATCHED THEN INSERT (DATA, STATUS, FORMA_PAGAMENTO, QUANTIDADE_PEDIDOS, VALOR_TOTAL, DESCONTO, " +
+            "FRETE, QUANTIDADE_ITENS) VALUES (s.DATA, s.STATUS, s.FORMA_PAGAMENTO, s.QUANTIDADE_PEDIDOS, " +
+            "s.VALOR_TOTAL, s.DESCONTO, s.FRETE, s.QUANTIDADE_ITENS)";
+
+    private final EntityManager entityManager;
+
+    private Boolean postgres;
+
+    VendaDiariaRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void acumular(LocalDate data, StatusPedido status, FormaPagamento formaPagamento, long pedidos,
+                         BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete, long itens) {
+        var query = entityManager.createNativeQuery(isPostgres() ? ACUMULAR_POSTGRES : ACUMULAR_MERGE)
+                .setParameter("data", data)
+                .setParameter("status", status.getId())
+                .setParameter("formaPagamento", formaPagamento != null
+                        ? formaPagamento.getId() : FormaPagamentoVendaDiariaConverter.SEM_FORMA_PAGAMENTO)
+                .setParameter("pedidos", pedidos)
+                .setParameter("valorTotal", valorTotal)
+                .setParameter("desconto", desconto)
+                .setParameter("frete", frete)
+                .setParameter("itens", itens);
+        if (isPostgres()) {
+            query.setParameter("bloqueio", BLOQUEIO);
+        }
+        query.executeUpdate();
+    }
+
+    @Override
+    public void bloquearParaReconstrucao() {
+        if (isPostgres()) {
+            entityManager.createNativeQuery("SELECT pg_advisory_xact_lock(:bloqueio)")
+                    .setParameter("bloqueio", BLOQUEIO)
+                    .getSingleResult();
+        }
+    }
+
+    /**
+     * Pelo banco da conexão, não pelo dialeto configurado: os testes usam H2 com o dialeto do PostgreSQL
+     */
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.unwrap(Session.class).doReturningWork(
+                    conexao -> "PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.teste.demo.repositories.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chave de ordenação do cursor de pedidos (dataCadastro, id)
+ */
+public record ChavePedido(
+        Long id,
+        LocalDateTime dataCadastro
+) {
+}
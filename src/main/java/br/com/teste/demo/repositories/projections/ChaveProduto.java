@@ -0,0 +1,12 @@
+package br.com.teste.demo.repositories.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Chave de ordenação do cursor de produtos (dataCadastro, id)
+ */
+public record ChaveProduto(
+        Long id,
+        LocalDateTime dataCadastro
+) {
+}
@@ -0,0 +1,12 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.enums.FormaPagamento;
+
+/**
+ * Forma de pagamento associada a um pedido
+ */
+public record FormaPagamentoPedido(
+        Long pedidoId,
+        FormaPagamento formaPagamento
+) {
+}
@@ -0,0 +1,20 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Valores de um pedido usados para reconstruir as vendas diárias sem carregar a entidade
+ */
+public record PedidoConsolidacao(
+        Long pedidoId,
+        LocalDateTime dataCadastro,
+        StatusPedido statusPedido,
+        BigDecimal valorTotal,
+        BigDecimal desconto,
+        BigDecimal frete,
+        Long quantidadeItens
+) {
+}
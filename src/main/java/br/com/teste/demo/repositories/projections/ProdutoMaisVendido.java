@@ -0,0 +1,15 @@
+package br.com.teste.demo.repositories.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de venda de um produto no ranking de mais vendidos
+ */
+public record ProdutoMaisVendido(
+        Long produtoId,
+        String produtoTitulo,
+        Long quantidadeVendida,
+        BigDecimal valorTotalVendido,
+        Long numeroPedidos
+) {
+}
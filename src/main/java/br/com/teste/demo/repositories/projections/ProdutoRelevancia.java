@@ -0,0 +1,12 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.models.Produto;
+
+/**
+ * Produto encontrado pelo título com a relevância da correspondência, chave do cursor junto com o id
+ */
+public record ProdutoRelevancia(
+        Produto produto,
+        int relevancia
+) {
+}
@@ -0,0 +1,33 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.enums.StatusPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Colunas de PEDIDO e a quantidade de itens, lidas sem carregar a entidade nem suas coleções.
+ * Basta para as transições que só mudam o status e para ajustar VENDA_DIARIA.
+ */
+public record ResumoPedido(
+        Long id,
+        Long numero,
+        StatusPedido statusPedido,
+        BigDecimal subtotal,
+        BigDecimal desconto,
+        BigDecimal frete,
+        BigDecimal valorTotal,
+        LocalDateTime dataCadastro,
+        LocalDateTime dataAtualizacao,
+        Long versao,
+        Long quantidadeItens
+) {
+
+    /**
+     * O mesmo pedido depois de uma troca de status confirmada por PedidoRepository.atualizarStatus
+     */
+    public ResumoPedido comStatus(StatusPedido novoStatus, LocalDateTime agora) {
+        return new ResumoPedido(id, numero, novoStatus, subtotal, desconto, frete, valorTotal,
+                dataCadastro, agora, versao + 1, quantidadeItens);
+    }
+}
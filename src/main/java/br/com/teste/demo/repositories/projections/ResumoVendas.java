@@ -0,0 +1,15 @@
+package br.com.teste.demo.repositories.projections;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de vendas de um período, obtidos em uma única consulta
+ */
+public record ResumoVendas(
+        Long totalPedidos,
+        BigDecimal valorTotal,
+        BigDecimal valorDescontos,
+        BigDecimal valorFrete,
+        Long quantidadeProdutos
+) {
+}
@@ -0,0 +1,15 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.enums.FormaPagamento;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantidade e valor total de pagamentos agrupados por forma de pagamento
+ */
+public record TotalPorFormaPagamento(
+        FormaPagamento formaPagamento,
+        Long quantidade,
+        BigDecimal valorTotal
+) {
+}
@@ -0,0 +1,15 @@
+package br.com.teste.demo.repositories.projections;
+
+import br.com.teste.demo.enums.StatusPedido;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantidade e valor total de pedidos agrupados por status
+ */
+public record TotalPorStatus(
+        StatusPedido status,
+        Long quantidade,
+        BigDecimal valorTotal
+) {
+}
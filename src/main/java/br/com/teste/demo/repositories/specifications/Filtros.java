@@ -0,0 +1,57 @@
+package br.com.teste.demo.repositories.specifications;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Predicados dos filtros de listagem. Um filtro nulo não gera predicado, então cada combinação de filtros
+ * informados vira um SQL próprio, que o banco planeja com o índice das colunas usadas; o antigo
+ * {@code (:x IS NULL OR coluna = :x)} gerava um único SQL para todas, planejado sem saber quais valiam.
+ */
+public final class Filtros {
+
+    /** Ordem do cursor (dataCadastro, id), do mais recente para o mais antigo */
+    public static final Sort ORDEM_CURSOR = Sort.by(Sort.Direction.DESC, "dataCadastro", "id");
+
+    private Filtros() {
+    }
+
+    public static <T> Specification<T> igual(String atributo, Object valor) {
+        return valor == null ? null : (root, query, cb) -> cb.equal(root.get(atributo), valor);
+    }
+
+    public static <T, V extends Comparable<? super V>> Specification<T> aPartirDe(String atributo, V valor) {
+        return valor == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(atributo), valor);
+    }
+
+    public static <T, V extends Comparable<? super V>> Specification<T> ate(String atributo, V valor) {
+        return valor == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get(atributo), valor);
+    }
+
+    public static <T> Specification<T> contemIgnorandoCaixa(String atributo, String texto) {
+        return texto == null ? null : (root, query, cb) ->
+                cb.like(cb.lower(root.get(atributo)), "%" + texto.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    /**
+     * (dataCadastro, id) &lt; (cursorData, cursorId). A primeira condição limita a faixa lida do índice do cursor;
+     * a segunda desempata os registros com a mesma dataCadastro. Cursor nulo não filtra.
+     */
+    public static <T> Specification<T> anteriorAoCursor(LocalDateTime cursorData, Long cursorId) {
+        return cursorData == null ? null : (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dataCadastro"), cursorData),
+                cb.or(cb.lessThan(root.get("dataCadastro"), cursorData), cb.lessThan(root.get("id"), cursorId)));
+    }
+
+    /** Página na ordem do cursor com no máximo {@code limite} registros */
+    public static <T> List<T> pagina(FluentQuery.FetchableFluentQuery<T> consulta, Limit limite) {
+        FluentQuery.FetchableFluentQuery<T> ordenada = consulta.sortBy(ORDEM_CURSOR);
+        return (limite.isLimited() ? ordenada.limit(limite.max()) : ordenada).all();
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.teste.demo.repositories.specifications;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.models.Pagamento;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class PagamentoSpecifications {
+
+    private PagamentoSpecifications() {
+    }
+
+    public static Specification<Pagamento> filtros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                                   LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return Specification.allOf(
+                Filtros.igual("formaPagamento", formaPagamento),
+                Filtros.igual("statusPagamento", statusPagamento),
+                Filtros.aPartirDe("dataPagamento", dataInicio),
+                Filtros.ate("dataPagamento", dataFim));
+    }
+}
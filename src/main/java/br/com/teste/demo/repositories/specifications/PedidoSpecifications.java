@@ -0,0 +1,24 @@
+package br.com.teste.demo.repositories.specifications;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public final class PedidoSpecifications {
+
+    private PedidoSpecifications() {
+    }
+
+    public static Specification<Pedido> filtros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        return Specification.allOf(
+                Filtros.igual("statusPedido", status),
+                Filtros.aPartirDe("dataCadastro", dataInicio),
+                Filtros.ate("dataCadastro", dataFim),
+                Filtros.aPartirDe("valorTotal", valorMinimo),
+                Filtros.ate("valorTotal", valorMaximo));
+    }
+}
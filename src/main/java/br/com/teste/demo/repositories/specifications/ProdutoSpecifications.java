@@ -0,0 +1,23 @@
+package br.com.teste.demo.repositories.specifications;
+
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+public final class ProdutoSpecifications {
+
+    private ProdutoSpecifications() {
+    }
+
+    public static Specification<Produto> filtros(String titulo, String categoria, BigDecimal valorMinimo,
+                                                 BigDecimal valorMaximo, StatusProduto status) {
+        return Specification.allOf(
+                Filtros.contemIgnorandoCaixa("titulo", titulo),
+                Filtros.igual("categoria", categoria),
+                Filtros.aPartirDe("valor", valorMinimo),
+                Filtros.ate("valor", valorMaximo),
+                Filtros.igual("status", status));
+    }
+}
@@ -1,17 +1,23 @@
 package br.com.teste.demo.resources;
 
 import br.com.teste.demo.dtos.PagamentoDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.FormatoExportacao;
 import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.services.ExportacaoService;
 import br.com.teste.demo.services.PagamentoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,9 +29,11 @@ import java.util.List;
 public class PagamentoResource {
 
     private final PagamentoService pagamentoService;
+    private final ExportacaoService exportacaoService;
 
-    public PagamentoResource(PagamentoService pagamentoService) {
+    public PagamentoResource(PagamentoService pagamentoService, ExportacaoService exportacaoService) {
         this.pagamentoService = pagamentoService;
+        this.exportacaoService = exportacaoService;
     }
 
     @PostMapping
@@ -74,24 +82,50 @@ public class PagamentoResource {
 
     @GetMapping("/por-forma-pagamento")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PagamentoDTO>> findByFormaPagamento(@RequestParam FormaPagamento formaPagamento) {
-        return ResponseEntity.ok(pagamentoService.findByFormaPagamento(formaPagamento));
+    public ResponseEntity<PaginaDTO<PagamentoDTO>> findByFormaPagamento(
+            @RequestParam FormaPagamento formaPagamento,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pagamentoService.findPagina(formaPagamento, null, null, null, cursor, limit));
     }
 
     @GetMapping("/por-status")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PagamentoDTO>> findByStatusPagamento(@RequestParam StatusPagamento statusPagamento) {
-        return ResponseEntity.ok(pagamentoService.findByStatusPagamento(statusPagamento));
+    public ResponseEntity<PaginaDTO<PagamentoDTO>> findByStatusPagamento(
+            @RequestParam StatusPagamento statusPagamento,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pagamentoService.findPagina(null, statusPagamento, null, null, cursor, limit));
     }
 
     @GetMapping("/filtrar")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PagamentoDTO>> filterPagamentos(
+    public ResponseEntity<PaginaDTO<PagamentoDTO>> filterPagamentos(
             @RequestParam(required = false) FormaPagamento formaPagamento,
             @RequestParam(required = false) StatusPagamento statusPagamento,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
 
-        return ResponseEntity.ok(pagamentoService.findByFiltros(formaPagamento, statusPagamento, dataInicio, dataFim));
+        return ResponseEntity.ok(pagamentoService.findPagina(formaPagamento, statusPagamento, dataInicio, dataFim,
+                cursor, limit));
+    }
+
+    @GetMapping("/exportar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Exporta os pagamentos filtrados em CSV ou NDJSON, escrevendo linha a linha")
+    public ResponseEntity<StreamingResponseBody> exportPagamentos(
+            @RequestParam(required = false) FormaPagamento formaPagamento,
+            @RequestParam(required = false) StatusPagamento statusPagamento,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato) {
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarPagamentos(
+                formaPagamento, statusPagamento, dataInicio, dataFim, formato, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pagamentos." + formato.getExtensao() + "\"")
+                .body(corpo);
     }
 }
@@ -1,16 +1,29 @@
 package br.com.teste.demo.resources;
 
+import br.com.teste.demo.dtos.AlteracaoStatusLoteDTO;
+import br.com.teste.demo.dtos.JobRecalculoDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.PedidoDTO;
+import br.com.teste.demo.dtos.ResultadoAlteracaoStatusDTO;
+import br.com.teste.demo.dtos.ResultadoPedidoLoteDTO;
+import br.com.teste.demo.enums.FormatoExportacao;
 import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.services.AlteracaoStatusLoteService;
+import br.com.teste.demo.services.ExportacaoService;
+import br.com.teste.demo.services.PedidoLoteService;
 import br.com.teste.demo.services.PedidoService;
+import br.com.teste.demo.services.RecalculoPedidoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,15 +36,27 @@ import java.util.List;
 public class PedidoResouce {
 
     private final PedidoService pedidoService;
-
-    public PedidoResouce(PedidoService pedidoService) {
+    private final ExportacaoService exportacaoService;
+    private final PedidoLoteService pedidoLoteService;
+    private final RecalculoPedidoService recalculoPedidoService;
+    private final AlteracaoStatusLoteService alteracaoStatusLoteService;
+
+    public PedidoResouce(PedidoService pedidoService, ExportacaoService exportacaoService,
+                         PedidoLoteService pedidoLoteService, RecalculoPedidoService recalculoPedidoService,
+                         AlteracaoStatusLoteService alteracaoStatusLoteService) {
         this.pedidoService = pedidoService;
+        this.exportacaoService = exportacaoService;
+        this.pedidoLoteService = pedidoLoteService;
+        this.recalculoPedidoService = recalculoPedidoService;
+        this.alteracaoStatusLoteService = alteracaoStatusLoteService;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR', 'CLIENTE')")
-    public ResponseEntity<List<PedidoDTO>> getAllOrders() {
-        return ResponseEntity.ok(pedidoService.getAllOrders());
+    public ResponseEntity<PaginaDTO<PedidoDTO>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pedidoService.findPagina(null, null, null, null, null, cursor, limit));
     }
 
     @GetMapping("/{id}")
@@ -47,6 +72,13 @@ public class PedidoResouce {
         return ResponseEntity.status(HttpStatus.CREATED).body(pedidoCriado);
     }
 
+    @PostMapping("/lote")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Cria pedidos em lote", description = "Devolve o resultado de cada pedido na ordem enviada")
+    public ResponseEntity<List<ResultadoPedidoLoteDTO>> createOrders(@RequestBody List<PedidoDTO> pedidosDTO) {
+        return ResponseEntity.ok(pedidoLoteService.createOrders(pedidosDTO));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
     public ResponseEntity<PedidoDTO> updateOrder(@PathVariable Long id,
@@ -61,6 +93,14 @@ public class PedidoResouce {
         return ResponseEntity.ok(pedidoService.updateOrderStatus(id, status));
     }
 
+    @PatchMapping("/status")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Altera o status de vários pedidos, por ids ou por filtro",
+               description = "Só altera pedidos em um status de origem válido; devolve a quantidade alterada e os ignorados")
+    public ResponseEntity<ResultadoAlteracaoStatusDTO> updateOrdersStatus(@RequestBody AlteracaoStatusLoteDTO alteracao) {
+        return ResponseEntity.ok(alteracaoStatusLoteService.alterarStatus(alteracao));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
@@ -70,36 +110,60 @@ public class PedidoResouce {
 
     @GetMapping("/filtrar")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PedidoDTO>> filterOrders(
+    public ResponseEntity<PaginaDTO<PedidoDTO>> filterOrders(
             @RequestParam(required = false) StatusPedido status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
             @RequestParam(required = false) BigDecimal valorMinimo,
-            @RequestParam(required = false) BigDecimal valorMaximo) {
+            @RequestParam(required = false) BigDecimal valorMaximo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
 
-        return ResponseEntity.ok(pedidoService.findByFiltros(status, dataInicio, dataFim, valorMinimo, valorMaximo));
+        return ResponseEntity.ok(pedidoService.findPagina(status, dataInicio, dataFim, valorMinimo, valorMaximo,
+                cursor, limit));
     }
 
     @GetMapping("/por-status")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PedidoDTO>> findByStatus(@RequestParam StatusPedido status) {
-        return ResponseEntity.ok(pedidoService.findByStatus(status));
+    public ResponseEntity<PaginaDTO<PedidoDTO>> findByStatus(
+            @RequestParam StatusPedido status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pedidoService.findPagina(status, null, null, null, null, cursor, limit));
     }
 
     @GetMapping("/por-data")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PedidoDTO>> findByDateRange(
+    public ResponseEntity<PaginaDTO<PedidoDTO>> findByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pedidoService.findPagina(null, dataInicio, dataFim, null, null, cursor, limit));
+    }
+
+    @GetMapping("/exportar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Exporta os pedidos do período em CSV ou NDJSON, escrevendo linha a linha")
+    public ResponseEntity<StreamingResponseBody> exportByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
-        return ResponseEntity.ok(pedidoService.findByDateRange(dataInicio, dataFim));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato) {
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarPedidos(dataInicio, dataFim, formato, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos." + formato.getExtensao() + "\"")
+                .body(corpo);
     }
 
     @GetMapping("/por-valor")
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
-    public ResponseEntity<List<PedidoDTO>> findByValorRange(
+    public ResponseEntity<PaginaDTO<PedidoDTO>> findByValorRange(
             @RequestParam BigDecimal valorMinimo,
-            @RequestParam BigDecimal valorMaximo) {
-        return ResponseEntity.ok(pedidoService.findByValorRange(valorMinimo, valorMaximo));
+            @RequestParam BigDecimal valorMaximo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pedidoService.findPagina(null, null, null, valorMinimo, valorMaximo, cursor, limit));
     }
 
     @PostMapping("/{id}/recalcular")
@@ -107,4 +171,31 @@ public class PedidoResouce {
     public ResponseEntity<PedidoDTO> recalcularPedido(@PathVariable Long id) {
         return ResponseEntity.ok(pedidoService.recalcularPedido(id));
     }
+
+    @PostMapping("/recalculos")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Recalcula em segundo plano os pedidos do filtro",
+               description = "Usa os mesmos filtros de /pedidos/filtrar; o andamento é consultado em /pedidos/recalculos/{id}")
+    public ResponseEntity<JobRecalculoDTO> iniciarRecalculo(
+            @RequestParam(required = false) StatusPedido status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+            @RequestParam(required = false) BigDecimal valorMinimo,
+            @RequestParam(required = false) BigDecimal valorMaximo) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(recalculoPedidoService.iniciar(status, dataInicio, dataFim, valorMinimo, valorMaximo));
+    }
+
+    @GetMapping("/recalculos/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    public ResponseEntity<JobRecalculoDTO> buscarRecalculo(@PathVariable Long id) {
+        return ResponseEntity.ok(recalculoPedidoService.buscar(id));
+    }
+
+    @PostMapping("/recalculos/{id}/retomar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    @Operation(summary = "Retoma um recálculo que falhou", description = "Continua do último bloco confirmado")
+    public ResponseEntity<JobRecalculoDTO> retomarRecalculo(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(recalculoPedidoService.retomar(id));
+    }
 }
@@ -1,12 +1,21 @@
 package br.com.teste.demo.resources;
 
+import br.com.teste.demo.dtos.EstatisticasCacheDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.dtos.SugestaoProdutoDTO;
 import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.services.AutocompleteProdutos;
+import br.com.teste.demo.services.CatalogoProdutos;
+import br.com.teste.demo.services.ProdutoCache;
 import br.com.teste.demo.services.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,14 +29,49 @@ import java.util.List;
 public class ProdutoResource {
 
     private final ProdutoService produtoService;
+    private final ProdutoCache produtoCache;
+    private final CatalogoProdutos catalogoProdutos;
+    private final AutocompleteProdutos autocompleteProdutos;
 
-    public ProdutoResource(ProdutoService produtoService) {
+    public ProdutoResource(ProdutoService produtoService, ProdutoCache produtoCache,
+                           CatalogoProdutos catalogoProdutos, AutocompleteProdutos autocompleteProdutos) {
         this.produtoService = produtoService;
+        this.produtoCache = produtoCache;
+        this.catalogoProdutos = catalogoProdutos;
+        this.autocompleteProdutos = autocompleteProdutos;
     }
 
     @GetMapping
-    public ResponseEntity<List<ProdutoDTO>> getAllProducts() {
-        return ResponseEntity.ok(produtoService.getAllProducts());
+    @Operation(summary = "Lista produtos do mais recente para o mais antigo",
+               description = "Só as chaves da página vêm do banco; os produtos vêm do cache, que pode trazer "
+                       + "alterações feitas em outras instâncias com atraso de até produto.cache.ttl-segundos")
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.getAllProducts(cursor, limit));
+    }
+
+    @GetMapping("/catalogo")
+    @Operation(summary = "Catálogo completo de produtos",
+               description = "Servido de um snapshot já serializado; responde 304 quando If-None-Match traz o ETag atual")
+    public ResponseEntity<byte[]> getCatalog(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogoProdutos.Snapshot catalogo = catalogoProdutos.snapshot();
+        boolean compactado = catalogo.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        boolean naoModificado = catalogo.corresponde(ifNoneMatch);
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(naoModificado ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(compactado ? catalogo.etagGzip() : catalogo.etag())
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (naoModificado) {
+            return resposta.build();
+        }
+        if (compactado) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.contentType(MediaType.APPLICATION_JSON).body(compactado ? catalogo.gzip() : catalogo.json());
     }
 
     @GetMapping("/{id}")
@@ -35,6 +79,14 @@ public class ProdutoResource {
         return ResponseEntity.ok(produtoService.getProductById(id));
     }
 
+    @GetMapping("/cache/estatisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(summary = "Estatísticas do cache de produtos", description = "Tamanho, acertos, falhas e remoções por tamanho")
+    public ResponseEntity<EstatisticasCacheDTO> getCacheStatistics() {
+        return ResponseEntity.ok(produtoCache.estatisticas());
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
     public ResponseEntity<ProdutoDTO> createProduct(@RequestBody ProdutoDTO produtoDTO) {
@@ -57,35 +109,77 @@ public class ProdutoResource {
     }
 
     @GetMapping("/filtrar")
-    public ResponseEntity<List<ProdutoDTO>> filterProducts(
+    @Operation(summary = "Filtra produtos",
+               description = "Com título, procura o texto em qualquer posição do título, sem diferenciar maiúsculas, "
+                       + "e ordena por relevância: título igual, começando pelo texto, com uma palavra começando "
+                       + "pelo texto e, por fim, o texto em outra posição. Sem título, do mais recente para o mais antigo")
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> filterProducts(
             @RequestParam(required = false) String titulo,
             @RequestParam(required = false) String categoria,
             @RequestParam(required = false) BigDecimal valorMinimo,
             @RequestParam(required = false) BigDecimal valorMaximo,
-            @RequestParam(required = false) StatusProduto status) {
+            @RequestParam(required = false) StatusProduto status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        return ResponseEntity.ok(produtoService.findPagina(titulo, categoria, valorMinimo, valorMaximo, status,
+                cursor, limit));
+    }
+
+    @GetMapping("/busca")
+    @Operation(summary = "Busca de produtos por palavras",
+               description = "Procura todas as palavras em título, categoria e descrição pelo início de cada termo "
+                       + "(\"note\" encontra \"notebook\"), sem diferenciar acentos, e ordena por relevância. "
+                       + "Gravações feitas por outras instâncias aparecem após a remontagem do índice")
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.buscar(q, cursor, limit));
+    }
 
-        return ResponseEntity.ok(produtoService.findByFiltros(titulo, categoria, valorMinimo, valorMaximo, status));
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Sugestões de produtos ativos pelo início do título",
+               description = "Respondido da memória, sem consultar o banco; limit de 1 a 50")
+    public ResponseEntity<List<SugestaoProdutoDTO>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(autocompleteProdutos.sugerir(q, limit));
     }
 
     @GetMapping("/por-titulo")
-    public ResponseEntity<List<ProdutoDTO>> findByTitulo(@RequestParam String titulo) {
-        return ResponseEntity.ok(produtoService.findByTitulo(titulo));
+    @Operation(summary = "Produtos por trecho do título",
+               description = "Procura o texto em qualquer posição do título, sem diferenciar maiúsculas, "
+                       + "e ordena por relevância como /produtos/filtrar")
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> findByTitulo(
+            @RequestParam String titulo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.findPagina(titulo, null, null, null, null, cursor, limit));
     }
 
     @GetMapping("/por-categoria")
-    public ResponseEntity<List<ProdutoDTO>> findByCategoria(@RequestParam String categoria) {
-        return ResponseEntity.ok(produtoService.findByCategoria(categoria));
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> findByCategoria(
+            @RequestParam String categoria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.findPagina(null, categoria, null, null, null, cursor, limit));
     }
 
     @GetMapping("/por-status")
-    public ResponseEntity<List<ProdutoDTO>> findByStatus(@RequestParam StatusProduto status) {
-        return ResponseEntity.ok(produtoService.findByStatus(status));
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> findByStatus(
+            @RequestParam StatusProduto status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.findPagina(null, null, null, null, status, cursor, limit));
     }
 
     @GetMapping("/por-valor")
-    public ResponseEntity<List<ProdutoDTO>> findByValorRange(
+    public ResponseEntity<PaginaDTO<ProdutoDTO>> findByValorRange(
             @RequestParam BigDecimal valorMinimo,
-            @RequestParam BigDecimal valorMaximo) {
-        return ResponseEntity.ok(produtoService.findByValorRange(valorMinimo, valorMaximo));
+            @RequestParam BigDecimal valorMaximo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(produtoService.findPagina(null, null, valorMinimo, valorMaximo, null, cursor, limit));
     }
 }
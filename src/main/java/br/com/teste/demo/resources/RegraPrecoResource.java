@@ -0,0 +1,44 @@
+package br.com.teste.demo.resources;
+
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.services.RegraPrecoService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/regras-preco")
+@Tag(name = "Regras de preço", description = "Faixas de desconto e frete aplicadas no cálculo dos pedidos")
+@SecurityRequirement(name = "Bearer Authentication")
+public class RegraPrecoResource {
+
+    private final RegraPrecoService regraPrecoService;
+
+    public RegraPrecoResource(RegraPrecoService regraPrecoService) {
+        this.regraPrecoService = regraPrecoService;
+    }
+
+    /**
+     * Regras em vigor
+     * GET /regras-preco
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'OPERADOR')")
+    public ResponseEntity<List<RegraPrecoDTO>> listar() {
+        return ResponseEntity.ok(regraPrecoService.listar());
+    }
+
+    /**
+     * Substitui todas as regras; uma lista vazia volta às faixas padrão
+     * PUT /regras-preco
+     */
+    @PutMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<RegraPrecoDTO>> substituir(@RequestBody List<RegraPrecoDTO> regras) {
+        return ResponseEntity.ok(regraPrecoService.substituir(regras));
+    }
+}
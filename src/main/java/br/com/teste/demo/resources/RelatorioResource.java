@@ -2,6 +2,7 @@ package br.com.teste.demo.resources;
 
 import br.com.teste.demo.dtos.*;
 import br.com.teste.demo.services.RelatorioService;
+import br.com.teste.demo.services.VendaDiariaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,9 +23,11 @@ import java.util.List;
 public class RelatorioResource {
 
     private final RelatorioService relatorioService;
+    private final VendaDiariaService vendaDiariaService;
 
-    public RelatorioResource(RelatorioService relatorioService) {
+    public RelatorioResource(RelatorioService relatorioService, VendaDiariaService vendaDiariaService) {
         this.relatorioService = relatorioService;
+        this.vendaDiariaService = vendaDiariaService;
     }
 
     /**
@@ -50,7 +53,7 @@ public class RelatorioResource {
 
     /**
      * Relatório de vendas por período customizado
-     * GET /relatorios/vendas/periodo?dataInicio=2025-01-01T00:00:00&dataFim=2025-01-31T23:59:59
+     * GET /relatorios/vendas/periodo?dataInicio=2025-01-01T00:00:00&dataFim=2025-02-01T00:00:00
      */
     @GetMapping("/vendas/periodo")
     public ResponseEntity<RelatorioVendasDTO> relatorioVendasPorPeriodo(
@@ -70,7 +73,7 @@ public class RelatorioResource {
 
     /**
      * Relatório de pedidos por status e período
-     * GET /relatorios/pedidos/por-status/periodo?dataInicio=2025-01-01T00:00:00&dataFim=2025-01-31T23:59:59
+     * GET /relatorios/pedidos/por-status/periodo?dataInicio=2025-01-01T00:00:00&dataFim=2025-02-01T00:00:00
      */
     @GetMapping("/pedidos/por-status/periodo")
     public ResponseEntity<List<RelatorioPorStatusDTO>> relatorioPorStatusPeriodo(
@@ -81,7 +84,7 @@ public class RelatorioResource {
 
     /**
      * Relatório de produtos mais vendidos
-     * GET /relatorios/produtos/mais-vendidos?dataInicio=2025-01-01T00:00:00&dataFim=2025-01-31T23:59:59&limite=10
+     * GET /relatorios/produtos/mais-vendidos?dataInicio=2025-01-01T00:00:00&dataFim=2025-02-01T00:00:00&limite=10
      */
     @GetMapping("/produtos/mais-vendidos")
     public ResponseEntity<List<RelatorioProdutoDTO>> relatorioProdutosMaisVendidos(
@@ -93,7 +96,7 @@ public class RelatorioResource {
 
     /**
      * Relatório de formas de pagamento
-     * GET /relatorios/formas-pagamento?dataInicio=2025-01-01T00:00:00&dataFim=2025-01-31T23:59:59
+     * GET /relatorios/formas-pagamento?dataInicio=2025-01-01T00:00:00&dataFim=2025-02-01T00:00:00
      */
     @GetMapping("/formas-pagamento")
     public ResponseEntity<List<RelatorioFormaPagamentoDTO>> relatorioFormasPagamento(
@@ -104,7 +107,7 @@ public class RelatorioResource {
 
     /**
      * Relatório geral consolidado
-     * GET /relatorios/geral?dataInicio=2025-01-01T00:00:00&dataFim=2025-01-31T23:59:59
+     * GET /relatorios/geral?dataInicio=2025-01-01T00:00:00&dataFim=2025-02-01T00:00:00
      */
     @GetMapping("/geral")
     public ResponseEntity<RelatorioGeralDTO> relatorioGeral(
@@ -119,10 +122,7 @@ public class RelatorioResource {
      */
     @GetMapping("/mes-atual")
     public ResponseEntity<RelatorioGeralDTO> relatorioMesAtual() {
-        LocalDate hoje = LocalDate.now();
-        LocalDateTime inicio = hoje.withDayOfMonth(1).atStartOfDay();
-        LocalDateTime fim = hoje.plusMonths(1).withDayOfMonth(1).atStartOfDay();
-        return ResponseEntity.ok(relatorioService.relatorioGeral(inicio, fim));
+        return ResponseEntity.ok(relatorioService.relatorioMesAtual());
     }
 
     /**
@@ -131,6 +131,19 @@ public class RelatorioResource {
      */
     @GetMapping("/hoje")
     public ResponseEntity<RelatorioVendasDTO> relatorioHoje() {
-        return ResponseEntity.ok(relatorioService.relatorioVendasDiario(LocalDate.now()));
+        return ResponseEntity.ok(relatorioService.relatorioHoje());
+    }
+
+    /**
+     * Reconstrói as vendas diárias pré-agregadas de um intervalo de datas (fim exclusivo)
+     * POST /relatorios/vendas-diarias/reconstruir?dataInicio=2025-01-01&dataFim=2025-02-01
+     */
+    @PostMapping("/vendas-diarias/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reconstruirVendasDiarias(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        vendaDiariaService.reconstruir(dataInicio, dataFim);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,163 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.AlteracaoStatusLoteDTO;
+import br.com.teste.demo.dtos.PedidoIgnoradoDTO;
+import br.com.teste.demo.dtos.ResultadoAlteracaoStatusDTO;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.projections.ChavePedido;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Troca de status de vários pedidos, escolhidos por ids ou pelos filtros de findByFiltros.
+ * Os pedidos são processados em blocos de {@code pedido.status-lote.tamanho-bloco}, cada um em uma transação com
+ * um único UPDATE que só altera os pedidos ainda em um status de origem válido (StatusPedido.podeMudarPara).
+ * Se outro processo alterar um pedido do bloco entre a leitura e o UPDATE, o bloco é relido e refeito;
+ * os pedidos inexistentes, em status de origem inválido ou já no status desejado são devolvidos como ignorados.
+ */
+@Service
+public class AlteracaoStatusLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlteracaoStatusLoteService.class);
+
+    private final PedidoRepository pedidoRepository;
+    private final VendaDiariaService vendaDiariaService;
+    private final RetentativaConcorrencia retentativaConcorrencia;
+    private final int tamanhoBloco;
+
+    public AlteracaoStatusLoteService(PedidoRepository pedidoRepository,
+                                      VendaDiariaService vendaDiariaService,
+                                      RetentativaConcorrencia retentativaConcorrencia,
+                                      @Value("${pedido.status-lote.tamanho-bloco:500}") int tamanhoBloco) {
+        this.pedidoRepository = pedidoRepository;
+        this.vendaDiariaService = vendaDiariaService;
+        this.retentativaConcorrencia = retentativaConcorrencia;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    public ResultadoAlteracaoStatusDTO alterarStatus(AlteracaoStatusLoteDTO alteracao) {
+        validar(alteracao);
+        StatusPedido novoStatus = alteracao.getNovoStatus();
+        ResultadoAlteracaoStatusDTO resultado = new ResultadoAlteracaoStatusDTO();
+
+        if (alteracao.getIds() != null && !alteracao.getIds().isEmpty()) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(alteracao.getIds()));
+            for (int inicio = 0; inicio < ids.size(); inicio += tamanhoBloco) {
+                processarBloco(ids.subList(inicio, Math.min(inicio + tamanhoBloco, ids.size())), novoStatus, resultado);
+            }
+            return resultado;
+        }
+
+        // O cursor (dataCadastro, id) não depende do status, então os pedidos já alterados não mudam as próximas páginas
+        LocalDateTime cursorData = null;
+        Long cursorId = null;
+        while (true) {
+            List<ChavePedido> chaves = pedidoRepository.findChavesByFiltros(alteracao.getStatus(),
+                    alteracao.getDataInicio(), alteracao.getDataFim(), alteracao.getValorMinimo(),
+                    alteracao.getValorMaximo(), cursorData, cursorId, Limit.of(tamanhoBloco));
+            if (chaves.isEmpty()) {
+                break;
+            }
+            processarBloco(chaves.stream().map(ChavePedido::id).toList(), novoStatus, resultado);
+
+            ChavePedido ultima = chaves.getLast();
+            cursorData = ultima.dataCadastro();
+            cursorId = ultima.id();
+            if (chaves.size() < tamanhoBloco) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    private void processarBloco(List<Long> ids, StatusPedido novoStatus, ResultadoAlteracaoStatusDTO resultado) {
+        try {
+            ResultadoBloco bloco = retentativaConcorrencia.executar(() -> alterarBloco(ids, novoStatus));
+            resultado.setAlterados(resultado.getAlterados() + bloco.alterados());
+            resultado.getIgnorados().addAll(bloco.ignorados());
+        } catch (ConcurrencyFailureException e) {
+            // Esgotadas as tentativas, o bloco fica de fora sem interromper os seguintes
+            log.warn("Bloco de {} pedidos não alterado para {} por conflito de concorrência", ids.size(), novoStatus, e);
+            ids.forEach(id -> resultado.getIgnorados().add(
+                    new PedidoIgnoradoDTO(id, null, "Pedido alterado por outra operação")));
+        }
+    }
+
+    /**
+     * Lê o bloco, separa os pedidos que podem ir para o novo status e os altera em um UPDATE.
+     * A soma das versões depois do UPDATE confirma que nenhum deles foi alterado por outra transação desde a leitura.
+     */
+    private ResultadoBloco alterarBloco(List<Long> ids, StatusPedido novoStatus) {
+        Map<Long, ResumoPedido> pedidos = pedidoRepository.findResumoByIdIn(ids).stream()
+                .collect(Collectors.toMap(ResumoPedido::id, Function.identity()));
+
+        List<ResumoPedido> validos = new ArrayList<>();
+        List<PedidoIgnoradoDTO> ignorados = new ArrayList<>();
+        for (Long id : ids) {
+            ResumoPedido pedido = pedidos.get(id);
+            if (pedido == null) {
+                ignorados.add(new PedidoIgnoradoDTO(id, null, "Pedido não encontrado"));
+            } else if (pedido.statusPedido() == novoStatus) {
+                ignorados.add(new PedidoIgnoradoDTO(id, pedido.statusPedido(), "Pedido já está com o status " + novoStatus));
+            } else if (pedido.statusPedido() == null || !pedido.statusPedido().podeMudarPara(novoStatus)) {
+                ignorados.add(new PedidoIgnoradoDTO(id, pedido.statusPedido(),
+                        "Status " + pedido.statusPedido() + " não pode ser alterado para " + novoStatus));
+            } else {
+                validos.add(pedido);
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            List<Long> idsValidos = validos.stream().map(ResumoPedido::id).toList();
+            List<StatusPedido> origens = Arrays.stream(StatusPedido.values())
+                    .filter(status -> status.podeMudarPara(novoStatus))
+                    .toList();
+            long versoesEsperadas = validos.stream().mapToLong(pedido -> pedido.versao() + 1).sum();
+
+            int alterados = pedidoRepository.atualizarStatusEmLote(idsValidos, origens, novoStatus, LocalDateTime.now());
+            if (alterados != validos.size() || pedidoRepository.somaVersoesByIdIn(idsValidos) != versoesEsperadas) {
+                throw new ObjectOptimisticLockingFailureException(Pedido.class, idsValidos);
+            }
+            vendaDiariaService.registrarTrocaStatus(validos, novoStatus);
+        }
+        return new ResultadoBloco(validos.size(), ignorados);
+    }
+
+    private static void validar(AlteracaoStatusLoteDTO alteracao) {
+        if (alteracao == null || alteracao.getNovoStatus() == null) {
+            throw new BusinessException("O novo status é obrigatório");
+        }
+        boolean porIds = alteracao.getIds() != null && !alteracao.getIds().isEmpty();
+        boolean porFiltros = alteracao.getStatus() != null || alteracao.getDataInicio() != null
+                || alteracao.getDataFim() != null || alteracao.getValorMinimo() != null
+                || alteracao.getValorMaximo() != null;
+        if (porIds == porFiltros) {
+            throw new BusinessException("Informe os ids dos pedidos ou ao menos um filtro, mas não ambos");
+        }
+        if (porIds && alteracao.getIds().stream().anyMatch(Objects::isNull)) {
+            throw new BusinessException("Os ids dos pedidos não podem ser nulos");
+        }
+    }
+
+    private record ResultadoBloco(long alterados, List<PedidoIgnoradoDTO> ignorados) {
+    }
+}
@@ -0,0 +1,184 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.dtos.SugestaoProdutoDTO;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Sugestões para a caixa de busca a partir do início do título dos produtos ativos, sem ir ao banco.
+ * Os títulos normalizados ficam em mapas ordenados concorrentes: uma sugestão é a leitura dos primeiros itens
+ * do intervalo que começa com o texto digitado, primeiro entre os títulos e depois a partir das demais palavras
+ * ("dell" sugere "Notebook Dell"), sem bloquear e independente do tamanho do catálogo.
+ * Como o {@link IndiceBuscaProdutos}, recebe as alterações de ProdutoService após o commit e é remontado na subida
+ * e a cada {@code produto.busca.recarga-ms}.
+ */
+@Component
+public class AutocompleteProdutos {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::texto).thenComparing(Chave::id);
+
+    private final ProdutoRepository produtoRepository;
+    private final Object escrita = new Object();
+
+    private volatile Indice indice = new Indice();
+    private List<Consumer<Indice>> alteracoesDuranteRecarga;
+
+    public AutocompleteProdutos(ProdutoRepository produtoRepository) {
+        this.produtoRepository = produtoRepository;
+    }
+
+    /**
+     * Remonta as sugestões a partir de PRODUTO, reaplicando as alterações que chegam durante a montagem
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${produto.busca.recarga-ms:600000}",
+               initialDelayString = "${produto.busca.recarga-ms:600000}")
+    public synchronized void recarregar() {
+        List<Consumer<Indice>> pendentes = new ArrayList<>();
+        synchronized (escrita) {
+            alteracoesDuranteRecarga = pendentes;
+        }
+
+        Indice novo = new Indice();
+        try {
+            for (Produto produto : produtoRepository.findAll()) {
+                novo.adicionar(produto.getId(), produto.getTitulo(), produto.getValor(), produto.getStatus());
+            }
+        } finally {
+            synchronized (escrita) {
+                if (alteracoesDuranteRecarga == pendentes) {
+                    pendentes.forEach(alteracao -> alteracao.accept(novo));
+                    indice = novo;
+                }
+                alteracoesDuranteRecarga = null;
+            }
+        }
+    }
+
+    public void atualizar(ProdutoDTO produto) {
+        aposCommit(() -> aplicar(indice -> indice.adicionar(produto.getId(), produto.getTitulo(), produto.getValor(),
+                produto.getStatus())));
+    }
+
+    public void remover(Long id) {
+        aposCommit(() -> aplicar(indice -> indice.remover(id)));
+    }
+
+    /**
+     * Até {@code limite} produtos ativos cujo título, ou alguma palavra dele em diante, começa com a consulta:
+     * primeiro os que começam pelo título, cada grupo em ordem alfabética
+     */
+    public List<SugestaoProdutoDTO> sugerir(String consulta, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        String prefixo = NormalizacaoTexto.compactar(consulta);
+        if (prefixo.isEmpty()) {
+            return List.of();
+        }
+
+        Indice atual = indice;
+        Map<Long, SugestaoProdutoDTO> sugestoes = new LinkedHashMap<>();
+        coletar(atual.titulos, prefixo, limite, sugestoes);
+        coletar(atual.palavras, prefixo, limite, sugestoes);
+        return new ArrayList<>(sugestoes.values());
+    }
+
+    private static void coletar(NavigableMap<Chave, Entrada> chaves, String prefixo, int limite,
+                                Map<Long, SugestaoProdutoDTO> sugestoes) {
+        NavigableMap<Chave, Entrada> intervalo = chaves.subMap(new Chave(prefixo, Long.MIN_VALUE), true,
+                new Chave(prefixo + Character.MAX_VALUE, Long.MIN_VALUE), false);
+        for (Entrada entrada : intervalo.values()) {
+            if (sugestoes.size() == limite) {
+                return;
+            }
+            sugestoes.computeIfAbsent(entrada.id(),
+                    id -> new SugestaoProdutoDTO(id, entrada.titulo(), entrada.valor()));
+        }
+    }
+
+    private void aplicar(Consumer<Indice> alteracao) {
+        synchronized (escrita) {
+            alteracao.accept(indice);
+            if (alteracoesDuranteRecarga != null) {
+                alteracoesDuranteRecarga.add(alteracao);
+            }
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private record Chave(String texto, Long id) {
+    }
+
+    private record Entrada(Long id, String titulo, BigDecimal valor) {
+    }
+
+    /**
+     * Leituras concorrentes sem bloqueio; as escritas acontecem sempre sob {@code escrita}
+     */
+    private static final class Indice {
+
+        private final NavigableMap<Chave, Entrada> titulos = new ConcurrentSkipListMap<>(ORDEM);
+        private final NavigableMap<Chave, Entrada> palavras = new ConcurrentSkipListMap<>(ORDEM);
+        private final Map<Long, List<Chave>> chavesPorProduto = new HashMap<>();
+
+        void adicionar(Long id, String titulo, BigDecimal valor, StatusProduto status) {
+            remover(id);
+            List<String> tokens = NormalizacaoTexto.tokens(titulo);
+            if (status != StatusProduto.ATIVO || tokens.isEmpty()) {
+                return;
+            }
+
+            Entrada entrada = new Entrada(id, titulo, valor);
+            List<Chave> chaves = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                Chave chave = new Chave(String.join(" ", tokens.subList(i, tokens.size())), id);
+                (i == 0 ? titulos : palavras).put(chave, entrada);
+                chaves.add(chave);
+            }
+            chavesPorProduto.put(id, chaves);
+        }
+
+        void remover(Long id) {
+            List<Chave> chaves = chavesPorProduto.remove(id);
+            if (chaves == null) {
+                return;
+            }
+            titulos.remove(chaves.get(0));
+            chaves.subList(1, chaves.size()).forEach(palavras::remove);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Catálogo completo de produtos já serializado em JSON (UTF-8) e, se {@code produto.catalogo.gzip}, também compactado.
+ * O snapshot é montado na primeira leitura depois de uma alteração de produto e servido como está até a próxima,
+ * com um ETag forte calculado sobre o JSON.
+ * Alterações feitas por outras instâncias, importações ou escritas diretas no banco não passam por {@link #invalidar()};
+ * por isso o snapshot vale no máximo {@code produto.catalogo.validade-segundos} e é remontado na leitura seguinte.
+ * Se nada mudou, o ETag remontado é o mesmo e os clientes continuam recebendo 304.
+ * Cada invalidação avança a geração, e um snapshot montado em uma geração anterior é descartado; como a invalidação
+ * se repete após o commit, um snapshot montado antes dele com dados antigos não chega a ser servido.
+ */
+@Component
+public class CatalogoProdutos {
+
+    private final ProdutoRepository produtoRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final long validadeNanos;
+
+    private final AtomicLong geracao = new AtomicLong();
+    private volatile Snapshot atual;
+
+    public CatalogoProdutos(ProdutoRepository produtoRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${produto.catalogo.gzip:true}") boolean gzip,
+                            @Value("${produto.catalogo.validade-segundos:60}") long validadeSegundos) {
+        this.produtoRepository = produtoRepository;
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.validadeNanos = TimeUnit.SECONDS.toNanos(validadeSegundos);
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = atual;
+        if (valido(snapshot, geracao.get())) {
+            return snapshot;
+        }
+        return montar();
+    }
+
+    public void invalidar() {
+        geracao.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    geracao.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Uma única montagem por vez; quem esperava reaproveita o snapshot recém-montado se a geração não mudou
+     */
+    private synchronized Snapshot montar() {
+        long geracaoLida = geracao.get();
+        Snapshot snapshot = atual;
+        if (valido(snapshot, geracaoLida)) {
+            return snapshot;
+        }
+
+        long montadoEm = System.nanoTime();
+        List<ProdutoDTO> produtos = produtoRepository.findAll(Sort.by("id")).stream()
+                .map(ProdutoDTO::fromEntity)
+                .toList();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(produtos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o catálogo de produtos", e);
+        }
+        byte[] compactado = gzip ? compactar(json) : null;
+
+        snapshot = new Snapshot(geracaoLida, montadoEm, json, compactado != null && compactado.length < json.length ? compactado : null,
+                "\"" + hash(json) + "\"");
+        atual = snapshot;
+        return snapshot;
+    }
+
+    private boolean valido(Snapshot snapshot, long geracaoAtual) {
+        return snapshot != null && snapshot.geracao == geracaoAtual
+                && System.nanoTime() - snapshot.montadoEm < validadeNanos;
+    }
+
+    private static byte[] compactar(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(Math.max(64, conteudo.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    private static String hash(byte[] conteudo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Versão do catálogo servida diretamente nas respostas; os arrays são compartilhados e não devem ser modificados
+     */
+    public static final class Snapshot {
+
+        private final long geracao;
+        private final long montadoEm;
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+
+        private Snapshot(long geracao, long montadoEm, byte[] json, byte[] gzip, String etag) {
+            this.geracao = geracao;
+            this.montadoEm = montadoEm;
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        /** ETag da versão compactada, que por ser outra representação não pode repetir o do JSON */
+        public String etagGzip() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        /** Nulo quando a compactação está desligada ou não reduziu o tamanho */
+        public byte[] gzip() {
+            return gzip;
+        }
+
+        /**
+         * Verdadeiro se algum ETag de If-None-Match é o do catálogo atual, em qualquer das representações
+         */
+        public boolean corresponde(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String valor : ifNoneMatch.split(",")) {
+                String candidato = valor.trim();
+                if (candidato.startsWith("W/")) {
+                    candidato = candidato.substring(2);
+                }
+                if (candidato.equals("*") || candidato.equals(etag) || candidato.equals(etagGzip())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.events.VendaDiariaAlteradaEvent;
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de vendas em memória para os dias do mês corrente, usados pelos relatórios mais consultados
+ * (/relatorios/hoje e /relatorios/mes-atual) sem acessar o banco a cada chamada.
+ * As variações confirmadas nesta instância entram na hora, sem lock, em contadores divididos por thread.
+ * A cada {@code relatorio.contadores.reconciliacao-ms} os contadores são conferidos com VENDA_DIARIA, que é
+ * compartilhada: a diferença encontrada em cada dia e status (vendas de outras instâncias, reconstruções ou
+ * variações perdidas) é registrada no log e somada aos contadores.
+ */
+@Service
+public class ContadoresVendasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresVendasService.class);
+
+    private final VendaDiariaRepository vendaDiariaRepository;
+    private final ConcurrentMap<LocalDate, ContadoresDia> contadores = new ConcurrentHashMap<>();
+    private boolean aquecido;
+
+    public ContadoresVendasService(VendaDiariaRepository vendaDiariaRepository) {
+        this.vendaDiariaRepository = vendaDiariaRepository;
+    }
+
+    /**
+     * Confere os contadores do mês corrente com as vendas diárias e soma a diferença de cada dia e status.
+     * Um dia e status com variação em andamento no início da conferência, ou publicada durante ela, fica para a
+     * próxima: a leitura do banco pode ou não incluir essa variação, e a correção a contaria duas vezes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${relatorio.contadores.reconciliacao-ms:5000}",
+               initialDelayString = "${relatorio.contadores.reconciliacao-ms:5000}")
+    public synchronized void reconciliar() {
+        LocalDate inicioMes = LocalDate.now().withDayOfMonth(1);
+        contadores.keySet().removeIf(data -> data.isBefore(inicioMes));
+
+        Map<ChaveContador, Marca> marcas = new HashMap<>();
+        contadores.forEach((data, dia) -> dia.porStatus.forEach((status, contadoresStatus) ->
+                marcas.put(new ChaveContador(data, status), contadoresStatus.marcar())));
+
+        Map<ChaveContador, Totais> banco = new HashMap<>();
+        for (VendaDiaria venda : vendaDiariaRepository.findByDataGreaterThanEqualAndDataLessThan(
+                inicioMes, inicioMes.plusMonths(1))) {
+            banco.merge(new ChaveContador(venda.getData(), venda.getStatusPedido()),
+                    new Totais(venda.getQuantidadePedidos(), valor(venda.getValorTotal()), valor(venda.getDesconto()),
+                            valor(venda.getFrete()), venda.getQuantidadeItens()),
+                    Totais::mais);
+        }
+
+        Set<ChaveContador> chaves = new HashSet<>(marcas.keySet());
+        chaves.addAll(banco.keySet());
+        int corrigidos = 0;
+        int adiados = 0;
+        for (ChaveContador chave : chaves) {
+            ContadoresStatus contadoresStatus = contadores.computeIfAbsent(chave.data(), data -> new ContadoresDia())
+                    .porStatus.get(chave.status());
+            // Sem marca, o dia ainda não existia nos contadores: nenhuma variação tinha sido publicada para ele
+            Marca marca = marcas.getOrDefault(chave, Marca.VAZIA);
+            if (marca.pendentes() != 0 || !contadoresStatus.inalteradoDesde(marca)) {
+                adiados++;
+                continue;
+            }
+
+            Totais diferenca = banco.getOrDefault(chave, Totais.ZERO).menos(marca.totais());
+            if (diferenca.zerado()) {
+                continue;
+            }
+            contadoresStatus.acumular(diferenca.pedidos(), diferenca.valorTotal(), diferenca.desconto(),
+                    diferenca.frete(), diferenca.itens());
+            corrigidos++;
+            if (aquecido) {
+                log.info("Contadores de vendas de {} {} ajustados pela reconciliação com VENDA_DIARIA: "
+                                + "pedidos {}, valor {}, itens {}", chave.data(), chave.status(),
+                        diferenca.pedidos(), diferenca.valorTotal(), diferenca.itens());
+            }
+        }
+
+        if (aquecido && (corrigidos > 0 || adiados > 0)) {
+            log.info("Reconciliação dos contadores de vendas: {} agrupamentos ajustados, {} adiados por variações "
+                    + "em andamento", corrigidos, adiados);
+        }
+        aquecido = true;
+    }
+
+    /**
+     * Marca a variação como em andamento assim que é publicada, ainda dentro da transação que a gerou
+     */
+    @EventListener
+    public void onVendaDiariaPublicada(VendaDiariaAlteradaEvent evento) {
+        ContadoresStatus contadoresStatus = contadoresDoEvento(evento);
+        if (contadoresStatus != null) {
+            contadoresStatus.versao.incrementAndGet();
+            contadoresStatus.pendentes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Aplica a variação somente depois que a transação que a gerou foi confirmada
+     */
+    @TransactionalEventListener
+    public void onVendaDiariaAlterada(VendaDiariaAlteradaEvent evento) {
+        ContadoresStatus contadoresStatus = contadoresDoEvento(evento);
+        if (contadoresStatus != null) {
+            contadoresStatus.acumular(evento.pedidos(), evento.valorTotal(), evento.desconto(),
+                    evento.frete(), evento.itens());
+        }
+    }
+
+    /**
+     * Encerra a variação em andamento, confirmada (já aplicada) ou desfeita
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onVendaDiariaConcluida(VendaDiariaAlteradaEvent evento) {
+        ContadoresStatus contadoresStatus = contadoresDoEvento(evento);
+        if (contadoresStatus != null) {
+            contadoresStatus.pendentes.decrementAndGet();
+        }
+    }
+
+    /**
+     * Totais de vendas dos dias [dataInicio, dataFim) do mês corrente
+     */
+    public ResumoVendas resumoVendas(LocalDate dataInicio, LocalDate dataFim) {
+        long pedidos = 0;
+        long itens = 0;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        BigDecimal desconto = BigDecimal.ZERO;
+        BigDecimal frete = BigDecimal.ZERO;
+
+        for (Map.Entry<LocalDate, ContadoresDia> dia : contadores.entrySet()) {
+            if (dia.getKey().isBefore(dataInicio) || !dia.getKey().isBefore(dataFim)) {
+                continue;
+            }
+            for (ContadoresStatus status : dia.getValue().porStatus.values()) {
+                pedidos += status.pedidos.sum();
+                itens += status.itens.sum();
+                valorTotal = valorTotal.add(status.valorTotal.soma());
+                desconto = desconto.add(status.desconto.soma());
+                frete = frete.add(status.frete.soma());
+            }
+        }
+        return new ResumoVendas(pedidos, valorTotal, desconto, frete, itens);
+    }
+
+    /**
+     * Quantidade e valor por status nos dias [dataInicio, dataFim) do mês corrente
+     */
+    public List<TotalPorStatus> totaisPorStatus(LocalDate dataInicio, LocalDate dataFim) {
+        List<TotalPorStatus> totais = new ArrayList<>(StatusPedido.values().length);
+        for (StatusPedido status : StatusPedido.values()) {
+            long pedidos = 0;
+            BigDecimal valorTotal = BigDecimal.ZERO;
+            for (Map.Entry<LocalDate, ContadoresDia> dia : contadores.entrySet()) {
+                if (dia.getKey().isBefore(dataInicio) || !dia.getKey().isBefore(dataFim)) {
+                    continue;
+                }
+                ContadoresStatus contadoresStatus = dia.getValue().porStatus.get(status);
+                pedidos += contadoresStatus.pedidos.sum();
+                valorTotal = valorTotal.add(contadoresStatus.valorTotal.soma());
+            }
+            totais.add(new TotalPorStatus(status, pedidos, valorTotal));
+        }
+        return totais;
+    }
+
+    private ContadoresStatus contadoresDoEvento(VendaDiariaAlteradaEvent evento) {
+        if (evento.data().isBefore(LocalDate.now().withDayOfMonth(1))) {
+            return null;
+        }
+        return contadores.computeIfAbsent(evento.data(), data -> new ContadoresDia())
+                .porStatus.get(evento.statusPedido());
+    }
+
+    private static BigDecimal valor(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    private record ChaveContador(LocalDate data, StatusPedido status) {
+    }
+
+    private record Totais(long pedidos, BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete, long itens) {
+
+        private static final Totais ZERO = new Totais(0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        private Totais mais(Totais outro) {
+            return new Totais(pedidos + outro.pedidos, valorTotal.add(outro.valorTotal),
+                    desconto.add(outro.desconto), frete.add(outro.frete), itens + outro.itens);
+        }
+
+        private Totais menos(Totais outro) {
+            return new Totais(pedidos - outro.pedidos, valorTotal.subtract(outro.valorTotal),
+                    desconto.subtract(outro.desconto), frete.subtract(outro.frete), itens - outro.itens);
+        }
+
+        private boolean zerado() {
+            return pedidos == 0 && itens == 0 && valorTotal.signum() == 0
+                    && desconto.signum() == 0 && frete.signum() == 0;
+        }
+    }
+
+    /**
+     * Estado de um contador no início da reconciliação
+     */
+    private record Marca(long versao, int pendentes, Totais totais) {
+        private static final Marca VAZIA = new Marca(0, 0, Totais.ZERO);
+    }
+
+    private static final class ContadoresDia {
+
+        private final Map<StatusPedido, ContadoresStatus> porStatus = new EnumMap<>(StatusPedido.class);
+
+        private ContadoresDia() {
+            for (StatusPedido status : StatusPedido.values()) {
+                porStatus.put(status, new ContadoresStatus());
+            }
+        }
+    }
+
+    private static final class ContadoresStatus {
+        private final LongAdder pedidos = new LongAdder();
+        private final LongAdder itens = new LongAdder();
+        private final SomaDecimal valorTotal = new SomaDecimal();
+        private final SomaDecimal desconto = new SomaDecimal();
+        private final SomaDecimal frete = new SomaDecimal();
+        /** Variações publicadas, incrementada antes de cada uma entrar em andamento */
+        private final AtomicLong versao = new AtomicLong();
+        /** Variações publicadas cuja transação ainda não terminou */
+        private final AtomicInteger pendentes = new AtomicInteger();
+
+        private void acumular(long pedidos, BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete, long itens) {
+            this.pedidos.add(pedidos);
+            this.itens.add(itens);
+            this.valorTotal.somar(valorTotal);
+            this.desconto.somar(desconto);
+            this.frete.somar(frete);
+        }
+
+        /**
+         * Lê as pendências antes da versão e dos totais: sem pendências, os totais lidos só mudam se uma nova
+         * variação for publicada, o que altera a versão
+         */
+        private Marca marcar() {
+            int pendentesAgora = pendentes.get();
+            long versaoAgora = versao.get();
+            return new Marca(versaoAgora, pendentesAgora, new Totais(pedidos.sum(), valorTotal.soma(),
+                    desconto.soma(), frete.soma(), itens.sum()));
+        }
+
+        private boolean inalteradoDesde(Marca marca) {
+            return versao.get() == marca.versao() && pendentes.get() == 0;
+        }
+    }
+
+    /**
+     * Soma exata de BigDecimal dividida em segmentos, no mesmo espírito do LongAdder:
+     * cada thread acumula no segmento correspondente ao seu id e a leitura soma todos os segmentos.
+     */
+    private static final class SomaDecimal {
+
+        private static final int SEGMENTOS = 16;
+
+        private final AtomicReferenceArray<BigDecimal> segmentos = new AtomicReferenceArray<>(SEGMENTOS);
+
+        private SomaDecimal() {
+            for (int i = 0; i < SEGMENTOS; i++) {
+                segmentos.set(i, BigDecimal.ZERO);
+            }
+        }
+
+        private void somar(BigDecimal valor) {
+            if (valor == null || valor.signum() == 0) {
+                return;
+            }
+            int segmento = (int) (Thread.currentThread().threadId() & (SEGMENTOS - 1));
+            segmentos.accumulateAndGet(segmento, valor, BigDecimal::add);
+        }
+
+        private BigDecimal soma() {
+            BigDecimal soma = BigDecimal.ZERO;
+            for (int i = 0; i < SEGMENTOS; i++) {
+                soma = soma.add(segmentos.get(i));
+            }
+            return soma;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.FormatoExportacao;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exporta pedidos e pagamentos em CSV ou NDJSON escrevendo cada linha direto na saída,
+ * sem materializar o resultado: as entidades são lidas em lotes do fetch size e
+ * retiradas do contexto de persistência logo depois de escritas.
+ */
+@Service
+public class ExportacaoService {
+
+    private static final List<String> COLUNAS_PEDIDO = List.of(
+            "id", "numero", "statusPedido", "subtotal", "desconto", "frete", "valorTotal",
+            "dataCadastro", "dataAtualizacao");
+
+    private static final List<String> COLUNAS_PAGAMENTO = List.of(
+            "id", "pedidoId", "formaPagamento", "statusPagamento", "valor", "numeroParcelas",
+            "codigoTransacao", "codigoAutorizacao", "nsu", "bandeiraCartao", "ultimosDigitosCartao",
+            "dataVencimento", "dataPagamento", "observacao", "dataCadastro", "dataAtualizacao");
+
+    private final PedidoRepository pedidoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoService(PedidoRepository pedidoRepository, PagamentoRepository pagamentoRepository,
+                             EntityManager entityManager, ObjectMapper objectMapper) {
+        this.pedidoRepository = pedidoRepository;
+        this.pagamentoRepository = pagamentoRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarPedidos(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                FormatoExportacao formato, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escreverCabecalho(writer, formato, COLUNAS_PEDIDO);
+
+        try (Stream<Pedido> pedidos = pedidoRepository.streamByDataCadastroBetween(dataInicio, dataFim)) {
+            pedidos.forEach(pedido -> {
+                escreverLinha(writer, formato, COLUNAS_PEDIDO, Arrays.asList(
+                        pedido.getId(),
+                        pedido.getNumero(),
+                        pedido.getStatusPedido(),
+                        pedido.getSubtotal(),
+                        pedido.getDesconto(),
+                        pedido.getFrete(),
+                        pedido.getValorTotal(),
+                        pedido.getDataCadastro(),
+                        pedido.getDataAtualizacao()));
+                entityManager.detach(pedido);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarPagamentos(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                   LocalDateTime dataInicio, LocalDateTime dataFim,
+                                   FormatoExportacao formato, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escreverCabecalho(writer, formato, COLUNAS_PAGAMENTO);
+
+        try (Stream<Pagamento> pagamentos = pagamentoRepository.streamByFiltros(
+                formaPagamento, statusPagamento, dataInicio, dataFim)) {
+            pagamentos.forEach(pagamento -> {
+                escreverLinha(writer, formato, COLUNAS_PAGAMENTO, Arrays.asList(
+                        pagamento.getId(),
+                        pagamento.getPedido().getId(),
+                        pagamento.getFormaPagamento(),
+                        pagamento.getStatusPagamento(),
+                        pagamento.getValor(),
+                        pagamento.getNumeroParcelas(),
+                        pagamento.getCodigoTransacao(),
+                        pagamento.getCodigoAutorizacao(),
+                        pagamento.getNsu(),
+                        pagamento.getBandeiraCartao(),
+                        pagamento.getUltimosDigitosCartao(),
+                        pagamento.getDataVencimento(),
+                        pagamento.getDataPagamento(),
+                        pagamento.getObservacao(),
+                        pagamento.getDataCadastro(),
+                        pagamento.getDataAtualizacao()));
+                entityManager.detach(pagamento);
+                entityManager.detach(pagamento.getPedido());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void escreverCabecalho(Writer writer, FormatoExportacao formato, List<String> colunas) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(String.join(",", colunas));
+            writer.write('\n');
+        }
+    }
+
+    private void escreverLinha(Writer writer, FormatoExportacao formato, List<String> colunas, List<Object> valores) {
+        try {
+            if (formato == FormatoExportacao.CSV) {
+                for (int i = 0; i < valores.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(campoCsv(valores.get(i)));
+                }
+            } else {
+                Map<String, Object> linha = new LinkedHashMap<>();
+                for (int i = 0; i < colunas.size(); i++) {
+                    linha.put(colunas.get(i), valores.get(i));
+                }
+                writer.write(objectMapper.writeValueAsString(linha));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
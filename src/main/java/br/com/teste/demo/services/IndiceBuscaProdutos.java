@@ -0,0 +1,228 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Índice invertido em memória sobre título, categoria e descrição dos produtos, usado por GET /produtos/busca:
+ * cada token normalizado aponta para os ids dos produtos em ordem.
+ * Uma busca percorre só os termos que começam com cada palavra da consulta ("note" encontra "notebook"),
+ * exige todas as palavras e ordena por relevância: o peso do campo, dobrado quando a palavra é o termo inteiro.
+ * O custo depende da quantidade de produtos encontrados, não do tamanho do catálogo.
+ * As alterações feitas por ProdutoService entram após o commit; o índice inteiro é remontado na subida e a cada
+ * {@code produto.busca.recarga-ms}, o que traz também as alterações feitas por outras instâncias.
+ * Os filtros por título (/produtos/filtrar e /produtos/por-titulo) ficam no banco, que vê na hora as gravações
+ * de todas as instâncias: o índice de trigramas de BuscaProdutoConfig encontra o texto em qualquer posição do título
+ * e ProdutoRepository.findPaginaByTitulo ordena por relevância.
+ */
+@Component
+public class IndiceBuscaProdutos {
+
+    /** Ordem dos resultados: mais relevantes primeiro e, no empate, pelo id */
+    public static final Comparator<Resultado> ORDEM = Comparator.comparingInt(Resultado::relevancia).reversed()
+            .thenComparing(Resultado::id);
+
+    private final ProdutoRepository produtoRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Indice indice = new Indice();
+    private List<Consumer<Indice>> alteracoesDuranteRecarga;
+
+    public IndiceBuscaProdutos(ProdutoRepository produtoRepository) {
+        this.produtoRepository = produtoRepository;
+    }
+
+    /**
+     * Remonta o índice a partir de PRODUTO. As alterações que chegam enquanto ele é montado são
+     * reaplicadas no novo índice antes da troca, para que não se percam.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${produto.busca.recarga-ms:600000}",
+               initialDelayString = "${produto.busca.recarga-ms:600000}")
+    public synchronized void recarregar() {
+        List<Consumer<Indice>> pendentes = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            alteracoesDuranteRecarga = pendentes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Indice novo = new Indice();
+        try {
+            for (Produto produto : produtoRepository.findAll()) {
+                novo.adicionar(produto.getId(), produto.getTitulo(), produto.getCategoria(), produto.getDescricao());
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (alteracoesDuranteRecarga == pendentes) {
+                    pendentes.forEach(alteracao -> alteracao.accept(novo));
+                    indice = novo;
+                }
+                alteracoesDuranteRecarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void indexar(ProdutoDTO produto) {
+        aposCommit(() -> aplicar(indice -> indice.adicionar(produto.getId(), produto.getTitulo(),
+                produto.getCategoria(), produto.getDescricao())));
+    }
+
+    public void remover(Long id) {
+        aposCommit(() -> aplicar(indice -> indice.remover(id)));
+    }
+
+    /**
+     * Produtos que têm todas as palavras da consulta em algum dos campos, em {@link #ORDEM}
+     */
+    public List<Resultado> buscar(String consulta, Set<Campo> campos) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(NormalizacaoTexto.tokens(consulta)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return indice.buscar(tokens, campos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void aplicar(Consumer<Indice> alteracao) {
+        lock.writeLock().lock();
+        try {
+            alteracao.accept(indice);
+            if (alteracoesDuranteRecarga != null) {
+                alteracoesDuranteRecarga.add(alteracao);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    public enum Campo {
+        TITULO(3),
+        CATEGORIA(2),
+        DESCRICAO(1);
+
+        private final int peso;
+
+        Campo(int peso) {
+            this.peso = peso;
+        }
+    }
+
+    public record Resultado(Long id, int relevancia) {
+    }
+
+    private static final class Indice {
+
+        private final Map<Campo, TreeMap<String, TreeSet<Long>>> termos = new EnumMap<>(Campo.class);
+        private final Map<Long, Map<Campo, Set<String>>> documentos = new HashMap<>();
+
+        private Indice() {
+            for (Campo campo : Campo.values()) {
+                termos.put(campo, new TreeMap<>());
+            }
+        }
+
+        void adicionar(Long id, String titulo, String categoria, String descricao) {
+            remover(id);
+            Map<Campo, Set<String>> documento = new EnumMap<>(Campo.class);
+            documento.put(Campo.TITULO, new LinkedHashSet<>(NormalizacaoTexto.tokens(titulo)));
+            documento.put(Campo.CATEGORIA, new LinkedHashSet<>(NormalizacaoTexto.tokens(categoria)));
+            documento.put(Campo.DESCRICAO, new LinkedHashSet<>(NormalizacaoTexto.tokens(descricao)));
+            documento.forEach((campo, tokens) -> tokens.forEach(token ->
+                    termos.get(campo).computeIfAbsent(token, chave -> new TreeSet<>()).add(id)));
+            documentos.put(id, documento);
+        }
+
+        void remover(Long id) {
+            Map<Campo, Set<String>> documento = documentos.remove(id);
+            if (documento == null) {
+                return;
+            }
+            documento.forEach((campo, tokens) -> tokens.forEach(token -> {
+                TreeSet<Long> ids = termos.get(campo).get(token);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    termos.get(campo).remove(token);
+                }
+            }));
+        }
+
+        List<Resultado> buscar(List<String> tokens, Set<Campo> campos) {
+            Map<Long, Integer> encontrados = null;
+            for (String token : tokens) {
+                Map<Long, Integer> pontos = pontuar(token, campos);
+                if (encontrados == null) {
+                    encontrados = pontos;
+                } else {
+                    encontrados.keySet().retainAll(pontos.keySet());
+                    encontrados.replaceAll((id, relevancia) -> relevancia + pontos.get(id));
+                }
+                if (encontrados.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Resultado> resultados = new ArrayList<>(encontrados.size());
+            encontrados.forEach((id, relevancia) -> resultados.add(new Resultado(id, relevancia)));
+            resultados.sort(ORDEM);
+            return resultados;
+        }
+
+        /**
+         * Pontos de cada produto para uma palavra: em cada campo vale o melhor termo que começa com ela
+         */
+        private Map<Long, Integer> pontuar(String token, Set<Campo> campos) {
+            Map<Long, Integer> pontos = new HashMap<>();
+            for (Campo campo : campos) {
+                Map<Long, Integer> doCampo = new HashMap<>();
+                termos.get(campo).subMap(token, true, token + Character.MAX_VALUE, false).forEach((termo, ids) -> {
+                    int peso = termo.length() == token.length() ? campo.peso * 2 : campo.peso;
+                    ids.forEach(id -> doCampo.merge(id, peso, Math::max));
+                });
+                doCampo.forEach((id, peso) -> pontos.merge(id, peso, Integer::sum));
+            }
+            return pontos;
+        }
+    }
+}
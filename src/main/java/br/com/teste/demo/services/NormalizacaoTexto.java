@@ -0,0 +1,43 @@
+package br.com.teste.demo.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização dos textos de produtos usada pelos índices em memória: sem acentos, em minúsculas
+ * e, para a busca por palavras, dividido em tokens alfanuméricos.
+ */
+public final class NormalizacaoTexto {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private NormalizacaoTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT).trim();
+    }
+
+    public static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizar(texto))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /** Os tokens separados por um único espaço, para comparar prefixos de títulos */
+    public static String compactar(String texto) {
+        return String.join(" ", tokens(texto));
+    }
+}
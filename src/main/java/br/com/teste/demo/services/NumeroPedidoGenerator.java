@@ -0,0 +1,13 @@
+package br.com.teste.demo.services;
+
+/**
+ * Gera o número de negócio dos pedidos (PEDIDO.NUMERO).
+ * A implementação é escolhida pela propriedade {@code pedido.numero.estrategia}:
+ * {@code sequencia} (padrão) reserva blocos de uma sequência do banco e {@code snowflake}
+ * gera números ordenados pelo tempo a partir do id do nó, sem acessar o banco.
+ * Os números precisam ser únicos entre todos os nós e threads da aplicação.
+ */
+public interface NumeroPedidoGenerator {
+
+    long proximoNumero();
+}
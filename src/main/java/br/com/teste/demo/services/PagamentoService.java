@@ -1,6 +1,7 @@
 package br.com.teste.demo.services;
 
 import br.com.teste.demo.dtos.PagamentoDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.enums.FormaPagamento;
 import br.com.teste.demo.enums.StatusPagamento;
 import org.springframework.stereotype.Service;
@@ -25,10 +26,6 @@ public interface PagamentoService {
 
     PagamentoDTO estornarPagamento(Long id);
 
-    List<PagamentoDTO> findByFormaPagamento(FormaPagamento formaPagamento);
-
-    List<PagamentoDTO> findByStatusPagamento(StatusPagamento statusPagamento);
-
-    List<PagamentoDTO> findByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
-                                      LocalDateTime dataInicio, LocalDateTime dataFim);
+    PaginaDTO<PagamentoDTO> findPagina(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                       LocalDateTime dataInicio, LocalDateTime dataFim, String cursor, int limite);
 }
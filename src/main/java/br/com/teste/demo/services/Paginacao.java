@@ -0,0 +1,108 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.PaginaDTO;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Paginação por cursor (keyset) sobre a chave (dataCadastro, id), em ordem decrescente.
+ * Cada página busca só as linhas após o cursor, então o custo não cresce com a profundidade;
+ * o token "next" é opaco para o cliente e codifica a chave da última linha devolvida.
+ */
+public final class Paginacao {
+
+    public static final int LIMITE_MAXIMO = 500;
+
+    private Paginacao() {
+    }
+
+    public record Cursor(LocalDateTime dataCadastro, Long id) {
+
+        static final Cursor INICIO = new Cursor(null, null);
+    }
+
+    /**
+     * Cursor das buscas por texto, ordenadas por relevância e id (IndiceBuscaProdutos.ORDEM e
+     * ProdutoRepository.findPaginaByTitulo) em vez de (dataCadastro, id)
+     */
+    public record CursorRelevancia(int relevancia, Long id) {
+
+        static final CursorRelevancia INICIO = new CursorRelevancia(Integer.MAX_VALUE, null);
+
+        public boolean inicio() {
+            return id == null;
+        }
+    }
+
+    public static Cursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return Cursor.INICIO;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 2);
+            return new Cursor(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+
+    public static CursorRelevancia decodificarRelevancia(String token) {
+        if (token == null || token.isBlank()) {
+            return CursorRelevancia.INICIO;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 2);
+            return new CursorRelevancia(Integer.parseInt(partes[0]), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+
+    /**
+     * Limite a repassar à consulta: uma linha a mais que a página, para saber se há próxima
+     */
+    public static Limit limiteConsulta(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return Limit.of(limite + 1);
+    }
+
+    public static <E, D> PaginaDTO<D> montar(List<E> linhas, int limite,
+                                             Function<E, LocalDateTime> dataCadastro, Function<E, Long> id,
+                                             Function<E, D> conversor) {
+        List<E> pagina = linhas.size() > limite ? linhas.subList(0, limite) : linhas;
+        String next = null;
+        if (linhas.size() > limite) {
+            E ultima = pagina.get(pagina.size() - 1);
+            next = codificar(dataCadastro.apply(ultima), id.apply(ultima));
+        }
+        return new PaginaDTO<>(pagina.stream().map(conversor).toList(), next);
+    }
+
+    public static <E, D> PaginaDTO<D> montarPorRelevancia(List<E> linhas, int limite, ToIntFunction<E> relevancia,
+                                                          Function<E, Long> id, Function<E, D> conversor) {
+        List<E> pagina = linhas.size() > limite ? linhas.subList(0, limite) : linhas;
+        String next = null;
+        if (linhas.size() > limite) {
+            E ultima = pagina.get(pagina.size() - 1);
+            next = codificar(relevancia.applyAsInt(ultima) + "|" + id.apply(ultima));
+        }
+        return new PaginaDTO<>(pagina.stream().map(conversor).toList(), next);
+    }
+
+    private static String codificar(LocalDateTime dataCadastro, Long id) {
+        return codificar(dataCadastro + "|" + id);
+    }
+
+    private static String codificar(String chave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(chave.getBytes(StandardCharsets.UTF_8));
+    }
+}
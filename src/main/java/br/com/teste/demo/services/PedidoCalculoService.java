@@ -1,13 +1,37 @@
 package br.com.teste.demo.services;
 
+import br.com.teste.demo.models.ItemPedido;
 import br.com.teste.demo.models.Pedido;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class PedidoCalculoService {
 
+    /**
+     * Escala do cálculo em long: centésimos de centavo. Percentuais de desconto com 2 casas (0.10, 0.05) acrescentam
+     * duas casas ao subtotal, então é a menor escala em que o resultado é exatamente o do BigDecimal.
+     */
+    private static final int ESCALA = 4;
+    private static final int ESCALA_MAXIMA_ITEM = 2;
+    private static final long[] POTENCIAS_DE_DEZ = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    /** Regras de desconto e frete em vigor; trocadas por inteiro, nunca alteradas no lugar */
+    private final AtomicReference<TabelaPrecos> tabelaPrecos = new AtomicReference<>(TabelaPrecos.PADRAO);
+
+    public TabelaPrecos getTabelaPrecos() {
+        return tabelaPrecos.get();
+    }
+
+    /**
+     * Passa a usar a nova tabela nos próximos cálculos; cálculos em andamento terminam com a tabela que leram
+     */
+    public void atualizarTabelaPrecos(TabelaPrecos tabela) {
+        tabelaPrecos.set(tabela);
+    }
+
     /**
      * Calcula o subtotal do pedido (soma dos valores dos itens)
      */
@@ -22,65 +46,170 @@ public class PedidoCalculoService {
     }
 
     /**
-     * Calcula o desconto baseado em regras de negócio
-     * - 10% de desconto para pedidos acima de R$ 1000
-     * - 5% de desconto para pedidos acima de R$ 500
+     * Calcula o desconto pela faixa de desconto do subtotal na tabela de preços
+     * (padrão: 10% a partir de R$ 1000, 5% a partir de R$ 500)
      */
     public BigDecimal calcularDesconto(BigDecimal subtotal, BigDecimal descontoManual) {
+        return calcularDesconto(tabelaPrecos.get(), subtotal, descontoManual);
+    }
+
+    /**
+     * Calcula o frete pela faixa de frete do subtotal com desconto na tabela de preços
+     * (padrão: grátis a partir de R$ 500, R$ 20 a partir de R$ 200, R$ 30 abaixo disso)
+     */
+    public BigDecimal calcularFrete(BigDecimal subtotalComDesconto, BigDecimal freteManual) {
+        return calcularFrete(tabelaPrecos.get(), subtotalComDesconto, freteManual);
+    }
+
+    private BigDecimal calcularDesconto(TabelaPrecos tabela, BigDecimal subtotal, BigDecimal descontoManual) {
         if (descontoManual != null && descontoManual.compareTo(BigDecimal.ZERO) > 0) {
             return descontoManual;
         }
 
-        if (subtotal.compareTo(new BigDecimal("1000.00")) >= 0) {
-            return subtotal.multiply(new BigDecimal("0.10"));
-        } else if (subtotal.compareTo(new BigDecimal("500.00")) >= 0) {
-            return subtotal.multiply(new BigDecimal("0.05"));
-        }
-
-        return BigDecimal.ZERO;
+        int faixa = tabela.faixaDesconto(subtotal);
+        return faixa >= 0 ? subtotal.multiply(tabela.percentual(faixa)) : BigDecimal.ZERO;
     }
 
-    /**
-     * Calcula o frete baseado em regras de negócio
-     * - Frete grátis para pedidos acima de R$ 500 (após desconto)
-     * - R$ 20 de frete para pedidos acima de R$ 200
-     * - R$ 30 de frete para pedidos abaixo de R$ 200
-     */
-    public BigDecimal calcularFrete(BigDecimal subtotalComDesconto, BigDecimal freteManual) {
+    private BigDecimal calcularFrete(TabelaPrecos tabela, BigDecimal subtotalComDesconto, BigDecimal freteManual) {
         if (freteManual != null && freteManual.compareTo(BigDecimal.ZERO) >= 0) {
             return freteManual;
         }
 
-        if (subtotalComDesconto.compareTo(new BigDecimal("500.00")) >= 0) {
-            return BigDecimal.ZERO;
-        } else if (subtotalComDesconto.compareTo(new BigDecimal("200.00")) >= 0) {
-            return new BigDecimal("20.00");
-        } else {
-            return new BigDecimal("30.00");
-        }
+        int faixa = tabela.faixaFrete(subtotalComDesconto);
+        return faixa >= 0 ? tabela.valorFrete(faixa) : BigDecimal.ZERO;
     }
 
     /**
-     * Calcula todos os valores do pedido (subtotal, desconto, frete, total)
+     * Calcula todos os valores do pedido (subtotal, desconto, frete, total).
+     * Usa o cálculo em long sempre que os valores cabem nele; os resultados, inclusive a escala
+     * de cada BigDecimal, são os mesmos de {@link #calcularValoresPedidoDecimal(Pedido)}.
+     * A tabela de preços é lida uma única vez, então o pedido nunca mistura regras de duas versões.
      */
     public void calcularValoresPedido(Pedido pedido) {
+        TabelaPrecos tabela = tabelaPrecos.get();
+        if (!calcularValoresPedidoEmUnidades(pedido, tabela)) {
+            calcularValoresPedidoDecimal(pedido, tabela);
+        }
+    }
+
+    /**
+     * Cálculo de referência em BigDecimal, usado quando algum valor não cabe no cálculo em long
+     */
+    public void calcularValoresPedidoDecimal(Pedido pedido) {
+        calcularValoresPedidoDecimal(pedido, tabelaPrecos.get());
+    }
+
+    private void calcularValoresPedidoDecimal(Pedido pedido, TabelaPrecos tabela) {
         // Calcula subtotal
         BigDecimal subtotal = calcularSubtotal(pedido);
         pedido.setSubtotal(subtotal);
 
         // Calcula desconto
-        BigDecimal desconto = calcularDesconto(subtotal, pedido.getDesconto());
+        BigDecimal desconto = calcularDesconto(tabela, subtotal, pedido.getDesconto());
         pedido.setDesconto(desconto);
 
         // Subtotal com desconto
         BigDecimal subtotalComDesconto = subtotal.subtract(desconto);
 
         // Calcula frete
-        BigDecimal frete = calcularFrete(subtotalComDesconto, pedido.getFrete());
+        BigDecimal frete = calcularFrete(tabela, subtotalComDesconto, pedido.getFrete());
         pedido.setFrete(frete);
 
         // Calcula valor total
         BigDecimal valorTotal = subtotalComDesconto.add(frete);
         pedido.setValorTotal(valorTotal);
     }
+
+    /**
+     * Mesmas regras de {@link #calcularValoresPedidoDecimal(Pedido)} em long, na escala de centésimos de centavo,
+     * acompanhando a escala que cada resultado teria em BigDecimal. Só converte para BigDecimal ao gravar no pedido.
+     * Devolve false sem alterar o pedido quando um item não tem valor ou tem mais de 2 casas,
+     * um valor manual tem mais de 4 casas, o desconto da faixa passaria de 4 casas ou alguma conta estoura o long.
+     */
+    private boolean calcularValoresPedidoEmUnidades(Pedido pedido, TabelaPrecos tabela) {
+        try {
+            long subtotal = 0;
+            int escalaSubtotal = 0;
+            if (pedido.getItens() != null) {
+                for (ItemPedido item : pedido.getItens()) {
+                    BigDecimal valor = item.getValorTotal();
+                    if (!cabeEmUnidades(valor, ESCALA_MAXIMA_ITEM)) {
+                        return false;
+                    }
+                    subtotal = Math.addExact(subtotal, paraUnidades(valor));
+                    escalaSubtotal = Math.max(escalaSubtotal, valor.scale());
+                }
+            }
+
+            BigDecimal descontoManual = pedido.getDesconto();
+            long desconto;
+            int escalaDesconto;
+            if (descontoManual != null && descontoManual.signum() > 0) {
+                if (!cabeEmUnidades(descontoManual, ESCALA)) {
+                    return false;
+                }
+                desconto = paraUnidades(descontoManual);
+                escalaDesconto = descontoManual.scale();
+            } else {
+                int faixa = tabela.faixaDesconto(subtotal);
+                if (faixa >= 0) {
+                    // subtotal tem no máximo escalaSubtotal casas, então a divisão é exata
+                    int escalaPercentual = tabela.percentual(faixa).scale();
+                    escalaDesconto = escalaSubtotal + escalaPercentual;
+                    if (escalaDesconto > ESCALA) {
+                        return false;
+                    }
+                    desconto = Math.multiplyExact(subtotal, tabela.percentualSemEscala(faixa))
+                            / POTENCIAS_DE_DEZ[escalaPercentual];
+                } else {
+                    desconto = 0;
+                    escalaDesconto = 0;
+                }
+            }
+
+            long subtotalComDesconto = Math.subtractExact(subtotal, desconto);
+            int escalaSubtotalComDesconto = Math.max(escalaSubtotal, escalaDesconto);
+
+            BigDecimal freteDecimal = pedido.getFrete();
+            long frete;
+            if (freteDecimal != null && freteDecimal.signum() >= 0) {
+                if (!cabeEmUnidades(freteDecimal, ESCALA)) {
+                    return false;
+                }
+                frete = paraUnidades(freteDecimal);
+            } else {
+                int faixa = tabela.faixaFrete(subtotalComDesconto);
+                freteDecimal = faixa >= 0 ? tabela.valorFrete(faixa) : BigDecimal.ZERO;
+                frete = faixa >= 0 ? tabela.valorFreteUnidades(faixa) : 0;
+            }
+
+            long valorTotal = Math.addExact(subtotalComDesconto, frete);
+            int escalaValorTotal = Math.max(escalaSubtotalComDesconto, freteDecimal.scale());
+
+            pedido.setSubtotal(paraDecimal(subtotal, escalaSubtotal));
+            pedido.setDesconto(descontoManual != null && descontoManual.signum() > 0
+                    ? descontoManual : paraDecimal(desconto, escalaDesconto));
+            pedido.setFrete(freteDecimal);
+            pedido.setValorTotal(paraDecimal(valorTotal, escalaValorTotal));
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    private static boolean cabeEmUnidades(BigDecimal valor, int escalaMaxima) {
+        return valor != null && valor.scale() >= 0 && valor.scale() <= escalaMaxima;
+    }
+
+    /**
+     * Converte para centésimos de centavo; lança ArithmeticException se não couber em long
+     */
+    private static long paraUnidades(BigDecimal valor) {
+        long semEscala = valor.movePointRight(valor.scale()).longValueExact();
+        return Math.multiplyExact(semEscala, POTENCIAS_DE_DEZ[ESCALA - valor.scale()]);
+    }
+
+    private static BigDecimal paraDecimal(long unidades, int escala) {
+        return BigDecimal.valueOf(unidades / POTENCIAS_DE_DEZ[ESCALA - escala], escala);
+    }
 }
@@ -0,0 +1,178 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ItemPedidoDTO;
+import br.com.teste.demo.dtos.PedidoDTO;
+import br.com.teste.demo.dtos.ResultadoPedidoLoteDTO;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Criação de pedidos em lote para importações.
+ * Os produtos de todo o lote são buscados em uma consulta, os pedidos inválidos são recusados
+ * individualmente, com as mesmas regras de POST /pedidos, e os válidos são gravados em lotes JDBC, com um commit a cada
+ * {@code pedido.lote.tamanho-commit} pedidos. A falha de um bloco não desfaz os blocos já confirmados; os pedidos
+ * dele são gravados de novo um a um, para que só o que falhou seja recusado, com o seu próprio erro.
+ */
+@Service
+public class PedidoLoteService {
+
+    private final PedidoRepository pedidoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final PedidoCalculoService pedidoCalculoService;
+    private final VendaDiariaService vendaDiariaService;
+    private final NumeroPedidoGenerator numeroPedidoGenerator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoCommit;
+
+    public PedidoLoteService(PedidoRepository pedidoRepository,
+                             ProdutoRepository produtoRepository,
+                             PedidoCalculoService pedidoCalculoService,
+                             VendaDiariaService vendaDiariaService,
+                             NumeroPedidoGenerator numeroPedidoGenerator,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${pedido.lote.tamanho-commit:500}") int tamanhoCommit) {
+        this.pedidoRepository = pedidoRepository;
+        this.produtoRepository = produtoRepository;
+        this.pedidoCalculoService = pedidoCalculoService;
+        this.vendaDiariaService = vendaDiariaService;
+        this.numeroPedidoGenerator = numeroPedidoGenerator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoCommit = tamanhoCommit;
+    }
+
+    public List<ResultadoPedidoLoteDTO> createOrders(List<PedidoDTO> pedidosDTO) {
+        if (pedidosDTO == null || pedidosDTO.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos um pedido");
+        }
+
+        ResultadoPedidoLoteDTO[] resultados = new ResultadoPedidoLoteDTO[pedidosDTO.size()];
+        Map<Long, Produto> produtos = buscarProdutos(pedidosDTO);
+
+        List<Integer> indicesValidos = new ArrayList<>();
+        for (int i = 0; i < pedidosDTO.size(); i++) {
+            String erro = validar(pedidosDTO.get(i), produtos);
+            if (erro != null) {
+                resultados[i] = ResultadoPedidoLoteDTO.falha(i, erro);
+                continue;
+            }
+            indicesValidos.add(i);
+        }
+
+        for (int inicio = 0; inicio < indicesValidos.size(); inicio += tamanhoCommit) {
+            int fim = Math.min(inicio + tamanhoCommit, indicesValidos.size());
+            gravarBloco(indicesValidos.subList(inicio, fim), pedidosDTO, produtos, resultados);
+        }
+
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Grava os pedidos dos índices em uma transação. Se ela falhar, cada pedido é montado de novo e gravado
+     * sozinho, já que as entidades da transação desfeita ficam com id e versão que não existem no banco.
+     */
+    private void gravarBloco(List<Integer> indices, List<PedidoDTO> pedidosDTO, Map<Long, Produto> produtos,
+                             ResultadoPedidoLoteDTO[] resultados) {
+        List<Pedido> pedidos = indices.stream()
+                .map(indice -> montarPedido(pedidosDTO.get(indice), produtos))
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                pedidoRepository.saveAll(pedidos);
+                vendaDiariaService.registrarNovos(pedidos);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < pedidos.size(); i++) {
+                Pedido pedido = pedidos.get(i);
+                resultados[indices.get(i)] = ResultadoPedidoLoteDTO.sucesso(indices.get(i), pedido.getId(), pedido.getNumero());
+            }
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            if (indices.size() > 1) {
+                for (Integer indice : indices) {
+                    gravarBloco(List.of(indice), pedidosDTO, produtos, resultados);
+                }
+                return;
+            }
+            resultados[indices.getFirst()] = ResultadoPedidoLoteDTO.falha(indices.getFirst(),
+                    "Falha ao gravar o pedido: " + e.getMessage());
+        }
+    }
+
+    private Map<Long, Produto> buscarProdutos(List<PedidoDTO> pedidosDTO) {
+        Set<Long> produtoIds = new HashSet<>();
+        for (PedidoDTO pedidoDTO : pedidosDTO) {
+            if (pedidoDTO == null || pedidoDTO.getItens() == null) {
+                continue;
+            }
+            for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
+                if (itemDTO != null && itemDTO.getProdutoId() != null) {
+                    produtoIds.add(itemDTO.getProdutoId());
+                }
+            }
+        }
+        return produtoRepository.findAllById(produtoIds).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+    }
+
+    private String validar(PedidoDTO pedidoDTO, Map<Long, Produto> produtos) {
+        String erro = ValidacaoPedido.validarItens(pedidoDTO);
+        if (erro != null) {
+            return erro;
+        }
+        List<Long> naoEncontrados = new ArrayList<>();
+        for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
+            if (!produtos.containsKey(itemDTO.getProdutoId()) && !naoEncontrados.contains(itemDTO.getProdutoId())) {
+                naoEncontrados.add(itemDTO.getProdutoId());
+            }
+        }
+        return naoEncontrados.isEmpty() ? null : "Produtos não encontrados com ids: " + naoEncontrados;
+    }
+
+    private Pedido montarPedido(PedidoDTO pedidoDTO, Map<Long, Produto> produtos) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(numeroPedidoGenerator.proximoNumero());
+        pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
+        pedido.setDataCadastro(LocalDateTime.now());
+        pedido.setDataAtualizacao(LocalDateTime.now());
+
+        if (pedidoDTO.getDesconto() != null) {
+            pedido.setDesconto(pedidoDTO.getDesconto());
+        }
+        if (pedidoDTO.getFrete() != null) {
+            pedido.setFrete(pedidoDTO.getFrete());
+        }
+
+        for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
+            Produto produto = produtos.get(itemDTO.getProdutoId());
+            pedido.getItens().add(new ItemPedido(null, pedido, produto, itemDTO.getQuantidade(), produto.getValor(),
+                    produto.getValor().multiply(BigDecimal.valueOf(itemDTO.getQuantidade()))));
+        }
+
+        pedidoCalculoService.calcularValoresPedido(pedido);
+        return pedido;
+    }
+}
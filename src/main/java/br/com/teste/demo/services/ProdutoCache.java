@@ -0,0 +1,85 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.EstatisticasCacheDTO;
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Cache em memória dos produtos por id, consultado pelas buscas públicas de produtos e pelos preços na criação de pedidos.
+ * Limitado a {@code produto.cache.tamanho-maximo} entradas e com expiração de {@code produto.cache.ttl-segundos}
+ * após a carga, que também limita quanto tempo outra instância pode servir um produto alterado fora dela.
+ * Criar, alterar ou remover um produto remove a entrada na hora e de novo após o commit, para que uma leitura concorrente
+ * não recoloque o valor anterior. Os DTOs em cache são compartilhados e não devem ser modificados.
+ */
+@Component
+public class ProdutoCache {
+
+    private final ProdutoRepository produtoRepository;
+    private final Cache<Long, ProdutoDTO> produtos;
+
+    public ProdutoCache(ProdutoRepository produtoRepository,
+                        @Value("${produto.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                        @Value("${produto.cache.ttl-segundos:300}") long ttlSegundos) {
+        this.produtoRepository = produtoRepository;
+        this.produtos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<ProdutoDTO> buscar(Long id) {
+        return Optional.ofNullable(produtos.get(id, chave -> produtoRepository.findById(chave)
+                .map(ProdutoDTO::fromEntity)
+                .orElse(null)));
+    }
+
+    /**
+     * Busca vários produtos; os que não estão em cache são carregados juntos em uma consulta.
+     * Ids inexistentes ficam fora do mapa devolvido.
+     */
+    public Map<Long, ProdutoDTO> buscarTodos(Collection<Long> ids) {
+        return produtos.getAll(ids, faltantes -> {
+            // Em ordem de id, para que o mesmo conjunto de produtos gere sempre a mesma consulta
+            List<Long> chaves = new ArrayList<>(faltantes);
+            Collections.sort(chaves);
+            return produtoRepository.findAllById(chaves).stream()
+                    .collect(Collectors.toMap(Produto::getId, ProdutoDTO::fromEntity));
+        });
+    }
+
+    public void invalidar(Long id) {
+        produtos.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    produtos.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public EstatisticasCacheDTO estatisticas() {
+        CacheStats estatisticas = produtos.stats();
+        return new EstatisticasCacheDTO(produtos.estimatedSize(), estatisticas.hitCount(), estatisticas.missCount(),
+                estatisticas.hitRate(), estatisticas.evictionCount());
+    }
+}
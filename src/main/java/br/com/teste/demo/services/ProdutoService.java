@@ -1,16 +1,16 @@
 package br.com.teste.demo.services;
 
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.ProdutoDTO;
 import br.com.teste.demo.enums.StatusProduto;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 @Service
 public interface ProdutoService {
 
-    List<ProdutoDTO> getAllProducts();
+    PaginaDTO<ProdutoDTO> getAllProducts(String cursor, int limite);
 
     ProdutoDTO getProductById(Long id);
 
@@ -20,14 +20,8 @@ public interface ProdutoService {
 
     void deleteProduct(Long id);
 
-    List<ProdutoDTO> findByTitulo(String titulo);
+    PaginaDTO<ProdutoDTO> findPagina(String titulo, String categoria, BigDecimal valorMinimo,
+                                     BigDecimal valorMaximo, StatusProduto status, String cursor, int limite);
 
-    List<ProdutoDTO> findByCategoria(String categoria);
-
-    List<ProdutoDTO> findByStatus(StatusProduto status);
-
-    List<ProdutoDTO> findByValorRange(BigDecimal valorMinimo, BigDecimal valorMaximo);
-
-    List<ProdutoDTO> findByFiltros(String titulo, String categoria, BigDecimal valorMinimo,
-                                    BigDecimal valorMaximo, StatusProduto status);
+    PaginaDTO<ProdutoDTO> buscar(String consulta, String cursor, int limite);
 }
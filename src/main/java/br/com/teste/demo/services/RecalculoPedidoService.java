@@ -0,0 +1,313 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.JobRecalculoDTO;
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.exceptions.ResourceNotFoundException;
+import br.com.teste.demo.models.JobRecalculo;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.JobRecalculoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.projections.ChavePedido;
+import br.com.teste.demo.services.VendaDiariaService.ValoresPedido;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Recálculo assíncrono dos pedidos que atendem a um filtro de findByFiltros, como feito em recalcularPedido.
+ * As chaves dos pedidos são lidas em blocos pelo cursor (dataCadastro, id) e cada bloco é recalculado em uma
+ * transação própria por um pool limitado a {@code pedido.recalculo.threads}; as alterações saem em UPDATEs em lote.
+ * O cursor só avança até o último bloco confirmado sem lacunas antes dele, então um job interrompido
+ * continua desse ponto. Refazer um bloco já gravado não muda nada, porque o recálculo é idempotente.
+ * Cada execução assume o job com um token próprio, exigido para gravar progresso e finalizar; enquanto espera um
+ * bloco, ela renova a data de atualização para não ser tomada como parada. Se outra execução assumir o job mesmo
+ * assim, a anterior encerra no próximo bloco sem gravar nada.
+ */
+@Service
+public class RecalculoPedidoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecalculoPedidoService.class);
+
+    private final JobRecalculoRepository jobRecalculoRepository;
+    private final PedidoRepository pedidoRepository;
+    private final PedidoCalculoService pedidoCalculoService;
+    private final VendaDiariaService vendaDiariaService;
+    private final TransactionTemplate transactionTemplate;
+    private final RetentativaConcorrencia retentativaConcorrencia;
+    private final int tamanhoBloco;
+    private final int threads;
+    private final Duration tempoSemProgresso;
+
+    private final ExecutorService coordenadores = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService workers;
+
+    public RecalculoPedidoService(JobRecalculoRepository jobRecalculoRepository,
+                                  PedidoRepository pedidoRepository,
+                                  PedidoCalculoService pedidoCalculoService,
+                                  VendaDiariaService vendaDiariaService,
+                                  PlatformTransactionManager transactionManager,
+                                  RetentativaConcorrencia retentativaConcorrencia,
+                                  @Value("${pedido.recalculo.tamanho-bloco:500}") int tamanhoBloco,
+                                  @Value("${pedido.recalculo.threads:4}") int threads,
+                                  @Value("${pedido.recalculo.tempo-sem-progresso-ms:300000}") long tempoSemProgressoMs) {
+        this.jobRecalculoRepository = jobRecalculoRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoCalculoService = pedidoCalculoService;
+        this.vendaDiariaService = vendaDiariaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentativaConcorrencia = retentativaConcorrencia;
+        this.tamanhoBloco = tamanhoBloco;
+        this.threads = threads;
+        this.tempoSemProgresso = Duration.ofMillis(tempoSemProgressoMs);
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        coordenadores.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Cria o job e começa a executá-lo em segundo plano
+     */
+    public JobRecalculoDTO iniciar(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                   BigDecimal valorMinimo, BigDecimal valorMaximo) {
+        JobRecalculo job = new JobRecalculo();
+        job.setStatus(StatusJobRecalculo.PENDENTE);
+        job.setFiltroStatusPedido(status);
+        job.setFiltroDataInicio(dataInicio);
+        job.setFiltroDataFim(dataFim);
+        job.setFiltroValorMinimo(valorMinimo);
+        job.setFiltroValorMaximo(valorMaximo);
+        job.setTotalPedidos(pedidoRepository.countByFiltros(status, dataInicio, dataFim, valorMinimo, valorMaximo));
+        job.setDataCadastro(LocalDateTime.now());
+        job.setDataAtualizacao(job.getDataCadastro());
+        job = jobRecalculoRepository.save(job);
+
+        agendar(job.getId());
+        return JobRecalculoDTO.fromEntity(job);
+    }
+
+    public JobRecalculoDTO buscar(Long id) {
+        return jobRecalculoRepository.findById(id)
+                .map(JobRecalculoDTO::fromEntity)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de recálculo não encontrado com id: " + id));
+    }
+
+    /**
+     * Retoma um job que falhou a partir do último bloco confirmado
+     */
+    public JobRecalculoDTO retomar(Long id) {
+        JobRecalculoDTO job = buscar(id);
+        Integer reabertos = transactionTemplate.execute(status ->
+                jobRecalculoRepository.reabrir(id, StatusJobRecalculo.FALHOU, StatusJobRecalculo.PENDENTE));
+        if (reabertos == null || reabertos == 0) {
+            throw new BusinessException("Apenas jobs de recálculo com falha podem ser retomados; status atual: "
+                    + job.getStatus());
+        }
+        agendar(id);
+        return buscar(id);
+    }
+
+    /**
+     * Assume os jobs pendentes e os que estão executando sem progresso há mais de
+     * {@code pedido.recalculo.tempo-sem-progresso-ms}, como os de uma instância que caiu
+     */
+    @Scheduled(fixedDelayString = "${pedido.recalculo.verificacao-ms:60000}",
+               initialDelayString = "${pedido.recalculo.verificacao-ms:60000}")
+    public void retomarInterrompidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(tempoSemProgresso);
+        for (Long id : jobRecalculoRepository.findIdsParaRetomar(
+                StatusJobRecalculo.PENDENTE, StatusJobRecalculo.EXECUTANDO, limite)) {
+            agendar(id);
+        }
+    }
+
+    private void agendar(Long id) {
+        LocalDateTime agora = LocalDateTime.now();
+        String execucao = UUID.randomUUID().toString();
+        Integer assumidos = transactionTemplate.execute(status -> jobRecalculoRepository.assumir(id, execucao,
+                StatusJobRecalculo.PENDENTE, StatusJobRecalculo.EXECUTANDO, agora.minus(tempoSemProgresso), agora));
+        if (assumidos != null && assumidos > 0) {
+            coordenadores.submit(() -> executar(id, execucao));
+        }
+    }
+
+    private void executar(Long id, String execucao) {
+        JobRecalculo job = jobRecalculoRepository.findById(id).orElseThrow();
+        LocalDateTime cursorData = job.getCursorDataCadastro();
+        Long cursorId = job.getCursorId();
+        Progresso progresso = new Progresso(job.getProcessados(), job.getAlterados());
+        Deque<BlocoEmAndamento> emAndamento = new ArrayDeque<>();
+
+        try {
+            while (true) {
+                List<ChavePedido> chaves = pedidoRepository.findChavesByFiltros(job.getFiltroStatusPedido(),
+                        job.getFiltroDataInicio(), job.getFiltroDataFim(), job.getFiltroValorMinimo(),
+                        job.getFiltroValorMaximo(), cursorData, cursorId, Limit.of(tamanhoBloco));
+                if (chaves.isEmpty()) {
+                    break;
+                }
+
+                ChavePedido ultima = chaves.getLast();
+                cursorData = ultima.dataCadastro();
+                cursorId = ultima.id();
+                List<Long> ids = chaves.stream().map(ChavePedido::id).toList();
+                emAndamento.add(new BlocoEmAndamento(workers.submit(() -> recalcularBloco(ids)), ultima));
+
+                if (emAndamento.size() >= threads) {
+                    confirmar(id, execucao, emAndamento.poll(), progresso);
+                }
+                if (chaves.size() < tamanhoBloco) {
+                    break;
+                }
+            }
+            while (!emAndamento.isEmpty()) {
+                confirmar(id, execucao, emAndamento.poll(), progresso);
+            }
+            finalizar(id, execucao, StatusJobRecalculo.CONCLUIDO, null);
+        } catch (JobAssumidoException e) {
+            emAndamento.forEach(bloco -> bloco.resultado().cancel(false));
+            log.warn("Job de recálculo {} assumido por outra execução; esta execução foi encerrada", id);
+        } catch (Exception e) {
+            emAndamento.forEach(bloco -> bloco.resultado().cancel(false));
+            Throwable causa = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Falha no job de recálculo {}", id, causa);
+            finalizar(id, execucao, StatusJobRecalculo.FALHOU,
+                    Objects.toString(causa.getMessage(), causa.getClass().getName()));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Aguarda o bloco mais antigo em andamento, renovando a data de atualização do job a cada terço do
+     * tempo sem progresso, e grava o cursor depois dele
+     */
+    private void confirmar(Long id, String execucao, BlocoEmAndamento bloco, Progresso progresso)
+            throws ExecutionException, InterruptedException {
+        long intervaloRenovacao = Math.max(1, tempoSemProgresso.toMillis() / 3);
+        ResultadoBloco resultado;
+        while (true) {
+            try {
+                resultado = bloco.resultado().get(intervaloRenovacao, TimeUnit.MILLISECONDS);
+                break;
+            } catch (TimeoutException e) {
+                exigirExecucao(id, transactionTemplate.execute(status ->
+                        jobRecalculoRepository.renovar(id, execucao, LocalDateTime.now())));
+            }
+        }
+        progresso.processados += resultado.processados();
+        progresso.alterados += resultado.alterados();
+        exigirExecucao(id, transactionTemplate.execute(status -> jobRecalculoRepository.registrarProgresso(id,
+                execucao, bloco.ultima().dataCadastro(), bloco.ultima().id(), progresso.processados,
+                progresso.alterados, LocalDateTime.now())));
+    }
+
+    private static void exigirExecucao(Long id, Integer atualizados) {
+        if (atualizados == null || atualizados == 0) {
+            throw new JobAssumidoException(id);
+        }
+    }
+
+    /**
+     * Recalcula um bloco em uma transação: desconto e frete voltam ao automático, como em recalcularPedido.
+     * Só os pedidos com valores diferentes são atualizados, e as vendas diárias recebem a diferença agrupada.
+     * Se outro processo alterar um dos pedidos no meio do caminho, o bloco inteiro é relido e refeito.
+     */
+    private ResultadoBloco recalcularBloco(List<Long> ids) {
+        return retentativaConcorrencia.executar(() -> {
+            List<Pedido> pedidos = pedidoRepository.findComItensByIdIn(ids);
+            List<Pedido> alterados = new ArrayList<>();
+            Map<Long, ValoresPedido> valoresAnteriores = new HashMap<>();
+            LocalDateTime agora = LocalDateTime.now();
+
+            for (Pedido pedido : pedidos) {
+                ValoresPedido anteriores = ValoresPedido.de(pedido);
+                pedido.setDesconto(null);
+                pedido.setFrete(null);
+                pedidoCalculoService.calcularValoresPedido(pedido);
+
+                if (iguais(anteriores.valorTotal(), pedido.getValorTotal())
+                        && iguais(anteriores.desconto(), pedido.getDesconto())
+                        && iguais(anteriores.frete(), pedido.getFrete())) {
+                    continue;
+                }
+                pedido.setDataAtualizacao(agora);
+                alterados.add(pedido);
+                valoresAnteriores.put(pedido.getId(), anteriores);
+            }
+
+            pedidoRepository.flush();
+            vendaDiariaService.registrarRecalculo(alterados, valoresAnteriores);
+            return new ResultadoBloco(pedidos.size(), alterados.size());
+        });
+    }
+
+    private void finalizar(Long id, String execucao, StatusJobRecalculo status, String erro) {
+        Integer finalizados = transactionTemplate.execute(transacao ->
+                jobRecalculoRepository.finalizar(id, execucao, status, erro, LocalDateTime.now()));
+        if (finalizados == null || finalizados == 0) {
+            log.warn("Job de recálculo {} assumido por outra execução; status {} não gravado", id, status);
+        }
+    }
+
+    private static boolean iguais(BigDecimal anterior, BigDecimal atual) {
+        return anterior == null ? atual == null : atual != null && anterior.compareTo(atual) == 0;
+    }
+
+    /**
+     * O job passou para outra execução, que continua a partir do último bloco que esta confirmou
+     */
+    private static final class JobAssumidoException extends RuntimeException {
+
+        private JobAssumidoException(Long id) {
+            super("Job de recálculo " + id + " assumido por outra execução");
+        }
+    }
+
+    private record BlocoEmAndamento(Future<ResultadoBloco> resultado, ChavePedido ultima) {
+    }
+
+    private record ResultadoBloco(int processados, int alterados) {
+    }
+
+    private static final class Progresso {
+
+        private long processados;
+        private long alterados;
+
+        private Progresso(long processados, long alterados) {
+            this.processados = processados;
+            this.alterados = alterados;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.RegraPreco;
+import br.com.teste.demo.repositories.RegraPrecoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mantém as faixas de desconto e frete de REGRA_PRECO e as publica no PedidoCalculoService.
+ * As regras são validadas e montadas em uma nova TabelaPrecos, que substitui a anterior de uma vez;
+ * com a tabela vazia valem as faixas padrão. Cada instância relê a tabela periodicamente,
+ * então uma campanha cadastrada em um nó chega aos demais sem novo deploy.
+ */
+@Service
+public class RegraPrecoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RegraPrecoService.class);
+
+    private final RegraPrecoRepository regraPrecoRepository;
+    private final PedidoCalculoService pedidoCalculoService;
+    private final TransactionTemplate transactionTemplate;
+
+    public RegraPrecoService(RegraPrecoRepository regraPrecoRepository,
+                             PedidoCalculoService pedidoCalculoService,
+                             PlatformTransactionManager transactionManager) {
+        this.regraPrecoRepository = regraPrecoRepository;
+        this.pedidoCalculoService = pedidoCalculoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Regras em vigor nesta instância
+     */
+    public List<RegraPrecoDTO> listar() {
+        return pedidoCalculoService.getTabelaPrecos().regras();
+    }
+
+    /**
+     * Substitui todas as regras. A nova tabela só é publicada depois de gravada;
+     * uma lista vazia volta às faixas padrão.
+     */
+    public List<RegraPrecoDTO> substituir(List<RegraPrecoDTO> regrasDTO) {
+        if (regrasDTO == null) {
+            throw new BusinessException("Informe a lista de regras de preço");
+        }
+        TabelaPrecos tabela = montarTabela(regrasDTO);
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<RegraPreco> regras = regrasDTO.stream().map(RegraPrecoDTO::toEntity).toList();
+        regras.forEach(regra -> regra.setDataCadastro(agora));
+        transactionTemplate.executeWithoutResult(status -> {
+            regraPrecoRepository.deleteAllInBatch();
+            regraPrecoRepository.saveAll(regras);
+        });
+
+        pedidoCalculoService.atualizarTabelaPrecos(tabela);
+        return tabela.regras();
+    }
+
+    /**
+     * Relê REGRA_PRECO na subida e periodicamente. Regras inválidas gravadas direto no banco
+     * são ignoradas e a tabela atual continua valendo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${preco.regras.recarga-ms:60000}",
+               initialDelayString = "${preco.regras.recarga-ms:60000}")
+    public void recarregar() {
+        List<RegraPrecoDTO> regras = regraPrecoRepository.findAll().stream()
+                .map(RegraPrecoDTO::fromEntity)
+                .toList();
+        try {
+            pedidoCalculoService.atualizarTabelaPrecos(montarTabela(regras));
+        } catch (BusinessException e) {
+            log.error("Regras de preço inválidas em REGRA_PRECO, mantendo as regras atuais: {}", e.getMessage());
+        }
+    }
+
+    private static TabelaPrecos montarTabela(List<RegraPrecoDTO> regras) {
+        return regras.isEmpty() ? TabelaPrecos.PADRAO : TabelaPrecos.de(regras);
+    }
+}
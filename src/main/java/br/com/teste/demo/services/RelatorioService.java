@@ -1,188 +1,161 @@
 package br.com.teste.demo.services;
 
 import br.com.teste.demo.dtos.*;
-import br.com.teste.demo.enums.FormaPagamento;
 import br.com.teste.demo.enums.StatusPedido;
-import br.com.teste.demo.models.Pagamento;
 import br.com.teste.demo.repositories.ItemPedidoRepository;
 import br.com.teste.demo.repositories.PagamentoRepository;
 import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ProdutoMaisVendido;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorFormaPagamento;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Relatórios de vendas, pedidos, produtos e pagamentos.
+ * Todo período é [dataInicio, dataFim): o início entra e o fim não, tanto nas consultas a PEDIDO quanto nas vendas
+ * diárias pré-agregadas e nos contadores em memória, para que as fontes concordem nos limites e dias seguidos
+ * não contem duas vezes o pedido cadastrado exatamente à meia-noite.
+ */
 @Service
 public class RelatorioService {
 
     private final PedidoRepository pedidoRepository;
     private final ItemPedidoRepository itemPedidoRepository;
     private final PagamentoRepository pagamentoRepository;
+    private final VendaDiariaRepository vendaDiariaRepository;
+    private final ContadoresVendasService contadoresVendasService;
+    private final TransactionTemplate leituraTransactionTemplate;
+    private final ExecutorService relatorioExecutor;
+    private final long timeoutRelatorioGeralMs;
 
     public RelatorioService(PedidoRepository pedidoRepository,
                           ItemPedidoRepository itemPedidoRepository,
-                          PagamentoRepository pagamentoRepository) {
+                          PagamentoRepository pagamentoRepository,
+                          VendaDiariaRepository vendaDiariaRepository,
+                          ContadoresVendasService contadoresVendasService,
+                          PlatformTransactionManager transactionManager,
+                          ExecutorService relatorioExecutor,
+                          @Value("${relatorio.geral.timeout-ms:10000}") long timeoutRelatorioGeralMs) {
         this.pedidoRepository = pedidoRepository;
         this.itemPedidoRepository = itemPedidoRepository;
         this.pagamentoRepository = pagamentoRepository;
+        this.vendaDiariaRepository = vendaDiariaRepository;
+        this.contadoresVendasService = contadoresVendasService;
+        this.leituraTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.leituraTransactionTemplate.setReadOnly(true);
+        this.relatorioExecutor = relatorioExecutor;
+        this.timeoutRelatorioGeralMs = timeoutRelatorioGeralMs;
     }
 
     /**
-     * Gera relatório de vendas por período customizado
+     * Gera relatório de vendas por período customizado [dataInicio, dataFim), lido de PEDIDO
      */
     public RelatorioVendasDTO relatorioVendasPorPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim) {
-        RelatorioVendasDTO relatorio = new RelatorioVendasDTO();
-        relatorio.setDataInicio(dataInicio);
-        relatorio.setDataFim(dataFim);
-
-        Long totalPedidos = pedidoRepository.countPedidosByPeriodo(dataInicio, dataFim);
-        relatorio.setTotalPedidos(totalPedidos.intValue());
-
-        BigDecimal valorTotal = pedidoRepository.sumValorTotalByPeriodo(dataInicio, dataFim);
-        relatorio.setValorTotalVendas(valorTotal);
-
-        if (totalPedidos > 0) {
-            BigDecimal valorMedio = valorTotal.divide(BigDecimal.valueOf(totalPedidos), 2, RoundingMode.HALF_UP);
-            relatorio.setValorMedioVendas(valorMedio);
-        } else {
-            relatorio.setValorMedioVendas(BigDecimal.ZERO);
-        }
-
-        BigDecimal totalDescontos = pedidoRepository.sumDescontosByPeriodo(dataInicio, dataFim);
-        relatorio.setValorTotalDescontos(totalDescontos);
-
-        BigDecimal totalFrete = pedidoRepository.sumFreteByPeriodo(dataInicio, dataFim);
-        relatorio.setValorTotalFrete(totalFrete);
-
-        Integer quantidadeProdutos = pedidoRepository.sumQuantidadeProdutosByPeriodo(dataInicio, dataFim);
-        relatorio.setQuantidadeProdutosVendidos(quantidadeProdutos);
-
-        relatorio.setPeriodoDescricao(formatarPeriodo(dataInicio, dataFim));
-
-        return relatorio;
+        return montarRelatorioVendas(dataInicio, dataFim, pedidoRepository.resumoVendasByPeriodo(dataInicio, dataFim));
     }
 
     /**
      * Relatório de vendas diário
      */
     public RelatorioVendasDTO relatorioVendasDiario(LocalDate data) {
-        LocalDateTime inicio = data.atStartOfDay();
-        LocalDateTime fim = data.plusDays(1).atStartOfDay();
-        return relatorioVendasPorPeriodo(inicio, fim);
+        return relatorioVendasConsolidado(data, data.plusDays(1));
     }
 
     /**
      * Relatório de vendas mensal
      */
     public RelatorioVendasDTO relatorioVendasMensal(int ano, int mes) {
-        LocalDateTime inicio = LocalDate.of(ano, mes, 1).atStartOfDay();
-        LocalDateTime fim = inicio.plusMonths(1);
-        return relatorioVendasPorPeriodo(inicio, fim);
+        LocalDate inicio = LocalDate.of(ano, mes, 1);
+        return relatorioVendasConsolidado(inicio, inicio.plusMonths(1));
+    }
+
+    /**
+     * Relatório de vendas de dias completos [dataInicio, dataFim), lido das vendas diárias pré-agregadas
+     */
+    public RelatorioVendasDTO relatorioVendasConsolidado(LocalDate dataInicio, LocalDate dataFim) {
+        return montarRelatorioVendas(dataInicio.atStartOfDay(), dataFim.atStartOfDay(),
+                vendaDiariaRepository.resumoVendasByPeriodo(dataInicio, dataFim));
     }
 
     /**
      * Relatório de pedidos por status
      */
     public List<RelatorioPorStatusDTO> relatorioPorStatus() {
-        Long totalPedidos = pedidoRepository.count();
-
-        return Arrays.stream(StatusPedido.values())
-                .map(status -> {
-                    Long quantidade = pedidoRepository.countByStatus(status);
-                    BigDecimal valorTotal = pedidoRepository.sumValorTotalByStatus(status);
-
-                    Double percentual = 0.0;
-                    if (totalPedidos > 0) {
-                        percentual = (quantidade.doubleValue() / totalPedidos.doubleValue()) * 100;
-                    }
-
-                    return new RelatorioPorStatusDTO(status, quantidade, valorTotal, percentual);
-                })
-                .collect(Collectors.toList());
+        return montarRelatorioPorStatus(pedidoRepository.totaisPorStatus());
     }
 
     /**
-     * Relatório de pedidos por status e período
+     * Relatório de pedidos por status e período [dataInicio, dataFim)
      */
     public List<RelatorioPorStatusDTO> relatorioPorStatusPeriodo(LocalDateTime dataInicio, LocalDateTime dataFim) {
-        Long totalPedidos = pedidoRepository.countPedidosByPeriodo(dataInicio, dataFim);
-
-        return Arrays.stream(StatusPedido.values())
-                .map(status -> {
-                    Long quantidade = pedidoRepository.countByStatusAndPeriodo(status, dataInicio, dataFim);
-                    BigDecimal valorTotal = pedidoRepository.sumValorTotalByStatusAndPeriodo(status, dataInicio, dataFim);
-
-                    double percentual = 0.0;
-                    if (totalPedidos > 0) {
-                        percentual = (quantidade.doubleValue() / totalPedidos.doubleValue()) * 100;
-                    }
-
-                    return new RelatorioPorStatusDTO(status, quantidade, valorTotal, percentual);
-                })
-                .collect(Collectors.toList());
+        return montarRelatorioPorStatus(pedidoRepository.totaisPorStatusByPeriodo(dataInicio, dataFim));
     }
 
     /**
-     * Relatório de produtos mais vendidos
+     * Relatório de produtos mais vendidos no período [dataInicio, dataFim)
      */
     public List<RelatorioProdutoDTO> relatorioProdutosMaisVendidos(LocalDateTime dataInicio, LocalDateTime dataFim, int limite) {
-        List<Object[]> resultados = itemPedidoRepository.findProdutosMaisVendidosByPeriodo(dataInicio, dataFim);
+        List<ProdutoMaisVendido> resultados = itemPedidoRepository.findProdutosMaisVendidosByPeriodo(
+                dataInicio, dataFim, Limit.of(limite));
 
         return resultados.stream()
-                .limit(limite)
                 .map(row -> new RelatorioProdutoDTO(
-                        ((Number) row[0]).longValue(),
-                        (String) row[1],
-                        ((Number) row[2]).intValue(),
-                        (BigDecimal) row[3],
-                        ((Number) row[4]).intValue()
+                        row.produtoId(),
+                        row.produtoTitulo(),
+                        row.quantidadeVendida().intValue(),
+                        row.valorTotalVendido(),
+                        row.numeroPedidos().intValue()
                 ))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Relatório de formas de pagamento
+     * Relatório de formas de pagamento, pela data do pagamento no período [dataInicio, dataFim)
      */
     public List<RelatorioFormaPagamentoDTO> relatorioFormasPagamento(LocalDateTime dataInicio, LocalDateTime dataFim) {
-        List<Object[]> resultados = pagamentoRepository.findByFiltros(null, null, dataInicio, dataFim).stream()
-                .collect(Collectors.groupingBy(
-                        Pagamento::getFormaPagamento,
-                        Collectors.collectingAndThen(
-                                Collectors.toList(),
-                                list -> new Object[]{
-                                        list.size(),
-                                        list.stream()
-                                                .map(Pagamento::getValor)
-                                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                }
-                        )
-                ))
-                .entrySet().stream()
-                .map(entry -> new Object[]{entry.getKey(), entry.getValue()[0], entry.getValue()[1]})
-                .toList();
+        List<TotalPorFormaPagamento> totais = pagamentoRepository.totaisPorFormaPagamentoByPeriodo(dataInicio, dataFim);
 
-        long totalPagamentos = resultados.stream()
-                .mapToLong(row -> ((Number) row[1]).longValue())
+        long totalPagamentos = totais.stream()
+                .mapToLong(TotalPorFormaPagamento::quantidade)
                 .sum();
 
-        return resultados.stream()
-                .map(row -> {
-                    Long quantidade = ((Number) row[1]).longValue();
+        return totais.stream()
+                .map(total -> {
+                    Long quantidade = total.quantidade();
                     double percentual = 0.0;
                     if (totalPagamentos > 0) {
                         percentual = (quantidade.doubleValue() / (double) totalPagamentos) * 100;
                     }
 
                     return new RelatorioFormaPagamentoDTO(
-                            (FormaPagamento) row[0],
+                            total.formaPagamento(),
                             quantidade,
-                            (BigDecimal) row[2],
+                            total.valorTotal(),
                             percentual
                     );
                 })
@@ -191,17 +164,162 @@ public class RelatorioService {
 
     /**
      * Relatório geral consolidado
+     * As seções são calculadas em paralelo, cada uma em sua própria transação somente leitura.
+     * Seções que não terminam dentro do timeout ficam de fora e o relatório é marcado como parcial.
+     * Quando o período vai de uma meia-noite a outra, a seção de vendas é lida das vendas diárias pré-agregadas,
+     * que cobrem exatamente os mesmos pedidos que a consulta a PEDIDO; nos demais períodos é lida de PEDIDO.
      */
     public RelatorioGeralDTO relatorioGeral(LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return montarRelatorioGeral(dataInicio, dataFim,
+                () -> isDiasCompletos(dataInicio, dataFim)
+                        ? relatorioVendasConsolidado(dataInicio.toLocalDate(), dataFim.toLocalDate())
+                        : relatorioVendasPorPeriodo(dataInicio, dataFim),
+                () -> relatorioPorStatusPeriodo(dataInicio, dataFim));
+    }
+
+    /**
+     * Relatório de vendas de hoje, lido dos contadores em memória
+     */
+    public RelatorioVendasDTO relatorioHoje() {
+        LocalDate hoje = LocalDate.now();
+        return montarRelatorioVendas(hoje.atStartOfDay(), hoje.plusDays(1).atStartOfDay(),
+                contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1)));
+    }
+
+    /**
+     * Relatório geral do mês atual, com vendas e status lidos dos contadores em memória
+     */
+    public RelatorioGeralDTO relatorioMesAtual() {
+        LocalDate inicio = LocalDate.now().withDayOfMonth(1);
+        LocalDate fim = inicio.plusMonths(1);
+        return montarRelatorioGeral(inicio.atStartOfDay(), fim.atStartOfDay(),
+                () -> montarRelatorioVendas(inicio.atStartOfDay(), fim.atStartOfDay(),
+                        contadoresVendasService.resumoVendas(inicio, fim)),
+                () -> montarRelatorioPorStatus(contadoresVendasService.totaisPorStatus(inicio, fim)));
+    }
+
+    private RelatorioGeralDTO montarRelatorioGeral(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                   Supplier<RelatorioVendasDTO> secaoVendas,
+                                                   Supplier<List<RelatorioPorStatusDTO>> secaoPorStatus) {
         RelatorioGeralDTO relatorio = new RelatorioGeralDTO();
         relatorio.setDataInicio(dataInicio);
         relatorio.setDataFim(dataFim);
 
-        relatorio.setVendas(relatorioVendasPorPeriodo(dataInicio, dataFim));
-        relatorio.setPedidosPorStatus(relatorioPorStatusPeriodo(dataInicio, dataFim));
-        relatorio.setProdutosMaisVendidos(relatorioProdutosMaisVendidos(dataInicio, dataFim, 10));
-        relatorio.setFormasPagamento(relatorioFormasPagamento(dataInicio, dataFim));
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutRelatorioGeralMs);
+
+        Future<RelatorioVendasDTO> vendas = calcularSecao(secaoVendas, prazo);
+        Future<List<RelatorioPorStatusDTO>> pedidosPorStatus = calcularSecao(secaoPorStatus, prazo);
+        Future<List<RelatorioProdutoDTO>> produtosMaisVendidos =
+                calcularSecao(() -> relatorioProdutosMaisVendidos(dataInicio, dataFim, 10), prazo);
+        Future<List<RelatorioFormaPagamentoDTO>> formasPagamento =
+                calcularSecao(() -> relatorioFormasPagamento(dataInicio, dataFim), prazo);
+
+        try {
+            aguardarSecao("vendas", vendas, prazo, relatorio)
+                    .ifPresent(relatorio::setVendas);
+            aguardarSecao("pedidosPorStatus", pedidosPorStatus, prazo, relatorio)
+                    .ifPresent(relatorio::setPedidosPorStatus);
+            aguardarSecao("produtosMaisVendidos", produtosMaisVendidos, prazo, relatorio)
+                    .ifPresent(relatorio::setProdutosMaisVendidos);
+            aguardarSecao("formasPagamento", formasPagamento, prazo, relatorio)
+                    .ifPresent(relatorio::setFormasPagamento);
+        } finally {
+            // Se uma seção falhou ou o prazo acabou, as demais não servem mais; nas concluídas não tem efeito
+            List.of(vendas, pedidosPorStatus, produtosMaisVendidos, formasPagamento)
+                    .forEach(secao -> secao.cancel(true));
+        }
+
+        return relatorio;
+    }
+
+    /**
+     * Executa a seção em uma transação somente leitura cujo timeout é o que resta do prazo do relatório.
+     * O cancelamento do Future não interrompe uma consulta JDBC em andamento; o timeout da transação
+     * vira o timeout das consultas, e o banco as encerra quando o prazo acaba.
+     */
+    private <T> Future<T> calcularSecao(Supplier<T> secao, long prazo) {
+        TransactionTemplate transacao = new TransactionTemplate(
+                leituraTransactionTemplate.getTransactionManager(), leituraTransactionTemplate);
+        long restanteMs = TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime());
+        transacao.setTimeout((int) Math.max(1, (restanteMs + 999) / 1000));
+        return relatorioExecutor.submit(() -> transacao.execute(status -> secao.get()));
+    }
+
+    private <T> Optional<T> aguardarSecao(String nome, Future<T> secao, long prazo, RelatorioGeralDTO relatorio) {
+        try {
+            return Optional.ofNullable(secao.get(Math.max(0, prazo - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            relatorio.setParcial(true);
+            relatorio.getSecoesPendentes().add(nome);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Falha ao gerar seção do relatório: " + nome, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração do relatório interrompida", e);
+        }
+    }
+
+    private RelatorioVendasDTO montarRelatorioVendas(LocalDateTime dataInicio, LocalDateTime dataFim, ResumoVendas resumo) {
+        RelatorioVendasDTO relatorio = new RelatorioVendasDTO();
+        relatorio.setDataInicio(dataInicio);
+        relatorio.setDataFim(dataFim);
+
+        Long totalPedidos = resumo.totalPedidos();
+        relatorio.setTotalPedidos(totalPedidos.intValue());
+
+        BigDecimal valorTotal = resumo.valorTotal();
+        relatorio.setValorTotalVendas(valorTotal);
 
+        if (totalPedidos > 0) {
+            BigDecimal valorMedio = valorTotal.divide(BigDecimal.valueOf(totalPedidos), 2, RoundingMode.HALF_UP);
+            relatorio.setValorMedioVendas(valorMedio);
+        } else {
+            relatorio.setValorMedioVendas(BigDecimal.ZERO);
+        }
+
+        relatorio.setValorTotalDescontos(resumo.valorDescontos());
+        relatorio.setValorTotalFrete(resumo.valorFrete());
+        relatorio.setQuantidadeProdutosVendidos(resumo.quantidadeProdutos().intValue());
+
+        relatorio.setPeriodoDescricao(formatarPeriodo(dataInicio, dataFim));
+
+        return relatorio;
+    }
+
+    private boolean isDiasCompletos(LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return dataInicio.toLocalTime().equals(LocalTime.MIDNIGHT) && dataFim.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+
+    /**
+     * Completa com zero os status sem pedidos e calcula os percentuais sobre o mesmo resultado
+     */
+    private List<RelatorioPorStatusDTO> montarRelatorioPorStatus(List<TotalPorStatus> totais) {
+        Map<StatusPedido, TotalPorStatus> totaisPorStatus = new EnumMap<>(StatusPedido.class);
+        long totalPedidos = 0;
+        for (TotalPorStatus total : totais) {
+            totalPedidos += total.quantidade();
+            if (total.status() != null) {
+                totaisPorStatus.put(total.status(), total);
+            }
+        }
+
+        List<RelatorioPorStatusDTO> relatorio = new ArrayList<>(StatusPedido.values().length);
+        for (StatusPedido status : StatusPedido.values()) {
+            TotalPorStatus total = totaisPorStatus.get(status);
+            Long quantidade = total != null ? total.quantidade() : 0L;
+            BigDecimal valorTotal = total != null ? total.valorTotal() : BigDecimal.ZERO;
+
+            double percentual = 0.0;
+            if (totalPedidos > 0) {
+                percentual = (quantidade.doubleValue() / (double) totalPedidos) * 100;
+            }
+
+            relatorio.add(new RelatorioPorStatusDTO(status, quantidade, valorTotal, percentual));
+        }
         return relatorio;
     }
 
@@ -0,0 +1,70 @@
+package br.com.teste.demo.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma alteração em uma transação própria e a repete quando outra transação gravou a mesma linha antes
+ * (@Version de Pedido e Pagamento) ou o banco a escolheu como vítima de deadlock. Cada tentativa relê o estado
+ * atual, então nenhuma alteração concorrente é perdida e nenhuma linha fica bloqueada além do commit.
+ * As esperas entre tentativas dobram até {@code concorrencia.retentativa.espera-maxima-ms}, com jitter
+ * para que as transações que perderam não voltem juntas; esgotadas as tentativas, o conflito é propagado (409).
+ */
+@Component
+public class RetentativaConcorrencia {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int tentativas;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+
+    public RetentativaConcorrencia(PlatformTransactionManager transactionManager,
+                                   @Value("${concorrencia.retentativa.tentativas:10}") int tentativas,
+                                   @Value("${concorrencia.retentativa.espera-inicial-ms:2}") long esperaInicialMs,
+                                   @Value("${concorrencia.retentativa.espera-maxima-ms:100}") long esperaMaximaMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tentativas = tentativas;
+        this.esperaInicialMs = esperaInicialMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    /**
+     * Dentro de uma transação já aberta não há como repetir só a alteração, então ela roda uma única vez
+     * e o conflito vai para quem abriu a transação
+     */
+    public <T> T executar(Supplier<T> alteracao) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return alteracao.get();
+        }
+
+        long espera = esperaInicialMs;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> alteracao.get());
+            } catch (ConcurrencyFailureException e) {
+                if (tentativa >= tentativas) {
+                    throw e;
+                }
+                aguardar(ThreadLocalRandom.current().nextLong(espera + 1));
+                espera = Math.min(espera * 2, esperaMaximaMs);
+            }
+        }
+    }
+
+    private static void aguardar(long ms) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando nova tentativa", e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.exceptions.BusinessException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Faixas de desconto e de frete, imutáveis e ordenadas pelo valor mínimo para busca binária.
+ * Cada faixa é guardada em BigDecimal, para o cálculo de referência, e em long (centésimos de centavo),
+ * para o cálculo em long do PedidoCalculoService; as consultas não alocam nem usam locks.
+ * Uma alteração das regras gera uma nova TabelaPrecos, trocada por inteiro no PedidoCalculoService.
+ */
+public final class TabelaPrecos {
+
+    /** Faixas usadas enquanto REGRA_PRECO estiver vazia */
+    public static final TabelaPrecos PADRAO = de(List.of(
+            new RegraPrecoDTO(TipoRegraPreco.DESCONTO, new BigDecimal("1000.00"), new BigDecimal("0.10"), null),
+            new RegraPrecoDTO(TipoRegraPreco.DESCONTO, new BigDecimal("500.00"), new BigDecimal("0.05"), null),
+            new RegraPrecoDTO(TipoRegraPreco.FRETE, new BigDecimal("500.00"), null, BigDecimal.ZERO),
+            new RegraPrecoDTO(TipoRegraPreco.FRETE, new BigDecimal("200.00"), null, new BigDecimal("20.00")),
+            new RegraPrecoDTO(TipoRegraPreco.FRETE, null, null, new BigDecimal("30.00"))));
+
+    private static final int ESCALA_UNIDADES = 4;
+    private static final int ESCALA_MAXIMA_VALOR = 2;
+
+    private final BigDecimal[] limitesDesconto;
+    private final long[] limitesDescontoUnidades;
+    private final BigDecimal[] percentuais;
+    private final long[] percentuaisSemEscala;
+
+    private final BigDecimal[] limitesFrete;
+    private final long[] limitesFreteUnidades;
+    private final BigDecimal[] valoresFrete;
+    private final long[] valoresFreteUnidades;
+
+    private TabelaPrecos(List<RegraPrecoDTO> descontos, List<RegraPrecoDTO> fretes) {
+        limitesDesconto = new BigDecimal[descontos.size()];
+        limitesDescontoUnidades = new long[descontos.size()];
+        percentuais = new BigDecimal[descontos.size()];
+        percentuaisSemEscala = new long[descontos.size()];
+        for (int i = 0; i < descontos.size(); i++) {
+            RegraPrecoDTO regra = descontos.get(i);
+            limitesDesconto[i] = regra.getValorMinimo();
+            limitesDescontoUnidades[i] = paraUnidades(regra.getValorMinimo());
+            percentuais[i] = regra.getPercentual();
+            percentuaisSemEscala[i] = regra.getPercentual().unscaledValue().longValueExact();
+        }
+
+        limitesFrete = new BigDecimal[fretes.size()];
+        limitesFreteUnidades = new long[fretes.size()];
+        valoresFrete = new BigDecimal[fretes.size()];
+        valoresFreteUnidades = new long[fretes.size()];
+        for (int i = 0; i < fretes.size(); i++) {
+            RegraPrecoDTO regra = fretes.get(i);
+            limitesFrete[i] = regra.getValorMinimo();
+            limitesFreteUnidades[i] = paraUnidades(regra.getValorMinimo());
+            valoresFrete[i] = regra.getValor();
+            valoresFreteUnidades[i] = paraUnidades(regra.getValor());
+        }
+    }
+
+    /**
+     * Valida as regras e monta a tabela. Valores monetários aceitam até 2 casas e percentuais até 4,
+     * e cada tipo aceita um único valor mínimo (inclusive uma única faixa sem mínimo).
+     */
+    public static TabelaPrecos de(List<RegraPrecoDTO> regras) {
+        List<RegraPrecoDTO> descontos = new ArrayList<>();
+        List<RegraPrecoDTO> fretes = new ArrayList<>();
+        for (RegraPrecoDTO regra : regras) {
+            if (regra == null || regra.getTipo() == null) {
+                throw new BusinessException("Toda regra de preço deve informar o tipo");
+            }
+            BigDecimal valorMinimo = normalizarValor(regra.getValorMinimo(), "valorMinimo");
+            if (regra.getTipo() == TipoRegraPreco.DESCONTO) {
+                descontos.add(new RegraPrecoDTO(regra.getTipo(), valorMinimo, normalizarPercentual(regra.getPercentual()), null));
+            } else {
+                if (regra.getValor() == null || regra.getValor().signum() < 0) {
+                    throw new BusinessException("A regra de frete deve informar um valor maior ou igual a zero");
+                }
+                fretes.add(new RegraPrecoDTO(regra.getTipo(), valorMinimo, null, normalizarValor(regra.getValor(), "valor")));
+            }
+        }
+        try {
+            return new TabelaPrecos(ordenar(descontos), ordenar(fretes));
+        } catch (ArithmeticException e) {
+            throw new BusinessException("Valor fora do limite suportado nas regras de preço");
+        }
+    }
+
+    /**
+     * Faixa de desconto do subtotal: índice da maior faixa com valor mínimo menor ou igual a ele, ou -1
+     */
+    public int faixaDesconto(BigDecimal subtotal) {
+        return buscar(limitesDesconto, subtotal);
+    }
+
+    public int faixaDesconto(long subtotalUnidades) {
+        return buscar(limitesDescontoUnidades, subtotalUnidades);
+    }
+
+    public BigDecimal percentual(int faixa) {
+        return percentuais[faixa];
+    }
+
+    /** Percentual sem a vírgula: 10 para 0.10; a escala é a de {@link #percentual(int)} */
+    public long percentualSemEscala(int faixa) {
+        return percentuaisSemEscala[faixa];
+    }
+
+    /**
+     * Faixa de frete do subtotal com desconto: índice da maior faixa com valor mínimo menor ou igual a ele, ou -1
+     */
+    public int faixaFrete(BigDecimal subtotalComDesconto) {
+        return buscar(limitesFrete, subtotalComDesconto);
+    }
+
+    public int faixaFrete(long subtotalComDescontoUnidades) {
+        return buscar(limitesFreteUnidades, subtotalComDescontoUnidades);
+    }
+
+    public BigDecimal valorFrete(int faixa) {
+        return valoresFrete[faixa];
+    }
+
+    /** Valor do frete em centésimos de centavo */
+    public long valorFreteUnidades(int faixa) {
+        return valoresFreteUnidades[faixa];
+    }
+
+    public List<RegraPrecoDTO> regras() {
+        List<RegraPrecoDTO> regras = new ArrayList<>(percentuais.length + valoresFrete.length);
+        for (int i = 0; i < percentuais.length; i++) {
+            regras.add(new RegraPrecoDTO(TipoRegraPreco.DESCONTO, limitesDesconto[i], percentuais[i], null));
+        }
+        for (int i = 0; i < valoresFrete.length; i++) {
+            regras.add(new RegraPrecoDTO(TipoRegraPreco.FRETE, limitesFrete[i], null, valoresFrete[i]));
+        }
+        return regras;
+    }
+
+    private static List<RegraPrecoDTO> ordenar(List<RegraPrecoDTO> regras) {
+        regras.sort(Comparator.comparing(RegraPrecoDTO::getValorMinimo, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (int i = 1; i < regras.size(); i++) {
+            BigDecimal anterior = regras.get(i - 1).getValorMinimo();
+            BigDecimal atual = regras.get(i).getValorMinimo();
+            if (anterior == null ? atual == null : anterior.compareTo(atual) == 0) {
+                throw new BusinessException("Há mais de uma regra de " + regras.get(i).getTipo()
+                        + " com valor mínimo " + atual);
+            }
+        }
+        return regras;
+    }
+
+    /** Limites nulos valem como menos infinito */
+    private static int buscar(BigDecimal[] limites, BigDecimal valor) {
+        int inicio = 0;
+        int fim = limites.length - 1;
+        int encontrado = -1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (limites[meio] == null || limites[meio].compareTo(valor) <= 0) {
+                encontrado = meio;
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return encontrado;
+    }
+
+    private static int buscar(long[] limites, long valor) {
+        int inicio = 0;
+        int fim = limites.length - 1;
+        int encontrado = -1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (limites[meio] <= valor) {
+                encontrado = meio;
+                inicio = meio + 1;
+            } else {
+                fim = meio - 1;
+            }
+        }
+        return encontrado;
+    }
+
+    /**
+     * Valores com até 2 casas são mantidos como vieram, para que a escala dos resultados não mude;
+     * zeros à direita além disso (como os lidos de colunas com mais casas) são descartados
+     */
+    private static BigDecimal normalizarValor(BigDecimal valor, String campo) {
+        if (valor == null || (valor.scale() >= 0 && valor.scale() <= ESCALA_MAXIMA_VALOR)) {
+            return valor;
+        }
+        try {
+            return valor.setScale(ESCALA_MAXIMA_VALOR, RoundingMode.UNNECESSARY);
+        } catch (ArithmeticException e) {
+            throw new BusinessException("O campo " + campo + " da regra de preço aceita no máximo 2 casas decimais");
+        }
+    }
+
+    /**
+     * Percentuais ficam com ao menos 2 casas (0.1000 lido do banco volta a ser 0.10) e no máximo 4
+     */
+    private static BigDecimal normalizarPercentual(BigDecimal percentual) {
+        if (percentual == null || percentual.signum() <= 0 || percentual.compareTo(BigDecimal.ONE) > 0) {
+            throw new BusinessException("A regra de desconto deve informar um percentual maior que 0 e até 1");
+        }
+        BigDecimal normalizado = percentual.stripTrailingZeros();
+        if (normalizado.scale() > ESCALA_UNIDADES) {
+            throw new BusinessException("O percentual da regra de desconto aceita no máximo 4 casas decimais");
+        }
+        return normalizado.scale() < 2 ? normalizado.setScale(2) : normalizado;
+    }
+
+    private static long paraUnidades(BigDecimal valor) {
+        if (valor == null) {
+            return Long.MIN_VALUE;
+        }
+        return valor.movePointRight(ESCALA_UNIDADES).longValueExact();
+    }
+}
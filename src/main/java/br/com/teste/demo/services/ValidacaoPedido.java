@@ -0,0 +1,43 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ItemPedidoDTO;
+import br.com.teste.demo.dtos.PedidoDTO;
+
+/**
+ * Regras de entrada comuns a todos os caminhos que criam ou alteram pedidos (POST /pedidos, PUT /pedidos/{id}
+ * e POST /pedidos/lote), para que aceitem exatamente os mesmos itens.
+ */
+public final class ValidacaoPedido {
+
+    private ValidacaoPedido() {
+    }
+
+    /**
+     * Mensagem do primeiro problema encontrado nos itens do pedido, ou nulo se estiverem válidos.
+     * A existência dos produtos fica a cargo de quem chama, que já os busca de uma vez.
+     */
+    public static String validarItens(PedidoDTO pedidoDTO) {
+        if (pedidoDTO == null || pedidoDTO.getItens() == null || pedidoDTO.getItens().isEmpty()) {
+            return "O pedido deve conter ao menos um item";
+        }
+        for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
+            if (itemDTO == null || itemDTO.getProdutoId() == null) {
+                return "Todos os itens do pedido devem informar o produtoId";
+            }
+            if (itemDTO.getQuantidade() == null || itemDTO.getQuantidade() <= 0) {
+                return "A quantidade do produto " + itemDTO.getProdutoId() + " deve ser maior que zero";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Como {@link #validarItens(PedidoDTO)}, recusando o pedido com IllegalArgumentException (400)
+     */
+    public static void exigirItensValidos(PedidoDTO pedidoDTO) {
+        String erro = validarItens(pedidoDTO);
+        if (erro != null) {
+            throw new IllegalArgumentException(erro);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.events.VendaDiariaAlteradaEvent;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.FormaPagamentoPedido;
+import br.com.teste.demo.repositories.projections.PedidoConsolidacao;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Mantém a tabela VENDA_DIARIA, que guarda os totais de pedidos por dia, status e forma de pagamento aprovada.
+ * As alterações de pedidos e pagamentos retiram a contribuição antiga do pedido e somam a nova,
+ * e a reconstrução recalcula um intervalo de datas a partir de PEDIDO para corrigir divergências.
+ */
+@Service
+public class VendaDiariaService {
+
+    private final VendaDiariaRepository vendaDiariaRepository;
+    private final PedidoRepository pedidoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public VendaDiariaService(VendaDiariaRepository vendaDiariaRepository,
+                              PedidoRepository pedidoRepository,
+                              PagamentoRepository pagamentoRepository,
+                              ApplicationEventPublisher eventPublisher) {
+        this.vendaDiariaRepository = vendaDiariaRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.pagamentoRepository = pagamentoRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Soma o estado atual do pedido aos totais do seu dia
+     */
+    @Transactional
+    public void registrar(Pedido pedido) {
+        aplicar(pedido, 1);
+    }
+
+    /**
+     * Retira o estado atual do pedido dos totais do seu dia.
+     * Deve ser chamado antes de qualquer alteração que mude status, valores, itens ou pagamento aprovado.
+     */
+    @Transactional
+    public void remover(Pedido pedido) {
+        aplicar(pedido, -1);
+    }
+
+    /**
+     * Contribuição atual do pedido aos totais, ou null se ele não entra em VENDA_DIARIA.
+     * Capturada antes de uma alteração, é trocada pela nova depois dela em {@link #atualizar}.
+     */
+    public ContribuicaoPedido contribuicao(Pedido pedido) {
+        if (pedido.getDataCadastro() == null || pedido.getStatusPedido() == null) {
+            return null;
+        }
+        return new ContribuicaoPedido(pedido.getDataCadastro().toLocalDate(), pedido.getStatusPedido(),
+                formaPagamentoAprovada(pedido.getId(), pedido.getStatusPedido()), valorOuZero(pedido.getValorTotal()),
+                valorOuZero(pedido.getDesconto()), valorOuZero(pedido.getFrete()), quantidadeItens(pedido));
+    }
+
+    public ContribuicaoPedido contribuicao(ResumoPedido pedido) {
+        if (pedido.dataCadastro() == null || pedido.statusPedido() == null) {
+            return null;
+        }
+        return new ContribuicaoPedido(pedido.dataCadastro().toLocalDate(), pedido.statusPedido(),
+                formaPagamentoAprovada(pedido.id(), pedido.statusPedido()), valorOuZero(pedido.valorTotal()),
+                valorOuZero(pedido.desconto()), valorOuZero(pedido.frete()), pedido.quantidadeItens());
+    }
+
+    /**
+     * Troca a contribuição anterior do pedido pela atual. Deve ser chamado depois que o UPDATE do pedido foi enviado
+     * (saveAndFlush ou PedidoRepository.atualizarStatus), para que a transação que perdeu a disputa pela versão
+     * falhe antes de tocar em VENDA_DIARIA.
+     * No mesmo agrupamento a diferença vai em uma única atualização; em agrupamentos diferentes as duas linhas
+     * são sempre atualizadas na mesma ordem, então duas transições opostas não se bloqueiam mutuamente.
+     */
+    @Transactional
+    public void atualizar(ContribuicaoPedido anterior, ContribuicaoPedido atual) {
+        if (anterior != null && atual != null && anterior.chave().equals(atual.chave())) {
+            acumular(atual.chave(), 0,
+                    atual.valorTotal().subtract(anterior.valorTotal()),
+                    atual.desconto().subtract(anterior.desconto()),
+                    atual.frete().subtract(anterior.frete()),
+                    atual.itens() - anterior.itens());
+            return;
+        }
+
+        if (anterior == null || atual == null || ChaveVendaDiaria.ORDEM.compare(anterior.chave(), atual.chave()) < 0) {
+            acumular(anterior, -1);
+            acumular(atual, 1);
+        } else {
+            acumular(atual, 1);
+            acumular(anterior, -1);
+        }
+    }
+
+    /**
+     * Soma pedidos recém-criados, ainda sem pagamento, agrupando por dia e status
+     * para fazer uma atualização por grupo em vez de uma por pedido, na ordem de ChaveVendaDiaria.ORDEM
+     */
+    @Transactional
+    public void registrarNovos(List<Pedido> pedidos) {
+        Map<ChaveVendaDiaria, VendaDiaria> totais = new TreeMap<>(ChaveVendaDiaria.ORDEM);
+        for (Pedido pedido : pedidos) {
+            if (pedido.getDataCadastro() == null || pedido.getStatusPedido() == null) {
+                continue;
+            }
+            ChaveVendaDiaria chave = new ChaveVendaDiaria(pedido.getDataCadastro().toLocalDate(), pedido.getStatusPedido(), null);
+            VendaDiaria total = totais.computeIfAbsent(chave, ChaveVendaDiaria::novaVenda);
+            total.setQuantidadePedidos(total.getQuantidadePedidos() + 1);
+            total.setValorTotal(total.getValorTotal().add(valorOuZero(pedido.getValorTotal())));
+            total.setDesconto(total.getDesconto().add(valorOuZero(pedido.getDesconto())));
+            total.setFrete(total.getFrete().add(valorOuZero(pedido.getFrete())));
+            total.setQuantidadeItens(total.getQuantidadeItens() + quantidadeItens(pedido));
+        }
+
+        totais.forEach((chave, total) -> acumular(chave, total.getQuantidadePedidos(), total.getValorTotal(),
+                total.getDesconto(), total.getFrete(), total.getQuantidadeItens()));
+    }
+
+    /**
+     * Soma a diferença de valores de pedidos recalculados, agrupada por dia, status e forma de pagamento aprovada.
+     * As quantidades de pedidos e itens não mudam. As formas de pagamento de todos os pedidos vêm de uma consulta,
+     * e as diferenças são aplicadas na ordem de ChaveVendaDiaria.ORDEM.
+     */
+    @Transactional
+    public void registrarRecalculo(List<Pedido> pedidos, Map<Long, ValoresPedido> valoresAnteriores) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+
+        Map<Long, FormaPagamento> formasAprovadas = new HashMap<>();
+        for (FormaPagamentoPedido pagamento : pagamentoRepository.findByStatusAndPedidoIdIn(
+                StatusPagamento.APROVADO, pedidos.stream().map(Pedido::getId).toList())) {
+            formasAprovadas.putIfAbsent(pagamento.pedidoId(), pagamento.formaPagamento());
+        }
+
+        Map<ChaveVendaDiaria, VendaDiaria> diferencas = new TreeMap<>(ChaveVendaDiaria.ORDEM);
+        for (Pedido pedido : pedidos) {
+            ValoresPedido anterior = valoresAnteriores.get(pedido.getId());
+            if (anterior == null || pedido.getDataCadastro() == null || pedido.getStatusPedido() == null) {
+                continue;
+            }
+            ChaveVendaDiaria chave = new ChaveVendaDiaria(pedido.getDataCadastro().toLocalDate(),
+                    pedido.getStatusPedido(), formasAprovadas.get(pedido.getId()));
+            VendaDiaria diferenca = diferencas.computeIfAbsent(chave, ChaveVendaDiaria::novaVenda);
+            diferenca.setValorTotal(diferenca.getValorTotal()
+                    .add(valorOuZero(pedido.getValorTotal())).subtract(valorOuZero(anterior.valorTotal())));
+            diferenca.setDesconto(diferenca.getDesconto()
+                    .add(valorOuZero(pedido.getDesconto())).subtract(valorOuZero(anterior.desconto())));
+            diferenca.setFrete(diferenca.getFrete()
+                    .add(valorOuZero(pedido.getFrete())).subtract(valorOuZero(anterior.frete())));
+        }
+
+        diferencas.forEach((chave, diferenca) -> acumular(chave, 0, diferenca.getValorTotal(),
+                diferenca.getDesconto(), diferenca.getFrete(), 0));
+    }
+
+    /**
+     * Move pedidos que trocaram de status em lote para o agrupamento do novo status: cada pedido sai do grupo
+     * (dia, status anterior, forma) e entra em (dia, novoStatus, forma). As diferenças são somadas por grupo e
+     * aplicadas na ordem de ChaveVendaDiaria.ORDEM, com uma consulta para as formas de pagamento de todos os pedidos.
+     */
+    @Transactional
+    public void registrarTrocaStatus(List<ResumoPedido> pedidos, StatusPedido novoStatus) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+
+        Map<Long, FormaPagamento> formasAprovadas = new HashMap<>();
+        for (FormaPagamentoPedido pagamento : pagamentoRepository.findByStatusAndPedidoIdIn(
+                StatusPagamento.APROVADO, pedidos.stream().map(ResumoPedido::id).toList())) {
+            formasAprovadas.putIfAbsent(pagamento.pedidoId(), pagamento.formaPagamento());
+        }
+
+        Map<ChaveVendaDiaria, VendaDiaria> diferencas = new TreeMap<>(ChaveVendaDiaria.ORDEM);
+        for (ResumoPedido pedido : pedidos) {
+            if (pedido.dataCadastro() == null || pedido.statusPedido() == null) {
+                continue;
+            }
+            LocalDate data = pedido.dataCadastro().toLocalDate();
+            FormaPagamento forma = formasAprovadas.get(pedido.id());
+            somar(diferencas.computeIfAbsent(new ChaveVendaDiaria(data, pedido.statusPedido(), forma),
+                    ChaveVendaDiaria::novaVenda), pedido, -1);
+            somar(diferencas.computeIfAbsent(new ChaveVendaDiaria(data, novoStatus, forma),
+                    ChaveVendaDiaria::novaVenda), pedido, 1);
+        }
+
+        diferencas.forEach((chave, diferenca) -> acumular(chave, diferenca.getQuantidadePedidos(),
+                diferenca.getValorTotal(), diferenca.getDesconto(), diferenca.getFrete(), diferenca.getQuantidadeItens()));
+    }
+
+    /**
+     * Recalcula do zero os totais do intervalo [dataInicio, dataFim).
+     * Os incrementos das demais transações esperam a reconstrução terminar, e ela espera os que já começaram,
+     * para que nenhum seja apagado pelo DELETE nem contado duas vezes.
+     */
+    @Transactional
+    public void reconstruir(LocalDate dataInicio, LocalDate dataFim) {
+        vendaDiariaRepository.bloquearParaReconstrucao();
+        vendaDiariaRepository.deleteByPeriodo(dataInicio, dataFim);
+
+        for (LocalDate data = dataInicio; data.isBefore(dataFim); data = data.plusDays(1)) {
+            reconstruirDia(data);
+        }
+    }
+
+    /**
+     * Reconstrói diariamente o dia anterior, corrigindo eventuais divergências da manutenção incremental
+     */
+    @Scheduled(cron = "${relatorio.vendas-diarias.reconstrucao-cron:0 30 2 * * *}")
+    @Transactional
+    public void reconstruirDiaAnterior() {
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        reconstruir(ontem, ontem.plusDays(1));
+    }
+
+    private void reconstruirDia(LocalDate data) {
+        List<PedidoConsolidacao> pedidos = pedidoRepository.findConsolidacaoByPeriodo(
+                data.atStartOfDay(), data.plusDays(1).atStartOfDay());
+        if (pedidos.isEmpty()) {
+            return;
+        }
+
+        Map<Long, FormaPagamento> formasAprovadas = new HashMap<>();
+        for (FormaPagamentoPedido pagamento : pagamentoRepository.findByStatusAndDataPedido(
+                StatusPagamento.APROVADO, data.atStartOfDay(), data.plusDays(1).atStartOfDay())) {
+            formasAprovadas.putIfAbsent(pagamento.pedidoId(), pagamento.formaPagamento());
+        }
+
+        Map<ChaveVendaDiaria, VendaDiaria> vendas = new HashMap<>();
+        for (PedidoConsolidacao pedido : pedidos) {
+            if (pedido.statusPedido() == null) {
+                continue;
+            }
+            ChaveVendaDiaria chave = new ChaveVendaDiaria(data, pedido.statusPedido(), formasAprovadas.get(pedido.pedidoId()));
+            VendaDiaria venda = vendas.computeIfAbsent(chave, ChaveVendaDiaria::novaVenda);
+            venda.setQuantidadePedidos(venda.getQuantidadePedidos() + 1);
+            venda.setValorTotal(venda.getValorTotal().add(valorOuZero(pedido.valorTotal())));
+            venda.setDesconto(venda.getDesconto().add(valorOuZero(pedido.desconto())));
+            venda.setFrete(venda.getFrete().add(valorOuZero(pedido.frete())));
+            venda.setQuantidadeItens(venda.getQuantidadeItens() + pedido.quantidadeItens());
+        }
+
+        vendaDiariaRepository.saveAll(vendas.values());
+    }
+
+    private void aplicar(Pedido pedido, int sinal) {
+        acumular(contribuicao(pedido), sinal);
+    }
+
+    private void acumular(ContribuicaoPedido contribuicao, int sinal) {
+        if (contribuicao == null) {
+            return;
+        }
+
+        BigDecimal multiplicador = BigDecimal.valueOf(sinal);
+        acumular(contribuicao.chave(),
+                sinal,
+                contribuicao.valorTotal().multiply(multiplicador),
+                contribuicao.desconto().multiply(multiplicador),
+                contribuicao.frete().multiply(multiplicador),
+                sinal * contribuicao.itens());
+    }
+
+    private void acumular(ChaveVendaDiaria chave, long pedidos, BigDecimal valorTotal,
+                          BigDecimal desconto, BigDecimal frete, long itens) {
+        vendaDiariaRepository.acumular(chave.data(), chave.statusPedido(), chave.formaPagamento(),
+                pedidos, valorTotal, desconto, frete, itens);
+
+        eventPublisher.publishEvent(new VendaDiariaAlteradaEvent(chave.data(), chave.statusPedido(),
+                chave.formaPagamento(), pedidos, valorTotal, desconto, frete, itens));
+    }
+
+    private static void somar(VendaDiaria total, ResumoPedido pedido, int sinal) {
+        BigDecimal multiplicador = BigDecimal.valueOf(sinal);
+        total.setQuantidadePedidos(total.getQuantidadePedidos() + sinal);
+        total.setValorTotal(total.getValorTotal().add(valorOuZero(pedido.valorTotal()).multiply(multiplicador)));
+        total.setDesconto(total.getDesconto().add(valorOuZero(pedido.desconto()).multiply(multiplicador)));
+        total.setFrete(total.getFrete().add(valorOuZero(pedido.frete()).multiply(multiplicador)));
+        total.setQuantidadeItens(total.getQuantidadeItens() + sinal * pedido.quantidadeItens());
+    }
+
+    /**
+     * Pedidos novos e aguardando pagamento não têm pagamento aprovado: a aprovação passa o pedido para PAGO
+     * no mesmo UPDATE, e nenhuma transição volta para PENDENTE_PAGAMENTO. Só os demais vão ao banco.
+     */
+    private FormaPagamento formaPagamentoAprovada(Long pedidoId, StatusPedido status) {
+        if (pedidoId == null || status == StatusPedido.PENDENTE_PAGAMENTO) {
+            return null;
+        }
+        return pagamentoRepository.findByPedidoIdAndStatus(pedidoId, StatusPagamento.APROVADO).stream()
+                .map(Pagamento::getFormaPagamento)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private long quantidadeItens(Pedido pedido) {
+        if (pedido.getItens() == null) {
+            return 0;
+        }
+        long quantidade = 0;
+        for (ItemPedido item : pedido.getItens()) {
+            if (item.getQuantidade() != null) {
+                quantidade += item.getQuantidade();
+            }
+        }
+        return quantidade;
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    /**
+     * Valores de um pedido antes de uma alteração
+     */
+    public record ValoresPedido(BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete) {
+
+        public static ValoresPedido de(Pedido pedido) {
+            return new ValoresPedido(pedido.getValorTotal(), pedido.getDesconto(), pedido.getFrete());
+        }
+    }
+
+    /**
+     * Valores com que um pedido entra no agrupamento de um dia, status e forma de pagamento aprovada
+     */
+    public record ContribuicaoPedido(LocalDate data, StatusPedido statusPedido, FormaPagamento formaPagamento,
+                                     BigDecimal valorTotal, BigDecimal desconto, BigDecimal frete, long itens) {
+
+        private ChaveVendaDiaria chave() {
+            return new ChaveVendaDiaria(data, statusPedido, formaPagamento);
+        }
+    }
+
+    private record ChaveVendaDiaria(LocalDate data, StatusPedido statusPedido, FormaPagamento formaPagamento) {
+
+        /** Ordem em que as linhas de VENDA_DIARIA são atualizadas quando uma transação altera mais de uma */
+        static final Comparator<ChaveVendaDiaria> ORDEM = Comparator.comparing(ChaveVendaDiaria::data)
+                .thenComparingInt(chave -> chave.statusPedido().getId())
+                .thenComparing(ChaveVendaDiaria::formaPagamento,
+                        Comparator.nullsFirst(Comparator.comparingInt(FormaPagamento::getId)));
+
+        VendaDiaria novaVenda() {
+            VendaDiaria venda = new VendaDiaria();
+            venda.setData(data);
+            venda.setStatusPedido(statusPedido);
+            venda.setFormaPagamento(formaPagamento);
+            return venda;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.teste.demo.services.impl;
 
 import br.com.teste.demo.dtos.PagamentoDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.enums.FormaPagamento;
 import br.com.teste.demo.enums.StatusPagamento;
 import br.com.teste.demo.enums.StatusPedido;
@@ -10,12 +11,19 @@ import br.com.teste.demo.models.Pagamento;
 import br.com.teste.demo.models.Pedido;
 import br.com.teste.demo.repositories.PagamentoRepository;
 import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
 import br.com.teste.demo.services.PagamentoService;
+import br.com.teste.demo.services.Paginacao;
+import br.com.teste.demo.services.RetentativaConcorrencia;
+import br.com.teste.demo.services.VendaDiariaService;
+import br.com.teste.demo.services.VendaDiariaService.ContribuicaoPedido;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,10 +32,15 @@ public class PagamentoServiceImpl implements PagamentoService {
 
     private final PagamentoRepository pagamentoRepository;
     private final PedidoRepository pedidoRepository;
+    private final VendaDiariaService vendaDiariaService;
+    private final RetentativaConcorrencia retentativaConcorrencia;
 
-    public PagamentoServiceImpl(PagamentoRepository pagamentoRepository, PedidoRepository pedidoRepository) {
+    public PagamentoServiceImpl(PagamentoRepository pagamentoRepository, PedidoRepository pedidoRepository,
+                                VendaDiariaService vendaDiariaService, RetentativaConcorrencia retentativaConcorrencia) {
         this.pagamentoRepository = pagamentoRepository;
         this.pedidoRepository = pedidoRepository;
+        this.vendaDiariaService = vendaDiariaService;
+        this.retentativaConcorrencia = retentativaConcorrencia;
     }
 
     @Override
@@ -73,116 +86,134 @@ public class PagamentoServiceImpl implements PagamentoService {
     }
 
     @Override
-    @Transactional
     public PagamentoDTO updateStatusPagamento(Long id, StatusPagamento novoStatus) {
-        Pagamento pagamento = pagamentoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
-
-        pagamento.setStatusPagamento(novoStatus);
-        pagamento.setDataAtualizacao(LocalDateTime.now());
-
-        if (novoStatus == StatusPagamento.APROVADO) {
-            pagamento.setDataPagamento(LocalDateTime.now());
-            // Atualiza status do pedido
-            Pedido pedido = pagamento.getPedido();
-            pedido.setStatusPedido(StatusPedido.PAGO);
-            pedido.setDataAtualizacao(LocalDateTime.now());
-            pedidoRepository.save(pedido);
-        }
-
-        Pagamento pagamentoAtualizado = pagamentoRepository.save(pagamento);
-        return PagamentoDTO.fromEntity(pagamentoAtualizado);
+        return retentativaConcorrencia.executar(() -> {
+            Pagamento pagamento = pagamentoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
+            ResumoPedido pedido = buscarResumoPedido(pagamento);
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            pagamento.setStatusPagamento(novoStatus);
+            pagamento.setDataAtualizacao(LocalDateTime.now());
+
+            StatusPedido statusPedido = pedido.statusPedido();
+            if (novoStatus == StatusPagamento.APROVADO) {
+                pagamento.setDataPagamento(LocalDateTime.now());
+                statusPedido = StatusPedido.PAGO;
+            }
+
+            Pagamento pagamentoAtualizado = pagamentoRepository.saveAndFlush(pagamento);
+            atualizarPedido(pedido, statusPedido, contribuicaoAnterior);
+            return PagamentoDTO.fromEntity(pagamentoAtualizado);
+        });
     }
 
     @Override
-    @Transactional
     public PagamentoDTO processarPagamento(Long id) {
-        Pagamento pagamento = pagamentoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
-
-        if (pagamento.getStatusPagamento() != StatusPagamento.PENDENTE) {
-            throw new BusinessException("Apenas pagamentos pendentes podem ser processados");
-        }
-
-        // Simula processamento do pagamento
-        pagamento.setStatusPagamento(StatusPagamento.PROCESSANDO);
-        pagamento.setCodigoAutorizacao(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        pagamento.setNsu(String.valueOf(System.currentTimeMillis()).substring(0, 12));
-        pagamento.setDataAtualizacao(LocalDateTime.now());
-
-        // Simula aprovação automática (em produção, seria uma integração com gateway de pagamento)
-        pagamento.setStatusPagamento(StatusPagamento.APROVADO);
-        pagamento.setDataPagamento(LocalDateTime.now());
-
-        // Atualiza status do pedido
-        Pedido pedido = pagamento.getPedido();
-        pedido.setStatusPedido(StatusPedido.PAGO);
-        pedido.setDataAtualizacao(LocalDateTime.now());
-        pedidoRepository.save(pedido);
+        return retentativaConcorrencia.executar(() -> {
+            Pagamento pagamento = pagamentoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
+
+            if (pagamento.getStatusPagamento() != StatusPagamento.PENDENTE) {
+                throw new BusinessException("Apenas pagamentos pendentes podem ser processados");
+            }
+            ResumoPedido pedido = buscarResumoPedido(pagamento);
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            // Simula processamento do pagamento
+            pagamento.setStatusPagamento(StatusPagamento.PROCESSANDO);
+            pagamento.setCodigoAutorizacao(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            pagamento.setNsu(String.valueOf(System.currentTimeMillis()).substring(0, 12));
+            pagamento.setDataAtualizacao(LocalDateTime.now());
+
+            // Simula aprovação automática (em produção, seria uma integração com gateway de pagamento)
+            pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+            pagamento.setDataPagamento(LocalDateTime.now());
 
-        Pagamento pagamentoProcessado = pagamentoRepository.save(pagamento);
-        return PagamentoDTO.fromEntity(pagamentoProcessado);
+            Pagamento pagamentoProcessado = pagamentoRepository.saveAndFlush(pagamento);
+            atualizarPedido(pedido, StatusPedido.PAGO, contribuicaoAnterior);
+            return PagamentoDTO.fromEntity(pagamentoProcessado);
+        });
     }
 
     @Override
-    @Transactional
     public PagamentoDTO cancelarPagamento(Long id) {
-        Pagamento pagamento = pagamentoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
+        return retentativaConcorrencia.executar(() -> {
+            Pagamento pagamento = pagamentoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
 
-        if (pagamento.getStatusPagamento() == StatusPagamento.APROVADO) {
-            throw new BusinessException("Pagamentos aprovados não podem ser cancelados. Use estorno.");
-        }
+            if (pagamento.getStatusPagamento() == StatusPagamento.APROVADO) {
+                throw new BusinessException("Pagamentos aprovados não podem ser cancelados. Use estorno.");
+            }
 
-        pagamento.setStatusPagamento(StatusPagamento.CANCELADO);
-        pagamento.setDataAtualizacao(LocalDateTime.now());
+            pagamento.setStatusPagamento(StatusPagamento.CANCELADO);
+            pagamento.setDataAtualizacao(LocalDateTime.now());
 
-        Pagamento pagamentoCancelado = pagamentoRepository.save(pagamento);
-        return PagamentoDTO.fromEntity(pagamentoCancelado);
+            Pagamento pagamentoCancelado = pagamentoRepository.save(pagamento);
+            return PagamentoDTO.fromEntity(pagamentoCancelado);
+        });
     }
 
     @Override
-    @Transactional
     public PagamentoDTO estornarPagamento(Long id) {
-        Pagamento pagamento = pagamentoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
-
-        if (pagamento.getStatusPagamento() != StatusPagamento.APROVADO) {
-            throw new BusinessException("Apenas pagamentos aprovados podem ser estornados");
-        }
-
-        pagamento.setStatusPagamento(StatusPagamento.ESTORNADO);
-        pagamento.setDataAtualizacao(LocalDateTime.now());
-
-        // Atualiza status do pedido
-        Pedido pedido = pagamento.getPedido();
-        pedido.setStatusPedido(StatusPedido.CANCELADO);
-        pedido.setDataAtualizacao(LocalDateTime.now());
-        pedidoRepository.save(pedido);
-
-        Pagamento pagamentoEstornado = pagamentoRepository.save(pagamento);
-        return PagamentoDTO.fromEntity(pagamentoEstornado);
+        return retentativaConcorrencia.executar(() -> {
+            Pagamento pagamento = pagamentoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pagamento não encontrado com id: " + id));
+
+            if (pagamento.getStatusPagamento() != StatusPagamento.APROVADO) {
+                throw new BusinessException("Apenas pagamentos aprovados podem ser estornados");
+            }
+            ResumoPedido pedido = buscarResumoPedido(pagamento);
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            pagamento.setStatusPagamento(StatusPagamento.ESTORNADO);
+            pagamento.setDataAtualizacao(LocalDateTime.now());
+
+            Pagamento pagamentoEstornado = pagamentoRepository.saveAndFlush(pagamento);
+            atualizarPedido(pedido, StatusPedido.CANCELADO, contribuicaoAnterior);
+            return PagamentoDTO.fromEntity(pagamentoEstornado);
+        });
     }
 
     @Override
-    public List<PagamentoDTO> findByFormaPagamento(FormaPagamento formaPagamento) {
-        return pagamentoRepository.findByFormaPagamento(formaPagamento).stream()
-                .map(PagamentoDTO::fromEntity)
-                .collect(Collectors.toList());
+    public PaginaDTO<PagamentoDTO> findPagina(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
+                                              LocalDateTime dataInicio, LocalDateTime dataFim, String cursor, int limite) {
+        Paginacao.Cursor posicao = Paginacao.decodificar(cursor);
+        List<Pagamento> pagamentos = pagamentoRepository.findPaginaByFiltros(formaPagamento, statusPagamento,
+                dataInicio, dataFim, posicao.dataCadastro(), posicao.id(), Paginacao.limiteConsulta(limite));
+        return Paginacao.montar(pagamentos, limite, Pagamento::getDataCadastro, Pagamento::getId, PagamentoDTO::fromEntity);
     }
 
-    @Override
-    public List<PagamentoDTO> findByStatusPagamento(StatusPagamento statusPagamento) {
-        return pagamentoRepository.findByStatusPagamento(statusPagamento).stream()
-                .map(PagamentoDTO::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Colunas do pedido do pagamento, sem carregar a entidade (pagamento.getPedido() continua um proxy)
+     */
+    private ResumoPedido buscarResumoPedido(Pagamento pagamento) {
+        Long pedidoId = pagamento.getPedido().getId();
+        return pedidoRepository.findResumoById(pedidoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com id: " + pedidoId));
     }
 
-    @Override
-    public List<PagamentoDTO> findByFiltros(FormaPagamento formaPagamento, StatusPagamento statusPagamento,
-                                            LocalDateTime dataInicio, LocalDateTime dataFim) {
-        return pagamentoRepository.findByFiltros(formaPagamento, statusPagamento, dataInicio, dataFim).stream()
-                .map(PagamentoDTO::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Grava o status do pedido com um UPDATE condicional ao status e à versão lidos e ajusta VENDA_DIARIA.
+     * A transição segue {@link StatusPedido#podeMudarPara}, como em PUT /pedidos/{id}/status; um pedido cancelado,
+     * por exemplo, não volta a ser pago pela aprovação de um pagamento.
+     * Quando o status não muda, o UPDATE só é feito se a forma de pagamento aprovada mudou: ela entra nos totais,
+     * e é a versão do pedido que impede dois pagamentos dele de ajustarem os totais a partir do mesmo estado.
+     */
+    private void atualizarPedido(ResumoPedido pedido, StatusPedido novoStatus, ContribuicaoPedido contribuicaoAnterior) {
+        if (pedido.statusPedido() == novoStatus) {
+            if (Objects.equals(contribuicaoAnterior, vendaDiariaService.contribuicao(pedido))) {
+                return;
+            }
+        } else if (pedido.statusPedido() == null || !pedido.statusPedido().podeMudarPara(novoStatus)) {
+            throw new BusinessException("Status " + pedido.statusPedido() + " não pode ser alterado para " + novoStatus);
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        if (pedidoRepository.atualizarStatus(pedido.id(), pedido.statusPedido(), pedido.versao(), novoStatus, agora) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Pedido.class, pedido.id());
+        }
+        vendaDiariaService.atualizar(contribuicaoAnterior,
+                vendaDiariaService.contribuicao(pedido.comStatus(novoStatus, agora)));
     }
 }
@@ -1,24 +1,36 @@
 package br.com.teste.demo.services.impl;
 
 import br.com.teste.demo.dtos.ItemPedidoDTO;
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.PedidoDTO;
+import br.com.teste.demo.dtos.ProdutoDTO;
 import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
 import br.com.teste.demo.exceptions.ResourceNotFoundException;
 import br.com.teste.demo.models.ItemPedido;
 import br.com.teste.demo.models.Pedido;
-import br.com.teste.demo.models.Produto;
 import br.com.teste.demo.repositories.PedidoRepository;
 import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
+import br.com.teste.demo.services.NumeroPedidoGenerator;
+import br.com.teste.demo.services.Paginacao;
 import br.com.teste.demo.services.PedidoCalculoService;
 import br.com.teste.demo.services.PedidoService;
+import br.com.teste.demo.services.ProdutoCache;
+import br.com.teste.demo.services.RetentativaConcorrencia;
+import br.com.teste.demo.services.ValidacaoPedido;
+import br.com.teste.demo.services.VendaDiariaService;
+import br.com.teste.demo.services.VendaDiariaService.ContribuicaoPedido;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PedidoServiceImpl implements PedidoService {
@@ -26,25 +38,30 @@ public class PedidoServiceImpl implements PedidoService {
     private final PedidoRepository pedidoRepository;
     private final ProdutoRepository produtoRepository;
     private final PedidoCalculoService pedidoCalculoService;
+    private final VendaDiariaService vendaDiariaService;
+    private final NumeroPedidoGenerator numeroPedidoGenerator;
+    private final RetentativaConcorrencia retentativaConcorrencia;
+    private final ProdutoCache produtoCache;
 
     public PedidoServiceImpl(PedidoRepository pedidoRepository,
                            ProdutoRepository produtoRepository,
-                           PedidoCalculoService pedidoCalculoService) {
+                           PedidoCalculoService pedidoCalculoService,
+                           VendaDiariaService vendaDiariaService,
+                           NumeroPedidoGenerator numeroPedidoGenerator,
+                           RetentativaConcorrencia retentativaConcorrencia,
+                           ProdutoCache produtoCache) {
         this.pedidoRepository = pedidoRepository;
         this.produtoRepository = produtoRepository;
         this.pedidoCalculoService = pedidoCalculoService;
-    }
-
-    @Override
-    public List<PedidoDTO> getAllOrders() {
-        return pedidoRepository.findAll().stream()
-                .map(PedidoDTO::fromEntity)
-                .collect(Collectors.toList());
+        this.vendaDiariaService = vendaDiariaService;
+        this.numeroPedidoGenerator = numeroPedidoGenerator;
+        this.retentativaConcorrencia = retentativaConcorrencia;
+        this.produtoCache = produtoCache;
     }
 
     @Override
     public PedidoDTO getOrderById(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findComItensById(id)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
         return PedidoDTO.fromEntity(pedido);
     }
@@ -52,8 +69,10 @@ public class PedidoServiceImpl implements PedidoService {
     @Override
     @Transactional
     public PedidoDTO createOrder(PedidoDTO pedidoDTO) {
+        ValidacaoPedido.exigirItensValidos(pedidoDTO);
+
         Pedido pedido = new Pedido();
-        pedido.setNumero(new Random().nextLong(100000, 999999));
+        pedido.setNumero(numeroPedidoGenerator.proximoNumero());
         pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
         pedido.setDataCadastro(LocalDateTime.now());
         pedido.setDataAtualizacao(LocalDateTime.now());
@@ -67,133 +86,155 @@ public class PedidoServiceImpl implements PedidoService {
         }
 
         // Adiciona itens ao pedido
-        for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
-            Produto produto = produtoRepository.findById(itemDTO.getProdutoId())
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado com id: " + itemDTO.getProdutoId()));
-
-            ItemPedido item = new ItemPedido();
-            item.setPedido(pedido);
-            item.setProduto(produto);
-            item.setQuantidade(itemDTO.getQuantidade());
-            item.setValorUnitario(produto.getValor());
-            item.setValorTotal(produto.getValor().multiply(BigDecimal.valueOf(itemDTO.getQuantidade())));
-
-            pedido.getItens().add(item);
-        }
+        adicionarItens(pedido, pedidoDTO.getItens());
 
         // Calcula todos os valores do pedido
         pedidoCalculoService.calcularValoresPedido(pedido);
 
         Pedido pedidoSalvo = pedidoRepository.save(pedido);
+        vendaDiariaService.registrar(pedidoSalvo);
         return PedidoDTO.fromEntity(pedidoSalvo);
     }
 
     @Override
-    @Transactional
     public PedidoDTO updateOrder(Long id, PedidoDTO pedidoDTO) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
-
-        // Limpa itens existentes
-        pedido.getItens().clear();
-
-        // Atualiza desconto e frete manuais se fornecidos
-        if (pedidoDTO.getDesconto() != null) {
-            pedido.setDesconto(pedidoDTO.getDesconto());
-        }
-        if (pedidoDTO.getFrete() != null) {
-            pedido.setFrete(pedidoDTO.getFrete());
-        }
-
-        // Adiciona novos itens
-        for (ItemPedidoDTO itemDTO : pedidoDTO.getItens()) {
-            Produto produto = produtoRepository.findById(itemDTO.getProdutoId())
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado com id: " + itemDTO.getProdutoId()));
-
-            ItemPedido item = new ItemPedido();
-            item.setPedido(pedido);
-            item.setProduto(produto);
-            item.setQuantidade(itemDTO.getQuantidade());
-            item.setValorUnitario(produto.getValor());
-            item.setValorTotal(produto.getValor().multiply(BigDecimal.valueOf(itemDTO.getQuantidade())));
-
-            pedido.getItens().add(item);
-        }
-
-        // Recalcula todos os valores do pedido
-        pedidoCalculoService.calcularValoresPedido(pedido);
-        pedido.setDataAtualizacao(LocalDateTime.now());
-
-        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
-        return PedidoDTO.fromEntity(pedidoAtualizado);
+        ValidacaoPedido.exigirItensValidos(pedidoDTO);
+
+        return retentativaConcorrencia.executar(() -> {
+            Pedido pedido = pedidoRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            // Limpa itens existentes
+            pedido.getItens().clear();
+
+            // Atualiza desconto e frete manuais se fornecidos
+            if (pedidoDTO.getDesconto() != null) {
+                pedido.setDesconto(pedidoDTO.getDesconto());
+            }
+            if (pedidoDTO.getFrete() != null) {
+                pedido.setFrete(pedidoDTO.getFrete());
+            }
+
+            // Adiciona novos itens
+            adicionarItens(pedido, pedidoDTO.getItens());
+
+            // Recalcula todos os valores do pedido
+            pedidoCalculoService.calcularValoresPedido(pedido);
+            pedido.setDataAtualizacao(LocalDateTime.now());
+
+            Pedido pedidoAtualizado = pedidoRepository.saveAndFlush(pedido);
+            vendaDiariaService.atualizar(contribuicaoAnterior, vendaDiariaService.contribuicao(pedidoAtualizado));
+            return PedidoDTO.fromEntity(pedidoAtualizado);
+        });
     }
 
+    /**
+     * Lê só as colunas do pedido e troca o status com um UPDATE condicional ao status e à versão lidos;
+     * se outra transação alterou o pedido nesse meio tempo, a troca é refeita a partir do estado novo,
+     * validando de novo a transição. A resposta não traz os itens, que não são carregados.
+     */
     @Override
-    @Transactional
     public PedidoDTO updateOrderStatus(Long id, StatusPedido status) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
-
-        pedido.setStatusPedido(status);
-        pedido.setDataAtualizacao(LocalDateTime.now());
-
-        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
-        return PedidoDTO.fromEntity(pedidoAtualizado);
+        return retentativaConcorrencia.executar(() -> {
+            ResumoPedido pedido = pedidoRepository.findResumoById(id)
+                    .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+            if (pedido.statusPedido() == status) {
+                throw new BusinessException("Pedido já está com o status " + status);
+            }
+            if (pedido.statusPedido() == null || !pedido.statusPedido().podeMudarPara(status)) {
+                throw new BusinessException("Status " + pedido.statusPedido() + " não pode ser alterado para " + status);
+            }
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            LocalDateTime agora = LocalDateTime.now();
+            if (pedidoRepository.atualizarStatus(id, pedido.statusPedido(), pedido.versao(), status, agora) == 0) {
+                throw new ObjectOptimisticLockingFailureException(Pedido.class, id);
+            }
+
+            ResumoPedido pedidoAtualizado = pedido.comStatus(status, agora);
+            vendaDiariaService.atualizar(contribuicaoAnterior, vendaDiariaService.contribuicao(pedidoAtualizado));
+            return PedidoDTO.fromResumo(pedidoAtualizado);
+        });
     }
 
     @Override
-    @Transactional
     public void deleteOrder(Long id) {
-        if (!pedidoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Pedido não encontrado com id: " + id);
-        }
-        pedidoRepository.deleteById(id);
+        retentativaConcorrencia.executar(() -> {
+            Pedido pedido = pedidoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com id: " + id));
+            vendaDiariaService.remover(pedido);
+            pedidoRepository.delete(pedido);
+            return null;
+        });
     }
 
     @Override
-    public List<PedidoDTO> findByStatus(StatusPedido status) {
-        return pedidoRepository.findByStatusPedido(status).stream()
-                .map(PedidoDTO::fromEntity)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PaginaDTO<PedidoDTO> findPagina(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
+                                           BigDecimal valorMinimo, BigDecimal valorMaximo, String cursor, int limite) {
+        Paginacao.Cursor posicao = Paginacao.decodificar(cursor);
+        List<Pedido> pedidos = pedidoRepository.findPaginaByFiltros(status, dataInicio, dataFim, valorMinimo, valorMaximo,
+                posicao.dataCadastro(), posicao.id(), Paginacao.limiteConsulta(limite));
+        if (!pedidos.isEmpty()) {
+            // Inicializa os itens dos pedidos da página, que já estão no contexto de persistência
+            pedidoRepository.findComItensByIdIn(pedidos.stream().map(Pedido::getId).toList());
+        }
+        return Paginacao.montar(pedidos, limite, Pedido::getDataCadastro, Pedido::getId, PedidoDTO::fromEntity);
     }
 
     @Override
-    public List<PedidoDTO> findByDateRange(LocalDateTime dataInicio, LocalDateTime dataFim) {
-        return pedidoRepository.findByDataCadastroBetween(dataInicio, dataFim).stream()
-                .map(PedidoDTO::fromEntity)
-                .collect(Collectors.toList());
+    public PedidoDTO recalcularPedido(Long id) {
+        return retentativaConcorrencia.executar(() -> {
+            Pedido pedido = pedidoRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+            ContribuicaoPedido contribuicaoAnterior = vendaDiariaService.contribuicao(pedido);
+
+            // Reseta desconto e frete para recalcular automático
+            pedido.setDesconto(null);
+            pedido.setFrete(null);
+
+            // Recalcula todos os valores
+            pedidoCalculoService.calcularValoresPedido(pedido);
+            pedido.setDataAtualizacao(LocalDateTime.now());
+
+            Pedido pedidoAtualizado = pedidoRepository.saveAndFlush(pedido);
+            vendaDiariaService.atualizar(contribuicaoAnterior, vendaDiariaService.contribuicao(pedidoAtualizado));
+            return PedidoDTO.fromEntity(pedidoAtualizado);
+        });
     }
 
-    @Override
-    public List<PedidoDTO> findByValorRange(BigDecimal valorMinimo, BigDecimal valorMaximo) {
-        return pedidoRepository.findByValorTotalBetween(valorMinimo, valorMaximo).stream()
-                .map(PedidoDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+    /**
+     * Monta os itens do pedido com os preços do cache de produtos; os que não estão em cache são buscados de uma vez.
+     * Se algum produto não existir, nenhum item é adicionado e o erro lista todos os ids desconhecidos.
+     */
+    private void adicionarItens(Pedido pedido, List<ItemPedidoDTO> itensDTO) {
+        Set<Long> produtoIds = new LinkedHashSet<>();
+        for (ItemPedidoDTO itemDTO : itensDTO) {
+            produtoIds.add(itemDTO.getProdutoId());
+        }
 
-    @Override
-    public List<PedidoDTO> findByFiltros(StatusPedido status, LocalDateTime dataInicio, LocalDateTime dataFim,
-                                         BigDecimal valorMinimo, BigDecimal valorMaximo) {
-        return pedidoRepository.findByFiltros(status, dataInicio, dataFim, valorMinimo, valorMaximo).stream()
-                .map(PedidoDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+        Map<Long, ProdutoDTO> produtos = produtoCache.buscarTodos(produtoIds);
 
-    @Override
-    @Transactional
-    public PedidoDTO recalcularPedido(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado com id: " + id));
+        List<Long> naoEncontrados = produtoIds.stream()
+                .filter(produtoId -> !produtos.containsKey(produtoId))
+                .toList();
+        if (!naoEncontrados.isEmpty()) {
+            throw new ResourceNotFoundException("Produtos não encontrados com ids: " + naoEncontrados);
+        }
 
-        // Reseta desconto e frete para recalcular automático
-        pedido.setDesconto(null);
-        pedido.setFrete(null);
+        for (ItemPedidoDTO itemDTO : itensDTO) {
+            ProdutoDTO produto = produtos.get(itemDTO.getProdutoId());
 
-        // Recalcula todos os valores
-        pedidoCalculoService.calcularValoresPedido(pedido);
-        pedido.setDataAtualizacao(LocalDateTime.now());
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            // Referência sem SELECT: o item só precisa da chave estrangeira
+            item.setProduto(produtoRepository.getReferenceById(produto.getId()));
+            item.setQuantidade(itemDTO.getQuantidade());
+            item.setValorUnitario(produto.getValor());
+            item.setValorTotal(produto.getValor().multiply(BigDecimal.valueOf(itemDTO.getQuantidade())));
 
-        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
-        return PedidoDTO.fromEntity(pedidoAtualizado);
+            pedido.getItens().add(item);
+        }
     }
 }
@@ -1,40 +1,72 @@
 package br.com.teste.demo.services.impl;
 
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.ProdutoDTO;
 import br.com.teste.demo.enums.StatusProduto;
 import br.com.teste.demo.exceptions.ResourceNotFoundException;
 import br.com.teste.demo.models.Produto;
 import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.repositories.projections.ChaveProduto;
+import br.com.teste.demo.repositories.projections.ProdutoRelevancia;
+import br.com.teste.demo.services.AutocompleteProdutos;
+import br.com.teste.demo.services.CatalogoProdutos;
+import br.com.teste.demo.services.IndiceBuscaProdutos;
+import br.com.teste.demo.services.IndiceBuscaProdutos.Campo;
+import br.com.teste.demo.services.IndiceBuscaProdutos.Resultado;
+import br.com.teste.demo.services.NormalizacaoTexto;
+import br.com.teste.demo.services.Paginacao;
+import br.com.teste.demo.services.ProdutoCache;
 import br.com.teste.demo.services.ProdutoService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ProdutoServiceImpl implements ProdutoService {
 
     private final ProdutoRepository produtoRepository;
-
-    public ProdutoServiceImpl(ProdutoRepository produtoRepository) {
+    private final ProdutoCache produtoCache;
+    private final CatalogoProdutos catalogoProdutos;
+    private final IndiceBuscaProdutos indiceBuscaProdutos;
+    private final AutocompleteProdutos autocompleteProdutos;
+
+    public ProdutoServiceImpl(ProdutoRepository produtoRepository, ProdutoCache produtoCache,
+                              CatalogoProdutos catalogoProdutos, IndiceBuscaProdutos indiceBuscaProdutos,
+                              AutocompleteProdutos autocompleteProdutos) {
         this.produtoRepository = produtoRepository;
+        this.produtoCache = produtoCache;
+        this.catalogoProdutos = catalogoProdutos;
+        this.indiceBuscaProdutos = indiceBuscaProdutos;
+        this.autocompleteProdutos = autocompleteProdutos;
     }
 
+    /**
+     * Só as chaves da página vêm do banco; os produtos saem do cache e os que faltam são carregados em uma consulta.
+     * Um produto removido entre as duas leituras fica fora da página.
+     */
     @Override
-    public List<ProdutoDTO> getAllProducts() {
-        return produtoRepository.findAll().stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
+    public PaginaDTO<ProdutoDTO> getAllProducts(String cursor, int limite) {
+        Paginacao.Cursor posicao = Paginacao.decodificar(cursor);
+        List<ChaveProduto> chaves = produtoRepository.findChavesPagina(posicao.dataCadastro(), posicao.id(),
+                Paginacao.limiteConsulta(limite));
+        Map<Long, ProdutoDTO> produtos = produtoCache.buscarTodos(chaves.stream().map(ChaveProduto::id).toList());
+        PaginaDTO<ProdutoDTO> pagina = Paginacao.montar(chaves, limite, ChaveProduto::dataCadastro, ChaveProduto::id,
+                chave -> produtos.get(chave.id()));
+        return new PaginaDTO<>(pagina.getItens().stream().filter(Objects::nonNull).toList(), pagina.getNext());
     }
 
     @Override
     public ProdutoDTO getProductById(Long id) {
-        Produto produto = produtoRepository.findById(id)
+        return produtoCache.buscar(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado com id: " + id));
-        return ProdutoDTO.fromEntity(produto);
     }
 
     @Override
@@ -50,7 +82,12 @@ public class ProdutoServiceImpl implements ProdutoService {
         produto.setDataAtualizacao(LocalDateTime.now());
 
         Produto produtoSalvo = produtoRepository.save(produto);
-        return ProdutoDTO.fromEntity(produtoSalvo);
+        produtoCache.invalidar(produtoSalvo.getId());
+        catalogoProdutos.invalidar();
+        ProdutoDTO produtoCriado = ProdutoDTO.fromEntity(produtoSalvo);
+        indiceBuscaProdutos.indexar(produtoCriado);
+        autocompleteProdutos.atualizar(produtoCriado);
+        return produtoCriado;
     }
 
     @Override
@@ -67,7 +104,12 @@ public class ProdutoServiceImpl implements ProdutoService {
         produto.setDataAtualizacao(LocalDateTime.now());
 
         Produto produtoAtualizado = produtoRepository.save(produto);
-        return ProdutoDTO.fromEntity(produtoAtualizado);
+        produtoCache.invalidar(id);
+        catalogoProdutos.invalidar();
+        ProdutoDTO produtoAtualizadoDTO = ProdutoDTO.fromEntity(produtoAtualizado);
+        indiceBuscaProdutos.indexar(produtoAtualizadoDTO);
+        autocompleteProdutos.atualizar(produtoAtualizadoDTO);
+        return produtoAtualizadoDTO;
     }
 
     @Override
@@ -77,41 +119,72 @@ public class ProdutoServiceImpl implements ProdutoService {
             throw new ResourceNotFoundException("Produto não encontrado com id: " + id);
         }
         produtoRepository.deleteById(id);
+        produtoCache.invalidar(id);
+        catalogoProdutos.invalidar();
+        indiceBuscaProdutos.remover(id);
+        autocompleteProdutos.remover(id);
     }
 
+    /**
+     * Com título, a página vem da busca por título no banco, em ordem de relevância e com o cursor (relevância, id);
+     * sem ele, do mais recente para o mais antigo
+     */
     @Override
-    public List<ProdutoDTO> findByTitulo(String titulo) {
-        return produtoRepository.findByTituloContainingIgnoreCase(titulo).stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
+    public PaginaDTO<ProdutoDTO> findPagina(String titulo, String categoria, BigDecimal valorMinimo,
+                                            BigDecimal valorMaximo, StatusProduto status, String cursor, int limite) {
+        if (titulo != null && !titulo.isBlank()) {
+            Paginacao.CursorRelevancia posicao = Paginacao.decodificarRelevancia(cursor);
+            List<ProdutoRelevancia> produtos = produtoRepository.findPaginaByTitulo(titulo, categoria, valorMinimo,
+                    valorMaximo, status, posicao.inicio() ? null : posicao.relevancia(), posicao.id(),
+                    Paginacao.limiteConsulta(limite));
+            return Paginacao.montarPorRelevancia(produtos, limite, ProdutoRelevancia::relevancia,
+                    encontrado -> encontrado.produto().getId(), encontrado -> ProdutoDTO.fromEntity(encontrado.produto()));
+        }
+        Paginacao.Cursor posicao = Paginacao.decodificar(cursor);
+        List<Produto> produtos = produtoRepository.findPaginaByFiltros(titulo, categoria, valorMinimo, valorMaximo, status,
+                posicao.dataCadastro(), posicao.id(), Paginacao.limiteConsulta(limite));
+        return Paginacao.montar(produtos, limite, Produto::getDataCadastro, Produto::getId, ProdutoDTO::fromEntity);
     }
 
+    /**
+     * Página de uma busca no índice de produtos, em ordem de relevância. Os produtos vêm do cache em blocos
+     * do tamanho da página; os que não existem mais ficam de fora até completar a página.
+     */
     @Override
-    public List<ProdutoDTO> findByCategoria(String categoria) {
-        return produtoRepository.findByCategoria(categoria).stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+    public PaginaDTO<ProdutoDTO> buscar(String consulta, String cursor, int limite) {
+        if (NormalizacaoTexto.tokens(consulta).isEmpty()) {
+            throw new IllegalArgumentException("A busca deve conter ao menos uma palavra");
+        }
 
-    @Override
-    public List<ProdutoDTO> findByStatus(StatusProduto status) {
-        return produtoRepository.findByStatus(status).stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
-    }
+        int tamanhoBloco = Paginacao.limiteConsulta(limite).max();
+        Paginacao.CursorRelevancia posicao = Paginacao.decodificarRelevancia(cursor);
+        List<Resultado> resultados = indiceBuscaProdutos.buscar(consulta, EnumSet.allOf(Campo.class));
 
-    @Override
-    public List<ProdutoDTO> findByValorRange(BigDecimal valorMinimo, BigDecimal valorMaximo) {
-        return produtoRepository.findByValorBetween(valorMinimo, valorMaximo).stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
+        int inicio = 0;
+        if (!posicao.inicio()) {
+            int indice = Collections.binarySearch(resultados, new Resultado(posicao.id(), posicao.relevancia()),
+                    IndiceBuscaProdutos.ORDEM);
+            inicio = indice >= 0 ? indice + 1 : -(indice + 1);
+        }
+
+        List<Encontrado> encontrados = new ArrayList<>();
+        for (int i = inicio; i < resultados.size() && encontrados.size() < tamanhoBloco; i += tamanhoBloco) {
+            List<Resultado> bloco = resultados.subList(i, Math.min(i + tamanhoBloco, resultados.size()));
+            Map<Long, ProdutoDTO> produtos = produtoCache.buscarTodos(bloco.stream().map(Resultado::id).toList());
+            for (Resultado resultado : bloco) {
+                ProdutoDTO produto = produtos.get(resultado.id());
+                if (produto != null) {
+                    encontrados.add(new Encontrado(resultado, produto));
+                    if (encontrados.size() == tamanhoBloco) {
+                        break;
+                    }
+                }
+            }
+        }
+        return Paginacao.montarPorRelevancia(encontrados, limite, encontrado -> encontrado.resultado().relevancia(),
+                encontrado -> encontrado.resultado().id(), Encontrado::produto);
     }
 
-    @Override
-    public List<ProdutoDTO> findByFiltros(String titulo, String categoria, BigDecimal valorMinimo,
-                                          BigDecimal valorMaximo, StatusProduto status) {
-        return produtoRepository.findByFiltros(titulo, categoria, valorMinimo, valorMaximo, status).stream()
-                .map(ProdutoDTO::fromEntity)
-                .collect(Collectors.toList());
+    private record Encontrado(Resultado resultado, ProdutoDTO produto) {
     }
 }
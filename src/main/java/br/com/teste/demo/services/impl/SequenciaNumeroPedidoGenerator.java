@@ -0,0 +1,124 @@
+package br.com.teste.demo.services.impl;
+
+import br.com.teste.demo.services.NumeroPedidoGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Números de pedido reservados em blocos da sequência SEQ_NUMERO_PEDIDO.
+ * Cada nextval reserva {@code pedido.numero.tamanho-bloco} números para o nó, que os distribui
+ * em memória com um incremento atômico; o banco só é consultado quando o bloco acaba.
+ * A sequência é criada na inicialização, fora de qualquer transação de pedido, começando em 1.000.000,
+ * acima dos números aleatórios de 6 dígitos usados anteriormente. Se ela já existir, o INCREMENT BY precisa
+ * ser igual ao tamanho do bloco, senão os nós distribuiriam faixas sobrepostas e a aplicação não sobe.
+ */
+@Service
+@ConditionalOnProperty(name = "pedido.numero.estrategia", havingValue = "sequencia", matchIfMissing = true)
+public class SequenciaNumeroPedidoGenerator implements NumeroPedidoGenerator {
+
+    public static final String SEQUENCIA = "SEQ_NUMERO_PEDIDO";
+
+    private static final long INICIO_SEQUENCIA = 1_000_000L;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int tamanhoBloco;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Bloco bloco = new Bloco(0, 0);
+    private volatile String consultaProximoValor;
+
+    public SequenciaNumeroPedidoGenerator(DataSource dataSource,
+                                          EntityManagerFactory entityManagerFactory,
+                                          @Value("${pedido.numero.tamanho-bloco:1000}") int tamanhoBloco) {
+        if (tamanhoBloco <= 0) {
+            throw new IllegalArgumentException("pedido.numero.tamanho-bloco deve ser maior que zero");
+        }
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @Override
+    public long proximoNumero() {
+        while (true) {
+            Bloco atual = bloco;
+            long numero = atual.proximo.getAndIncrement();
+            if (numero < atual.limite) {
+                return numero;
+            }
+
+            lock.lock();
+            try {
+                if (bloco == atual) {
+                    long inicio = reservarBloco(tamanhoBloco);
+                    bloco = new Bloco(inicio, inicio + tamanhoBloco);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Cria a sequência, se ainda não existir, e confere o INCREMENT BY da existente.
+     * Roda na inicialização, com a conexão em autocommit: o CREATE SEQUENCE não pode depender do commit
+     * de um pedido, porque no PostgreSQL o DDL é transacional e seria desfeito junto com o rollback.
+     */
+    @PostConstruct
+    public void criarSequencia() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCIA
+                + " START WITH " + INICIO_SEQUENCIA + " INCREMENT BY " + tamanhoBloco);
+
+        Long incremento = jdbcTemplate.query(
+                "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences"
+                        + " WHERE UPPER(sequence_name) = ? AND sequence_schema = CURRENT_SCHEMA",
+                resultado -> resultado.next() ? resultado.getLong(1) : null, SEQUENCIA);
+        if (incremento == null) {
+            throw new IllegalStateException("A sequência " + SEQUENCIA + " não foi encontrada no schema atual");
+        }
+        if (incremento != tamanhoBloco) {
+            throw new IllegalStateException("O INCREMENT BY de " + SEQUENCIA + " (" + incremento
+                    + ") difere de pedido.numero.tamanho-bloco (" + tamanhoBloco + ")");
+        }
+
+        consultaProximoValor = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(SEQUENCIA);
+    }
+
+    /**
+     * Reserva o bloco [inicio, inicio + tamanho) no banco e devolve o início.
+     * Chamado com o lock adquirido, no máximo uma vez por bloco. O nextval não é desfeito por rollback.
+     */
+    protected long reservarBloco(int tamanho) {
+        if (consultaProximoValor == null) {
+            throw new IllegalStateException("A sequência " + SEQUENCIA + " ainda não foi inicializada");
+        }
+        Long inicio = new JdbcTemplate(dataSource).queryForObject(consultaProximoValor, Long.class);
+        if (inicio == null) {
+            throw new IllegalStateException("A sequência " + SEQUENCIA + " não retornou valor");
+        }
+        return inicio;
+    }
+
+    private static final class Bloco {
+
+        private final AtomicLong proximo;
+        private final long limite;
+
+        private Bloco(long inicio, long limite) {
+            this.proximo = new AtomicLong(inicio);
+            this.limite = limite;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.teste.demo.services.impl;
+
+import br.com.teste.demo.services.NumeroPedidoGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Números de pedido no estilo Snowflake, crescentes no tempo e gerados sem acessar o banco:
+ * 41 bits de milissegundos desde 2025-01-01, 10 bits do nó ({@code pedido.numero.no}) e 12 bits de sequência.
+ * Cada nó gera até 4096 números por milissegundo; esgotada a sequência, aguarda o próximo milissegundo.
+ * Se o relógio voltar, continua a partir do último milissegundo usado em vez de repetir números.
+ * Cada instância da aplicação precisa de um id de nó diferente.
+ */
+@Service
+@ConditionalOnProperty(name = "pedido.numero.estrategia", havingValue = "snowflake")
+public class SnowflakeNumeroPedidoGenerator implements NumeroPedidoGenerator {
+
+    private static final long EPOCA = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int BITS_SEQUENCIA = 12;
+    private static final int BITS_NO = 10;
+    private static final long MAXIMO_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final long MAXIMO_NO = (1L << BITS_NO) - 1;
+
+    private final long no;
+
+    /** Último milissegundo usado e a sequência dentro dele, no mesmo long para atualizar com um único CAS */
+    private final AtomicLong estado = new AtomicLong();
+
+    public SnowflakeNumeroPedidoGenerator(@Value("${pedido.numero.no:0}") long no) {
+        if (no < 0 || no > MAXIMO_NO) {
+            throw new IllegalArgumentException("pedido.numero.no deve estar entre 0 e " + MAXIMO_NO);
+        }
+        this.no = no;
+    }
+
+    @Override
+    public long proximoNumero() {
+        while (true) {
+            long atual = estado.get();
+            long ultimoMilissegundo = atual >>> BITS_SEQUENCIA;
+            long agora = System.currentTimeMillis() - EPOCA;
+
+            long novo;
+            if (agora > ultimoMilissegundo) {
+                novo = agora << BITS_SEQUENCIA;
+            } else if ((atual & MAXIMO_SEQUENCIA) < MAXIMO_SEQUENCIA) {
+                novo = atual + 1;
+            } else {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            if (estado.compareAndSet(atual, novo)) {
+                return ((novo >>> BITS_SEQUENCIA) << (BITS_NO + BITS_SEQUENCIA))
+                        | (no << BITS_SEQUENCIA)
+                        | (novo & MAXIMO_SEQUENCIA);
+            }
+        }
+    }
+}
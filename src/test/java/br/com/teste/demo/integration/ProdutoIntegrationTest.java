@@ -98,7 +98,7 @@ class ProdutoIntegrationTest {
         // Verificar se foi deletado
         mockMvc.perform(get("/produtos/" + produtoId)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().is5xxServerError());
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -130,8 +130,8 @@ class ProdutoIntegrationTest {
                         .param("categoria", "Informática")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].titulo").value("Notebook Dell"));
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Notebook Dell"));
 
         // Buscar por faixa de valor
         mockMvc.perform(get("/produtos/por-valor")
@@ -139,16 +139,16 @@ class ProdutoIntegrationTest {
                         .param("valorMaximo", "500")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].titulo").value("Mouse Gamer"));
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Mouse Gamer"));
 
         // Buscar por título
         mockMvc.perform(get("/produtos/por-titulo")
                         .param("titulo", "note")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].titulo").value("Notebook Dell"));
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Notebook Dell"));
     }
 
     @Test
@@ -182,14 +182,14 @@ class ProdutoIntegrationTest {
         mockMvc.perform(get("/produtos")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(3)));
+                .andExpect(jsonPath("$.itens", hasSize(3)));
 
         // Buscar por status
         mockMvc.perform(get("/produtos/por-status")
                         .param("status", "ATIVO")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$.itens", hasSize(2)));
     }
 
     @Test
@@ -0,0 +1,90 @@
+package br.com.teste.demo.performance;
+
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.services.PedidoCalculoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o cálculo dos valores do pedido em BigDecimal com o cálculo em long do PedidoCalculoService.
+ * Não roda com os testes; execute o main depois de {@code mvn test-compile}
+ * (ou adicione {@code -prof gc} para ver a alocação por operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PedidoCalculoBenchmark {
+
+    private static final int PEDIDOS = 1024;
+
+    private final PedidoCalculoService pedidoCalculoService = new PedidoCalculoService();
+
+    private Pedido[] pedidos;
+    private int proximo;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        pedidos = new Pedido[PEDIDOS];
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = new Pedido();
+            int quantidadeItens = 1 + random.nextInt(5);
+            for (int j = 0; j < quantidadeItens; j++) {
+                BigDecimal valorUnitario = BigDecimal.valueOf(100 + random.nextInt(40_000), 2);
+                int quantidade = 1 + random.nextInt(3);
+                pedido.getItens().add(new ItemPedido(null, pedido, null, quantidade, valorUnitario,
+                        valorUnitario.multiply(BigDecimal.valueOf(quantidade))));
+            }
+            pedidos[i] = pedido;
+        }
+    }
+
+    @Benchmark
+    public Pedido decimal() {
+        Pedido pedido = proximoPedido();
+        pedidoCalculoService.calcularValoresPedidoDecimal(pedido);
+        return pedido;
+    }
+
+    @Benchmark
+    public Pedido emUnidades() {
+        Pedido pedido = proximoPedido();
+        pedidoCalculoService.calcularValoresPedido(pedido);
+        return pedido;
+    }
+
+    /**
+     * Volta desconto e frete ao estado de pedido novo, para que as regras sejam aplicadas em toda chamada
+     */
+    private Pedido proximoPedido() {
+        Pedido pedido = pedidos[proximo++ & (PEDIDOS - 1)];
+        pedido.setDesconto(BigDecimal.ZERO);
+        pedido.setFrete(null);
+        return pedido;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PedidoCalculoBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
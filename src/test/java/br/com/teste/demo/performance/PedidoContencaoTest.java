@@ -0,0 +1,179 @@
+package br.com.teste.demo.performance;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.services.PedidoCalculoService;
+import br.com.teste.demo.services.PedidoService;
+import br.com.teste.demo.services.ProdutoCache;
+import br.com.teste.demo.services.RetentativaConcorrencia;
+import br.com.teste.demo.services.VendaDiariaService;
+import br.com.teste.demo.services.impl.PedidoServiceImpl;
+import br.com.teste.demo.services.impl.SequenciaNumeroPedidoGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Contenção em pedidos: 64 threads disputam, ao mesmo tempo, as transições de status de cada pedido.
+ * Sem @Version as transições que leram o mesmo estado se sobrescrevem e VENDA_DIARIA diverge;
+ * com ela cada transição confirmada incrementa a versão exatamente uma vez, as que perderam a disputa
+ * revalidam a transição sobre o estado novo e os totais continuam batendo.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PedidoServiceImpl.class, PedidoCalculoService.class, VendaDiariaService.class,
+        SequenciaNumeroPedidoGenerator.class, RetentativaConcorrencia.class, ProdutoCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Teste de contenção de pedidos")
+class PedidoContencaoTest {
+
+    private static final int THREADS = 64;
+    private static final int PEDIDOS = 10;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @AfterEach
+    void limparBanco() {
+        vendaDiariaRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Teste de contenção - 64 threads alterando o status dos mesmos pedidos")
+    void testeContencaoEmUmPedido() throws Exception {
+        List<Long> pedidoIds = new ArrayList<>();
+        long versoesIniciais = 0;
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = salvarPedido(i + 1L);
+            vendaDiariaService.registrar(pedido);
+            versoesIniciais += pedido.getVersao();
+            pedidoIds.add(pedido.getId());
+        }
+
+        StatusPedido[] destinos = {StatusPedido.PAGO, StatusPedido.CANCELADO};
+        AtomicLong confirmadas = new AtomicLong();
+        AtomicLong recusadas = new AtomicLong();
+        AtomicLong conflitos = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < PEDIDOS; i++) {
+                    try {
+                        pedidoService.updateOrderStatus(pedidoIds.get(i), destinos[(thread + i) % destinos.length]);
+                        confirmadas.incrementAndGet();
+                    } catch (BusinessException e) {
+                        recusadas.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        conflitos.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long tempoMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        executor.shutdown();
+
+        System.out.println("=== Resultados do Teste de Contenção ===");
+        System.out.println("Threads: " + THREADS + ", pedidos: " + PEDIDOS);
+        System.out.println("Transições confirmadas: " + confirmadas.get());
+        System.out.println("Transições recusadas pelo status atual: " + recusadas.get());
+        System.out.println("Conflitos após todas as tentativas: " + conflitos.get());
+        System.out.println("Tempo total: " + tempoMs + "ms");
+
+        // Nenhuma atualização perdida: uma versão por transição confirmada, no máximo PAGO e depois CANCELADO
+        List<Pedido> atualizados = pedidoRepository.findAllById(pedidoIds);
+        assertThat(atualizados.stream().mapToLong(Pedido::getVersao).sum() - versoesIniciais)
+                .isEqualTo(confirmadas.get());
+        assertThat(confirmadas.get()).isBetween((long) PEDIDOS, 2L * PEDIDOS);
+        assertThat(confirmadas.get() + recusadas.get() + conflitos.get()).isEqualTo((long) THREADS * PEDIDOS);
+        assertThat(atualizados).extracting(Pedido::getStatusPedido).doesNotContain(StatusPedido.PENDENTE_PAGAMENTO);
+
+        // VENDA_DIARIA tem cada pedido uma única vez, no status em que ele terminou
+        Map<StatusPedido, Long> porStatus = atualizados.stream()
+                .collect(Collectors.groupingBy(Pedido::getStatusPedido, Collectors.counting()));
+        for (StatusPedido status : StatusPedido.values()) {
+            long esperado = porStatus.getOrDefault(status, 0L);
+            assertThat(vendaDiariaRepository.findAll())
+                    .filteredOn(venda -> venda.getStatusPedido() == status)
+                    .allSatisfy(venda -> {
+                        assertThat(venda.getQuantidadePedidos()).isEqualTo(esperado);
+                        assertThat(venda.getValorTotal())
+                                .isEqualByComparingTo(new BigDecimal("250.00").multiply(BigDecimal.valueOf(esperado)));
+                    });
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar transições de status não permitidas sem alterar o pedido")
+    void deveRecusarTransicaoNaoPermitida() {
+        Pedido pedido = salvarPedido(1L);
+        vendaDiariaService.registrar(pedido);
+        Long pedidoId = pedido.getId();
+
+        pedidoService.updateOrderStatus(pedidoId, StatusPedido.CANCELADO);
+
+        assertThatThrownBy(() -> pedidoService.updateOrderStatus(pedidoId, StatusPedido.PAGO))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Status CANCELADO não pode ser alterado para PAGO");
+        assertThatThrownBy(() -> pedidoService.updateOrderStatus(pedidoId, StatusPedido.CANCELADO))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Pedido já está com o status CANCELADO");
+        assertThat(pedidoRepository.findById(pedidoId).orElseThrow().getVersao()).isEqualTo(pedido.getVersao() + 1);
+    }
+
+    private Pedido salvarPedido(long numero) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(numero);
+        pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
+        pedido.setSubtotal(new BigDecimal("250.00"));
+        pedido.setValorTotal(new BigDecimal("250.00"));
+        pedido.setDataCadastro(LocalDateTime.now());
+        return pedidoRepository.save(pedido);
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.teste.demo.performance;
+
+import br.com.teste.demo.dtos.EstatisticasCacheDTO;
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.services.AutocompleteProdutos;
+import br.com.teste.demo.services.CatalogoProdutos;
+import br.com.teste.demo.services.IndiceBuscaProdutos;
+import br.com.teste.demo.services.ProdutoCache;
+import br.com.teste.demo.services.ProdutoService;
+import br.com.teste.demo.services.impl.ProdutoServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara GET /produtos/{id} indo ao banco a cada chamada com o mesmo acesso pelo cache de produtos já aquecido
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoServiceImpl.class, ProdutoCache.class, CatalogoProdutos.class, IndiceBuscaProdutos.class,
+        AutocompleteProdutos.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Teste de desempenho do cache de produtos")
+class ProdutoCacheTest {
+
+    private static final int PRODUTOS = 200;
+    private static final int LEITURAS = 5_000;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoCache produtoCache;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @AfterEach
+    void limparBanco() {
+        produtoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Teste de throughput - busca por id com e sem cache")
+    void testeThroughputBuscaPorId() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            Produto produto = new Produto();
+            produto.setTitulo("Produto " + i);
+            produto.setValor(BigDecimal.valueOf(1_000 + i, 2));
+            produto.setStatus(StatusProduto.ATIVO);
+            produto.setDataCadastro(LocalDateTime.now());
+            ids.add(produtoRepository.save(produto).getId());
+        }
+
+        Random random = new Random(42);
+        long[] sequencia = new long[LEITURAS];
+        for (int i = 0; i < LEITURAS; i++) {
+            sequencia[i] = ids.get(random.nextInt(PRODUTOS));
+        }
+
+        // Sem cache: consulta e mapeamento a cada chamada, como antes
+        long inicio = System.nanoTime();
+        for (long id : sequencia) {
+            assertThat(ProdutoDTO.fromEntity(produtoRepository.findById(id).orElseThrow())).isNotNull();
+        }
+        long tempoBancoNs = System.nanoTime() - inicio;
+
+        produtoService.getAllProducts(null, PRODUTOS);
+        EstatisticasCacheDTO aquecido = produtoCache.estatisticas();
+
+        inicio = System.nanoTime();
+        for (long id : sequencia) {
+            assertThat(produtoService.getProductById(id)).isNotNull();
+        }
+        long tempoCacheNs = System.nanoTime() - inicio;
+        EstatisticasCacheDTO estatisticas = produtoCache.estatisticas();
+
+        double throughputBanco = LEITURAS * 1e9 / tempoBancoNs;
+        double throughputCache = LEITURAS * 1e9 / tempoCacheNs;
+        System.out.println("=== Resultados do Teste de Cache de Produtos ===");
+        System.out.println("Produtos: " + PRODUTOS + ", leituras: " + LEITURAS);
+        System.out.println("Sem cache: " + (tempoBancoNs / 1_000_000) + "ms, " + throughputBanco + " leituras/s");
+        System.out.println("Cache aquecido: " + (tempoCacheNs / 1_000_000) + "ms, " + throughputCache + " leituras/s");
+        System.out.println("Ganho: " + (throughputCache / throughputBanco) + "x");
+        System.out.println("Acertos: " + estatisticas.getAcertos() + ", falhas: " + estatisticas.getFalhas()
+                + ", taxa de acerto: " + estatisticas.getTaxaAcerto());
+
+        // Com o cache aquecido por getAllProducts nenhuma leitura volta ao banco
+        assertThat(aquecido.getTamanho()).isEqualTo(PRODUTOS);
+        assertThat(estatisticas.getAcertos() - aquecido.getAcertos()).isEqualTo(LEITURAS);
+        assertThat(estatisticas.getFalhas()).isEqualTo(aquecido.getFalhas());
+        assertThat(throughputCache).isGreaterThan(throughputBanco);
+    }
+}
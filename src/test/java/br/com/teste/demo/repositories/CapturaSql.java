@@ -0,0 +1,35 @@
+package br.com.teste.demo.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda o SQL gerado pelo Hibernate nos testes que o registram em hibernate.session_factory.statement_inspector
+ */
+public class CapturaSql implements StatementInspector {
+
+    public static final String PROPRIEDADE = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "br.com.teste.demo.repositories.CapturaSql";
+
+    private static final List<String> CONSULTAS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        CONSULTAS.add(sql);
+        return sql;
+    }
+
+    public static void limpar() {
+        CONSULTAS.clear();
+    }
+
+    /** A única consulta executada desde a última limpeza */
+    public static String unica() {
+        if (CONSULTAS.size() != 1) {
+            throw new IllegalStateException("Esperada uma consulta, executadas: " + CONSULTAS);
+        }
+        return CONSULTAS.get(0).toLowerCase();
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.projections.ChavePedido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = CapturaSql.PROPRIEDADE)
+@ActiveProfiles("test")
+@DisplayName("Testes dos filtros dinâmicos de Produto, Pedido e Pagamento")
+class FiltrosDinamicosTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Pedido> pedidos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 6; i++) {
+            Produto produto = new Produto();
+            produto.setTitulo("Produto " + i);
+            produto.setCategoria(i % 2 == 0 ? "Informática" : "Acessórios");
+            produto.setValor(BigDecimal.valueOf(100L * (i + 1)));
+            produto.setStatus(StatusProduto.ATIVO);
+            produto.setDataCadastro(DATA);
+            entityManager.persist(produto);
+        }
+
+        // Todos com a mesma dataCadastro, para o cursor depender do desempate por id
+        for (int i = 0; i < 9; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setNumero((long) i);
+            pedido.setStatusPedido(i % 3 == 0 ? StatusPedido.CANCELADO : StatusPedido.PAGO);
+            pedido.setSubtotal(BigDecimal.valueOf(10L * (i + 1)));
+            pedido.setValorTotal(pedido.getSubtotal());
+            pedido.setDataCadastro(DATA);
+            pedidos.add(entityManager.persist(pedido));
+
+            Pagamento pagamento = new Pagamento();
+            pagamento.setPedido(pedido);
+            pagamento.setFormaPagamento(i % 2 == 0 ? FormaPagamento.PIX : FormaPagamento.BOLETO);
+            pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+            pagamento.setValor(pedido.getValorTotal());
+            pagamento.setDataPagamento(DATA.plusDays(i));
+            pagamento.setDataCadastro(DATA);
+            entityManager.persist(pagamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturaSql.limpar();
+    }
+
+    @Test
+    @DisplayName("Deve gerar só os predicados dos filtros informados")
+    void deveGerarSoPredicadosInformados() {
+        assertThat(produtoRepository.findByFiltros(null, null, null, null, null)).hasSize(6);
+        assertThat(CapturaSql.unica()).doesNotContain(" where ");
+
+        CapturaSql.limpar();
+        assertThat(produtoRepository.findByFiltros(null, "Informática", null, new BigDecimal("300"), null))
+                .extracting(Produto::getTitulo).containsExactlyInAnyOrder("Produto 0", "Produto 2");
+        assertThat(where(CapturaSql.unica())).contains("categoria", "valor").doesNotContain("titulo", "status");
+
+        CapturaSql.limpar();
+        pedidoRepository.findPaginaByFiltros(StatusPedido.PAGO, null, null, null, null, null, null, Limit.of(5));
+        assertThat(where(CapturaSql.unica())).contains("status").doesNotContain("valor_total", "data_cadastro");
+
+        CapturaSql.limpar();
+        pagamentoRepository.findByFiltros(null, null, DATA.plusDays(3), null);
+        assertThat(where(CapturaSql.unica())).contains("data_pagamento").doesNotContain("forma_pagamento", "status");
+
+        CapturaSql.limpar();
+        assertThat(pedidoRepository.countByFiltros(null, null, null, null, null)).isEqualTo(9);
+        assertThat(CapturaSql.unica()).doesNotContain(" where ");
+    }
+
+    @Test
+    @DisplayName("Deve paginar pelo cursor com dataCadastro repetida e filtros combinados")
+    void devePaginarPeloCursorComFiltros() {
+        List<Long> esperados = pedidos.stream()
+                .filter(pedido -> pedido.getStatusPedido() == StatusPedido.PAGO
+                        && pedido.getValorTotal().compareTo(new BigDecimal("20")) >= 0)
+                .map(Pedido::getId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        List<Long> paginados = new ArrayList<>();
+        List<Long> chaves = new ArrayList<>();
+        LocalDateTime cursorData = null;
+        Long cursorId = null;
+        do {
+            List<Pedido> pagina = pedidoRepository.findPaginaByFiltros(StatusPedido.PAGO, null, null,
+                    new BigDecimal("20"), null, cursorData, cursorId, Limit.of(2));
+            List<ChavePedido> paginaChaves = pedidoRepository.findChavesByFiltros(StatusPedido.PAGO, null, null,
+                    new BigDecimal("20"), null, cursorData, cursorId, Limit.of(2));
+            pagina.forEach(pedido -> paginados.add(pedido.getId()));
+            paginaChaves.forEach(chave -> chaves.add(chave.id()));
+            if (pagina.isEmpty()) {
+                break;
+            }
+            cursorData = pagina.get(pagina.size() - 1).getDataCadastro();
+            cursorId = pagina.get(pagina.size() - 1).getId();
+        } while (true);
+
+        assertThat(paginados).isEqualTo(esperados).hasSize(6);
+        assertThat(chaves).isEqualTo(esperados);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer os pagamentos filtrados com o pedido já carregado")
+    void devePercorrerPagamentosFiltrados() {
+        try (Stream<Pagamento> pagamentos = pagamentoRepository.streamByFiltros(FormaPagamento.PIX, null,
+                DATA.plusDays(2), DATA.plusDays(6))) {
+            assertThat(pagamentos.map(pagamento -> pagamento.getPedido().getNumero()).toList())
+                    .containsExactly(2L, 4L, 6L);
+        }
+        assertThat(where(CapturaSql.unica())).contains("forma_pagamento", "data_pagamento")
+                .doesNotContain("status_pagamento");
+    }
+
+    /** Cláusula WHERE do SQL, que não deve ter os antigos testes de parâmetro nulo */
+    private static String where(String sql) {
+        int inicio = sql.indexOf(" where ");
+        assertThat(inicio).isPositive();
+        int fim = sql.indexOf(" order by ", inicio);
+        String where = sql.substring(inicio, fim < 0 ? sql.length() : fim);
+        assertThat(where).doesNotContain("is null");
+        return where;
+    }
+}
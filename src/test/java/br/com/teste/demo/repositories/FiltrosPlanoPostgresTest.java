@@ -0,0 +1,144 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.config.BuscaProdutoConfig;
+import br.com.teste.demo.enums.StatusPedido;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere no PostgreSQL o plano genérico, o que o banco reaproveita para todas as execuções de um mesmo SQL,
+ * das consultas por filtros. Com só os predicados informados no SQL, cada combinação usa o índice das
+ * colunas filtradas; o antigo {@code (? IS NULL OR coluna = ?)} só tinha a varredura completa como plano genérico.
+ * As tabelas recebem volume suficiente e estatísticas (ANALYZE) para que o planejador escolha o plano pelo custo,
+ * com todas as estratégias disponíveis, como faria em produção.
+ */
+@DataJpaTest(properties = CapturaSql.PROPRIEDADE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(BuscaProdutoConfig.class)
+@DisplayName("Testes dos planos das consultas por filtros no PostgreSQL")
+class FiltrosPlanoPostgresTest {
+
+    private static final int LINHAS = 100_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void configurarBanco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Popula as tabelas fora da transação dos testes, uma vez por classe: 50 categorias de produto, os status
+     * de pedido e pagamento distribuídos por igual e datas espalhadas por alguns meses
+     */
+    @BeforeAll
+    static void popular(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO PRODUTO (ID, TITULO, DESCRICAO, VALOR, STATUS, CATEGORIA, DATA_CADASTRO, "
+                + "DATA_ATUALIZACAO) SELECT g, 'Produto ' || g, 'Descrição ' || g, 10 + g % 1000, 1 + g % 5, "
+                + "'Categoria ' || g % 50, LOCALTIMESTAMP - g * INTERVAL '1 minute', LOCALTIMESTAMP "
+                + "FROM generate_series(1, ?) g", LINHAS);
+        jdbcTemplate.update("INSERT INTO PEDIDO (ID, NUMERO, STATUS, SUBTOTAL, DESCONTO, FRETE, VALOR_TOTAL, "
+                + "DATA_CADASTRO, DATA_ATUALIZACAO, VERSAO) SELECT g, g, 1 + g % 3, 100, 0, 0, 100, "
+                + "LOCALTIMESTAMP - g * INTERVAL '1 minute', LOCALTIMESTAMP, 0 FROM generate_series(1, ?) g", LINHAS);
+        jdbcTemplate.update("INSERT INTO PAGAMENTO (ID, PEDIDO_ID, FORMA_PAGAMENTO, STATUS_PAGAMENTO, VALOR, "
+                + "NUMERO_PARCELAS, DATA_PAGAMENTO, DATA_CADASTRO, DATA_ATUALIZACAO, VERSAO) "
+                + "SELECT g, g, 1 + g % 5, 1 + g % 6, 100, 1, LOCALTIMESTAMP - g * INTERVAL '1 minute', "
+                + "LOCALTIMESTAMP - g * INTERVAL '1 minute', LOCALTIMESTAMP, 0 FROM generate_series(1, ?) g", LINHAS);
+        jdbcTemplate.execute("ANALYZE PRODUTO, PEDIDO, PAGAMENTO");
+    }
+
+    @BeforeEach
+    void setUp() {
+        CapturaSql.limpar();
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de status e cursor na página de pedidos por status")
+    void deveUsarIndiceStatusNaPaginaDePedidos() {
+        pedidoRepository.findPaginaByFiltros(StatusPedido.PAGO, null, null, null, null,
+                LocalDateTime.now(), 100L, Limit.of(50));
+
+        assertThat(planoGenerico(CapturaSql.unica())).contains("idx_pedido_status_cursor").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice do cursor na página de pedidos sem filtros")
+    void deveUsarIndiceCursorNaPaginaDePedidos() {
+        pedidoRepository.findPaginaByFiltros(null, null, null, null, null, null, null, Limit.of(50));
+
+        assertThat(planoGenerico(CapturaSql.unica())).contains("idx_pedido_cursor").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de categoria e cursor na página de produtos por categoria")
+    void deveUsarIndiceCategoriaNaPaginaDeProdutos() {
+        produtoRepository.findPaginaByFiltros(null, "Informática", null, null, null, null, null, Limit.of(50));
+
+        assertThat(planoGenerico(CapturaSql.unica())).contains("idx_produto_categoria_cursor")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de trigramas na busca de produtos por trecho do título")
+    void deveUsarIndiceTrigramaNaBuscaPorTitulo() {
+        produtoRepository.findPaginaByTitulo("duto 4242", null, null, null, null, null, null, Limit.of(50));
+
+        assertThat(planoGenerico(CapturaSql.unica())).contains("idx_produto_titulo_trgm").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("Deve usar o índice de data de pagamento nos pagamentos do período")
+    void deveUsarIndiceDataPagamento() {
+        LocalDateTime agora = LocalDateTime.now();
+        pagamentoRepository.findByFiltros(null, null, agora.minusDays(7), agora);
+
+        assertThat(planoGenerico(CapturaSql.unica())).contains("idx_pagamento_data_pagamento")
+                .doesNotContain("Seq Scan");
+    }
+
+    /**
+     * EXPLAIN (GENERIC_PLAN) do SQL capturado, com os parâmetros JDBC trocados pelos $1, $2... do PostgreSQL
+     */
+    private String planoGenerico(String sql) {
+        StringBuilder numerado = new StringBuilder();
+        int parametro = 0;
+        for (char c : sql.toCharArray()) {
+            numerado.append(c == '?' ? "$" + ++parametro : String.valueOf(c));
+        }
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numerado, String.class));
+    }
+}
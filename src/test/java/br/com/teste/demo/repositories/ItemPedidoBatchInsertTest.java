@@ -0,0 +1,147 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere no PostgreSQL que os itens de um pedido saem em um único lote JDBC.
+ * Usa a configuração de application.properties (ids por sequência e hibernate.jdbc.batch_size)
+ * e conta as execuções dos INSERTs de ITEM_PEDIDO por um proxy sobre o DataSource.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ItemPedidoBatchInsertTest.ContadorJdbcConfig.class)
+@DisplayName("Testes de INSERT em lote de ItemPedido no PostgreSQL")
+class ItemPedidoBatchInsertTest {
+
+    private static final int ITENS = 20;
+
+    private static final AtomicInteger LOTES = new AtomicInteger();
+    private static final AtomicInteger INSERTS_AVULSOS = new AtomicInteger();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void configurarBanco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Test
+    @DisplayName("Deve inserir todos os itens do pedido em um único lote")
+    void deveInserirItensEmUmLote() {
+        Produto produto = new Produto();
+        produto.setTitulo("Notebook Dell");
+        produto.setValor(new BigDecimal("100.00"));
+        produto.setStatus(StatusProduto.ATIVO);
+        produto.setDataCadastro(LocalDateTime.now());
+        produtoRepository.saveAndFlush(produto);
+
+        Pedido pedido = new Pedido();
+        pedido.setNumero(1L);
+        pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
+        pedido.setDataCadastro(LocalDateTime.now());
+        for (int i = 0; i < ITENS; i++) {
+            pedido.getItens().add(new ItemPedido(null, pedido, produto, 1, produto.getValor(), produto.getValor()));
+        }
+        pedido.setSubtotal(produto.getValor().multiply(BigDecimal.valueOf(ITENS)));
+        pedido.setValorTotal(pedido.getSubtotal());
+
+        LOTES.set(0);
+        INSERTS_AVULSOS.set(0);
+        pedidoRepository.saveAndFlush(pedido);
+
+        assertThat(LOTES).hasValue(1);
+        assertThat(INSERTS_AVULSOS).hasValue(0);
+        assertThat(pedido.getItens()).allSatisfy(item -> assertThat(item.getId()).isNotNull());
+    }
+
+    @TestConfiguration
+    static class ContadorJdbcConfig {
+
+        @Bean
+        static BeanPostProcessor contadorInsertsItemPedido() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        private static <T> T proxy(Class<T> tipo, T alvo) {
+            return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (instancia, metodo, args) -> {
+                Object resultado;
+                try {
+                    resultado = metodo.invoke(alvo, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+
+                if (resultado instanceof Connection conexao) {
+                    return proxy(Connection.class, conexao);
+                }
+                if (resultado instanceof PreparedStatement statement && metodo.getName().equals("prepareStatement")
+                        && ((String) args[0]).toLowerCase().startsWith("insert into item_pedido")) {
+                    return contarExecucoes(statement);
+                }
+                return resultado;
+            }));
+        }
+
+        private static PreparedStatement contarExecucoes(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (instancia, metodo, args) -> {
+                        switch (metodo.getName()) {
+                            case "executeBatch", "executeLargeBatch" -> LOTES.incrementAndGet();
+                            case "execute", "executeUpdate", "executeLargeUpdate" -> INSERTS_AVULSOS.incrementAndGet();
+                            default -> {
+                            }
+                        }
+                        try {
+                            return metodo.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.projections.TotalPorFormaPagamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Testes do PagamentoRepository")
+class PagamentoRepositoryTest {
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private final LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime fim = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    private Pedido pedido;
+
+    @BeforeEach
+    void setUp() {
+        pagamentoRepository.deleteAll();
+        pedidoRepository.deleteAll();
+
+        pedido = new Pedido();
+        pedido.setNumero(1L);
+        pedido.setStatusPedido(StatusPedido.PAGO);
+        pedido.setSubtotal(new BigDecimal("300.00"));
+        pedido.setValorTotal(new BigDecimal("300.00"));
+        pedido.setDataCadastro(inicio);
+        pedidoRepository.save(pedido);
+
+        salvarPagamento(FormaPagamento.PIX, new BigDecimal("100.00"), inicio.plusDays(1));
+        salvarPagamento(FormaPagamento.PIX, new BigDecimal("50.00"), inicio.plusDays(2));
+        salvarPagamento(FormaPagamento.BOLETO, new BigDecimal("150.00"), inicio.plusDays(3));
+        salvarPagamento(FormaPagamento.BOLETO, new BigDecimal("999.00"), fim.plusDays(1));
+    }
+
+    private void salvarPagamento(FormaPagamento formaPagamento, BigDecimal valor, LocalDateTime dataPagamento) {
+        Pagamento pagamento = new Pagamento();
+        pagamento.setPedido(pedido);
+        pagamento.setFormaPagamento(formaPagamento);
+        pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+        pagamento.setValor(valor);
+        pagamento.setDataPagamento(dataPagamento);
+        pagamento.setDataCadastro(dataPagamento);
+        pagamentoRepository.save(pagamento);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar quantidade e valor por forma de pagamento no período")
+    void deveAgruparTotaisPorFormaPagamento() {
+        List<TotalPorFormaPagamento> totais = pagamentoRepository.totaisPorFormaPagamentoByPeriodo(inicio, fim);
+
+        assertThat(totais).hasSize(2);
+        assertThat(totais)
+                .filteredOn(total -> total.formaPagamento() == FormaPagamento.PIX)
+                .singleElement()
+                .satisfies(total -> {
+                    assertThat(total.quantidade()).isEqualTo(2L);
+                    assertThat(total.valorTotal()).isEqualByComparingTo("150.00");
+                });
+        assertThat(totais)
+                .filteredOn(total -> total.formaPagamento() == FormaPagamento.BOLETO)
+                .singleElement()
+                .satisfies(total -> assertThat(total.quantidade()).isEqualTo(1L));
+    }
+}
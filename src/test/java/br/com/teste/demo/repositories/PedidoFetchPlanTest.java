@@ -0,0 +1,131 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@DisplayName("Testes dos planos de carga de Pedido")
+class PedidoFetchPlanTest {
+
+    private static final int PEDIDOS = 1_000;
+    private static final int PRODUTOS = 20;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            Produto produto = new Produto();
+            produto.setTitulo("Produto " + i);
+            produto.setValor(new BigDecimal("10.00"));
+            produto.setStatus(StatusProduto.ATIVO);
+            produto.setDataCadastro(LocalDateTime.now());
+            produtos.add(entityManager.persist(produto));
+        }
+
+        LocalDateTime data = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < PEDIDOS; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setNumero((long) i);
+            pedido.setStatusPedido(StatusPedido.PAGO);
+            pedido.setSubtotal(new BigDecimal("20.00"));
+            pedido.setValorTotal(new BigDecimal("20.00"));
+            pedido.setDataCadastro(data.plusMinutes(i));
+            for (int j = 0; j < 2; j++) {
+                Produto produto = produtos.get((i + j) % PRODUTOS);
+                pedido.getItens().add(new ItemPedido(null, pedido, produto, 1, produto.getValor(), produto.getValor()));
+            }
+            entityManager.persist(pedido);
+
+            Pagamento pagamento = new Pagamento();
+            pagamento.setPedido(pedido);
+            pagamento.setFormaPagamento(FormaPagamento.PIX);
+            pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+            pagamento.setValor(pedido.getValorTotal());
+            entityManager.persist(pagamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private long quantidadeItensComProduto(List<Pedido> pedidos) {
+        return pedidos.stream()
+                .flatMap(pedido -> pedido.getItens().stream())
+                .filter(item -> item.getProduto().getTitulo() != null)
+                .count();
+    }
+
+    @Test
+    @DisplayName("Deve listar pedidos com itens e produtos em uma única consulta")
+    void deveListarPedidosComItensEmUmaConsulta() {
+        List<Pedido> pedidos = pedidoRepository.findByFiltros(null, null, null, null, null);
+
+        assertThat(pedidos).hasSize(PEDIDOS);
+        assertThat(quantidadeItensComProduto(pedidos)).isEqualTo(2L * PEDIDOS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve paginar o resumo e carregar os itens da página em duas consultas")
+    void devePaginarResumoECarregarItensEmDuasConsultas() {
+        List<Pedido> pagina = pedidoRepository.findPaginaByFiltros(null, null, null, null, null,
+                null, null, Limit.of(PEDIDOS));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        pedidoRepository.findComItensByIdIn(pagina.stream().map(Pedido::getId).toList());
+
+        assertThat(quantidadeItensComProduto(pagina)).isEqualTo(2L * PEDIDOS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Não deve carregar o pedido de cada pagamento listado")
+    void naoDeveCarregarPedidoDosPagamentos() {
+        List<Pagamento> pagamentos = pagamentoRepository.findByStatusPagamento(StatusPagamento.APROVADO);
+
+        assertThat(pagamentos).hasSize(PEDIDOS)
+                .allSatisfy(pagamento -> assertThat(pagamento.getPedido().getId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
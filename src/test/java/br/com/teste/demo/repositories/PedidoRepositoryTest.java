@@ -0,0 +1,196 @@
+package br.com.teste.demo.repositories;
+
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.projections.ProdutoMaisVendido;
+import br.com.teste.demo.repositories.projections.ResumoPedido;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Testes do PedidoRepository")
+class PedidoRepositoryTest {
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ItemPedidoRepository itemPedidoRepository;
+
+    private final LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime fim = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        produtoRepository.deleteAll();
+
+        produto = new Produto();
+        produto.setTitulo("Notebook Dell");
+        produto.setValor(new BigDecimal("100.00"));
+        produto.setCategoria("Informática");
+        produto.setStatus(StatusProduto.ATIVO);
+        produto.setDataCadastro(LocalDateTime.now());
+        produtoRepository.save(produto);
+
+        salvarPedido(StatusPedido.PAGO, inicio.plusDays(1), 2, new BigDecimal("10.00"), new BigDecimal("30.00"));
+        salvarPedido(StatusPedido.PENDENTE_PAGAMENTO, inicio.plusDays(10), 3, BigDecimal.ZERO, new BigDecimal("20.00"));
+        salvarPedido(StatusPedido.PAGO, fim.plusDays(1), 5, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    private long proximoNumero = 1;
+
+    private Pedido salvarPedido(StatusPedido status, LocalDateTime data, int quantidade,
+                                BigDecimal desconto, BigDecimal frete) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(proximoNumero++);
+        pedido.setStatusPedido(status);
+        pedido.setDataCadastro(data);
+        pedido.setDataAtualizacao(data);
+
+        BigDecimal subtotal = produto.getValor().multiply(BigDecimal.valueOf(quantidade));
+        ItemPedido item = new ItemPedido(null, pedido, produto, quantidade, produto.getValor(), subtotal);
+        pedido.getItens().add(item);
+
+        pedido.setSubtotal(subtotal);
+        pedido.setDesconto(desconto);
+        pedido.setFrete(frete);
+        pedido.setValorTotal(subtotal.subtract(desconto).add(frete));
+        return pedidoRepository.save(pedido);
+    }
+
+    @Test
+    @DisplayName("Deve consolidar os totais de vendas do período em uma consulta")
+    void deveConsolidarResumoVendasDoPeriodo() {
+        ResumoVendas resumo = pedidoRepository.resumoVendasByPeriodo(inicio, fim);
+
+        assertThat(resumo.totalPedidos()).isEqualTo(2L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("540.00");
+        assertThat(resumo.valorDescontos()).isEqualByComparingTo("10.00");
+        assertThat(resumo.valorFrete()).isEqualByComparingTo("50.00");
+        assertThat(resumo.quantidadeProdutos()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Deve retornar totais zerados para período sem pedidos")
+    void deveRetornarResumoZeradoParaPeriodoVazio() {
+        ResumoVendas resumo = pedidoRepository.resumoVendasByPeriodo(fim.plusYears(1), fim.plusYears(2));
+
+        assertThat(resumo.totalPedidos()).isZero();
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("0");
+        assertThat(resumo.quantidadeProdutos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar quantidade e valor por status no período")
+    void deveAgruparTotaisPorStatusNoPeriodo() {
+        List<TotalPorStatus> totais = pedidoRepository.totaisPorStatusByPeriodo(inicio, fim);
+
+        assertThat(totais).hasSize(2);
+        assertThat(totais)
+                .filteredOn(total -> total.status() == StatusPedido.PAGO)
+                .singleElement()
+                .satisfies(total -> {
+                    assertThat(total.quantidade()).isEqualTo(1L);
+                    assertThat(total.valorTotal()).isEqualByComparingTo("220.00");
+                });
+    }
+
+    @Test
+    @DisplayName("Deve agrupar todos os pedidos por status")
+    void deveAgruparTodosPedidosPorStatus() {
+        List<TotalPorStatus> totais = pedidoRepository.totaisPorStatus();
+
+        assertThat(totais)
+                .filteredOn(total -> total.status() == StatusPedido.PAGO)
+                .singleElement()
+                .satisfies(total -> assertThat(total.quantidade()).isEqualTo(2L));
+    }
+
+    @Test
+    @DisplayName("Deve limitar o ranking de produtos mais vendidos no banco")
+    void deveLimitarRankingDeProdutosMaisVendidos() {
+        List<ProdutoMaisVendido> ranking = itemPedidoRepository.findProdutosMaisVendidosByPeriodo(inicio, fim, Limit.of(1));
+
+        assertThat(ranking).singleElement().satisfies(row -> {
+            assertThat(row.produtoTitulo()).isEqualTo("Notebook Dell");
+            assertThat(row.quantidadeVendida()).isEqualTo(5L);
+            assertThat(row.valorTotalVendido()).isEqualByComparingTo("500.00");
+            assertThat(row.numeroPedidos()).isEqualTo(2L);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor do mais recente para o mais antigo sem repetir pedidos")
+    void devePaginarPorCursor() {
+        Pedido mesmoInstante = salvarPedido(StatusPedido.PAGO, fim.plusDays(1), 1, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        List<Pedido> primeira = pedidoRepository.findPaginaByFiltros(null, null, null, null, null, null, null, Limit.of(2));
+        assertThat(primeira).extracting(Pedido::getDataCadastro)
+                .containsExactly(fim.plusDays(1), fim.plusDays(1));
+        assertThat(primeira.get(0).getId()).isEqualTo(mesmoInstante.getId());
+
+        Pedido ultima = primeira.get(1);
+        List<Pedido> segunda = pedidoRepository.findPaginaByFiltros(null, null, null, null, null,
+                ultima.getDataCadastro(), ultima.getId(), Limit.of(2));
+        assertThat(segunda).extracting(Pedido::getDataCadastro)
+                .containsExactly(inicio.plusDays(10), inicio.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os filtros junto com o cursor")
+    void devePaginarPorCursorComFiltros() {
+        List<Pedido> pagina = pedidoRepository.findPaginaByFiltros(StatusPedido.PAGO, inicio, fim, null, null,
+                null, null, Limit.of(10));
+
+        assertThat(pagina).singleElement()
+                .satisfies(pedido -> assertThat(pedido.getDataCadastro()).isEqualTo(inicio.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Deve trocar o status só quando o pedido ainda está no status e na versão lidos")
+    void deveTrocarStatusComCompareAndSet() {
+        Pedido pedido = salvarPedido(StatusPedido.PENDENTE_PAGAMENTO, inicio.plusDays(2), 4,
+                BigDecimal.ZERO, BigDecimal.ZERO);
+        pedidoRepository.flush();
+        ResumoPedido resumo = pedidoRepository.findResumoById(pedido.getId()).orElseThrow();
+        assertThat(resumo.quantidadeItens()).isEqualTo(4L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("400.00");
+
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        assertThat(pedidoRepository.atualizarStatus(pedido.getId(), StatusPedido.PAGO, resumo.versao(),
+                StatusPedido.CANCELADO, agora)).isZero();
+        assertThat(pedidoRepository.atualizarStatus(pedido.getId(), StatusPedido.PENDENTE_PAGAMENTO, resumo.versao() + 1,
+                StatusPedido.CANCELADO, agora)).isZero();
+        assertThat(pedidoRepository.atualizarStatus(pedido.getId(), StatusPedido.PENDENTE_PAGAMENTO, resumo.versao(),
+                StatusPedido.PAGO, agora)).isEqualTo(1);
+
+        ResumoPedido atualizado = pedidoRepository.findResumoById(pedido.getId()).orElseThrow();
+        assertThat(atualizado).isEqualTo(resumo.comStatus(StatusPedido.PAGO, agora));
+        assertThat(pedidoRepository.atualizarStatus(pedido.getId(), StatusPedido.PENDENTE_PAGAMENTO, resumo.versao(),
+                StatusPedido.CANCELADO, agora)).isZero();
+    }
+}
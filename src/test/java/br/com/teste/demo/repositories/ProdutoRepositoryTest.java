@@ -2,15 +2,18 @@ package br.com.teste.demo.repositories;
 
 import br.com.teste.demo.enums.StatusProduto;
 import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.projections.ProdutoRelevancia;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -138,6 +141,48 @@ class ProdutoRepositoryTest {
         assertThat(produtos.get(0).getTitulo()).isEqualTo("Notebook Dell");
     }
 
+    @Test
+    @DisplayName("Deve paginar a busca por título em ordem de relevância")
+    void devePaginarBuscaPorTituloPorRelevancia() {
+        Produto trecho = salvar("Kit Ultranote");
+        Produto palavra = salvar("Capa para Notebook");
+        Produto outroInicio = salvar("Notebook Lenovo");
+        Produto exato = salvar("NOTE");
+        salvar("Bloco de notas");
+
+        List<ProdutoRelevancia> encontrados = new ArrayList<>();
+        Integer cursorRelevancia = null;
+        Long cursorId = null;
+        List<ProdutoRelevancia> pagina;
+        do {
+            pagina = produtoRepository.findPaginaByTitulo("Note", null, null, null, null,
+                    cursorRelevancia, cursorId, Limit.of(2));
+            encontrados.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                cursorRelevancia = pagina.get(pagina.size() - 1).relevancia();
+                cursorId = pagina.get(pagina.size() - 1).produto().getId();
+            }
+        } while (pagina.size() == 2);
+
+        assertThat(encontrados).extracting(encontrado -> encontrado.produto().getId())
+                .containsExactly(exato.getId(), produto1.getId(), outroInicio.getId(), palavra.getId(), trecho.getId());
+        assertThat(encontrados).extracting(ProdutoRelevancia::relevancia)
+                .containsExactly(ProdutoRepositoryCustom.RELEVANCIA_TITULO, ProdutoRepositoryCustom.RELEVANCIA_INICIO,
+                        ProdutoRepositoryCustom.RELEVANCIA_INICIO, ProdutoRepositoryCustom.RELEVANCIA_PALAVRA,
+                        ProdutoRepositoryCustom.RELEVANCIA_TRECHO);
+        assertThat(produtoRepository.findPaginaByTitulo("note", "Periféricos", null, null, null, null, null,
+                Limit.of(10))).isEmpty();
+    }
+
+    private Produto salvar(String titulo) {
+        Produto produto = new Produto();
+        produto.setTitulo(titulo);
+        produto.setValor(new BigDecimal("100.00"));
+        produto.setStatus(StatusProduto.ATIVO);
+        produto.setDataCadastro(LocalDateTime.now());
+        return produtoRepository.save(produto);
+    }
+
     @Test
     @DisplayName("Deve deletar um produto")
     void deveDeletarProduto() {
@@ -1,7 +1,11 @@
 package br.com.teste.demo.resources;
 
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.ProdutoDTO;
 import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.services.AutocompleteProdutos;
+import br.com.teste.demo.services.CatalogoProdutos;
+import br.com.teste.demo.services.ProdutoCache;
 import br.com.teste.demo.services.ProdutoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,7 +22,6 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,8 +45,17 @@ class ProdutoResourceTest {
     @MockBean
     private ProdutoService produtoService;
 
+    @MockBean
+    private ProdutoCache produtoCache;
+
+    @MockBean
+    private CatalogoProdutos catalogoProdutos;
+
+    @MockBean
+    private AutocompleteProdutos autocompleteProdutos;
+
     private ProdutoDTO produtoDTO;
-    private List<ProdutoDTO> listaProdutos;
+    private PaginaDTO<ProdutoDTO> paginaProdutos;
 
     @BeforeEach
     void setUp() {
@@ -55,22 +67,22 @@ class ProdutoResourceTest {
         produtoDTO.setCategoria("Informática");
         produtoDTO.setStatus(StatusProduto.ATIVO);
 
-        listaProdutos = Arrays.asList(produtoDTO);
+        paginaProdutos = new PaginaDTO<>(Arrays.asList(produtoDTO), null);
     }
 
     @Test
     @DisplayName("Deve retornar todos os produtos")
     @WithMockUser
     void deveRetornarTodosProdutos() throws Exception {
-        when(produtoService.getAllProducts()).thenReturn(listaProdutos);
+        when(produtoService.getAllProducts(null, 50)).thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].titulo").value("Notebook Dell"));
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].titulo").value("Notebook Dell"));
 
-        verify(produtoService, times(1)).getAllProducts();
+        verify(produtoService, times(1)).getAllProducts(null, 50);
     }
 
     @Test
@@ -154,80 +166,82 @@ class ProdutoResourceTest {
     @DisplayName("Deve filtrar produtos")
     @WithMockUser
     void deveFiltrarProdutos() throws Exception {
-        when(produtoService.findByFiltros(anyString(), anyString(), any(), any(), any()))
-                .thenReturn(listaProdutos);
+        when(produtoService.findPagina(anyString(), anyString(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos/filtrar")
                         .param("titulo", "note")
                         .param("categoria", "Informática")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.itens", hasSize(1)));
 
         verify(produtoService, times(1))
-                .findByFiltros(anyString(), anyString(), any(), any(), any());
+                .findPagina(anyString(), anyString(), any(), any(), any(), any(), anyInt());
     }
 
     @Test
     @DisplayName("Deve buscar produtos por título")
     @WithMockUser
     void deveBuscarProdutosPorTitulo() throws Exception {
-        when(produtoService.findByTitulo("note")).thenReturn(listaProdutos);
+        when(produtoService.findPagina("note", null, null, null, null, null, 50)).thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos/por-titulo")
                         .param("titulo", "note")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.itens", hasSize(1)));
 
-        verify(produtoService, times(1)).findByTitulo("note");
+        verify(produtoService, times(1)).findPagina("note", null, null, null, null, null, 50);
     }
 
     @Test
     @DisplayName("Deve buscar produtos por categoria")
     @WithMockUser
     void deveBuscarProdutosPorCategoria() throws Exception {
-        when(produtoService.findByCategoria("Informática")).thenReturn(listaProdutos);
+        when(produtoService.findPagina(null, "Informática", null, null, null, null, 50)).thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos/por-categoria")
                         .param("categoria", "Informática")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.itens", hasSize(1)));
 
-        verify(produtoService, times(1)).findByCategoria("Informática");
+        verify(produtoService, times(1)).findPagina(null, "Informática", null, null, null, null, 50);
     }
 
     @Test
     @DisplayName("Deve buscar produtos por status")
     @WithMockUser
     void deveBuscarProdutosPorStatus() throws Exception {
-        when(produtoService.findByStatus(StatusProduto.ATIVO)).thenReturn(listaProdutos);
+        when(produtoService.findPagina(null, null, null, null, StatusProduto.ATIVO, null, 50)).thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos/por-status")
                         .param("status", "ATIVO")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.itens", hasSize(1)));
 
-        verify(produtoService, times(1)).findByStatus(StatusProduto.ATIVO);
+        verify(produtoService, times(1)).findPagina(null, null, null, null, StatusProduto.ATIVO, null, 50);
     }
 
     @Test
     @DisplayName("Deve buscar produtos por faixa de valor")
     @WithMockUser
     void deveBuscarProdutosPorFaixaDeValor() throws Exception {
-        when(produtoService.findByValorRange(any(BigDecimal.class), any(BigDecimal.class)))
-                .thenReturn(listaProdutos);
+        when(produtoService.findPagina(isNull(), isNull(), any(BigDecimal.class), any(BigDecimal.class), isNull(),
+                isNull(), anyInt()))
+                .thenReturn(paginaProdutos);
 
         mockMvc.perform(get("/produtos/por-valor")
                         .param("valorMinimo", "1000")
                         .param("valorMaximo", "5000")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.itens", hasSize(1)));
 
         verify(produtoService, times(1))
-                .findByValorRange(any(BigDecimal.class), any(BigDecimal.class));
+                .findPagina(isNull(), isNull(), any(BigDecimal.class), any(BigDecimal.class), isNull(),
+                        isNull(), anyInt());
     }
 }
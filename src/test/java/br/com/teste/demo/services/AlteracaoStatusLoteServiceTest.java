@@ -0,0 +1,172 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.AlteracaoStatusLoteDTO;
+import br.com.teste.demo.dtos.PedidoIgnoradoDTO;
+import br.com.teste.demo.dtos.ResultadoAlteracaoStatusDTO;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({AlteracaoStatusLoteService.class, VendaDiariaService.class, RetentativaConcorrencia.class})
+@TestPropertySource(properties = "pedido.status-lote.tamanho-bloco=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do AlteracaoStatusLoteService")
+class AlteracaoStatusLoteServiceTest {
+
+    @Autowired
+    private AlteracaoStatusLoteService alteracaoStatusLoteService;
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    private final LocalDate dia = LocalDate.of(2025, 4, 15);
+    private final List<Pedido> pedidos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        // Três pendentes, um pago e um cancelado, de 100,00 a 500,00
+        StatusPedido[] status = {StatusPedido.PENDENTE_PAGAMENTO, StatusPedido.PENDENTE_PAGAMENTO,
+                StatusPedido.PENDENTE_PAGAMENTO, StatusPedido.PAGO, StatusPedido.CANCELADO};
+        for (int i = 0; i < status.length; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setNumero(2_000L + i);
+            pedido.setStatusPedido(status[i]);
+            pedido.setSubtotal(BigDecimal.valueOf(100L * (i + 1)));
+            pedido.setValorTotal(pedido.getSubtotal());
+            pedido.setDataCadastro(dia.atTime(9, i));
+            pedidos.add(pedidoRepository.save(pedido));
+        }
+        vendaDiariaService.registrarNovos(pedidos);
+    }
+
+    @AfterEach
+    void limparBanco() {
+        pedidos.clear();
+        vendaDiariaRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve cancelar os pedidos informados e devolver os ignorados com o motivo")
+    void deveAlterarPorIdsEIgnorarInvalidos() {
+        AlteracaoStatusLoteDTO alteracao = new AlteracaoStatusLoteDTO();
+        alteracao.setIds(List.of(pedidos.get(0).getId(), pedidos.get(3).getId(), pedidos.get(4).getId(),
+                pedidos.get(0).getId(), 999_999L));
+        alteracao.setNovoStatus(StatusPedido.CANCELADO);
+
+        ResultadoAlteracaoStatusDTO resultado = alteracaoStatusLoteService.alterarStatus(alteracao);
+
+        assertThat(resultado.getAlterados()).isEqualTo(2);
+        assertThat(resultado.getIgnorados()).extracting(PedidoIgnoradoDTO::getPedidoId)
+                .containsExactly(pedidos.get(4).getId(), 999_999L);
+        assertThat(resultado.getIgnorados()).extracting(PedidoIgnoradoDTO::getStatusAtual)
+                .containsExactly(StatusPedido.CANCELADO, null);
+
+        Pedido cancelado = pedidoRepository.findById(pedidos.get(0).getId()).orElseThrow();
+        assertThat(cancelado.getStatusPedido()).isEqualTo(StatusPedido.CANCELADO);
+        assertThat(cancelado.getVersao()).isEqualTo(pedidos.get(0).getVersao() + 1);
+        assertThat(pedidoRepository.findById(pedidos.get(3).getId()).orElseThrow().getStatusPedido())
+                .isEqualTo(StatusPedido.CANCELADO);
+
+        Map<StatusPedido, VendaDiaria> vendas = vendasPorStatus();
+        assertThat(vendas.get(StatusPedido.PENDENTE_PAGAMENTO).getQuantidadePedidos()).isEqualTo(2L);
+        assertThat(vendas.get(StatusPedido.PENDENTE_PAGAMENTO).getValorTotal()).isEqualByComparingTo("500.00");
+        assertThat(vendas.get(StatusPedido.PAGO).getQuantidadePedidos()).isZero();
+        assertThat(vendas.get(StatusPedido.CANCELADO).getQuantidadePedidos()).isEqualTo(3L);
+        assertThat(vendas.get(StatusPedido.CANCELADO).getValorTotal()).isEqualByComparingTo("1000.00");
+        assertMesmoResultadoDaReconstrucao(vendas);
+    }
+
+    @Test
+    @DisplayName("Deve alterar em blocos os pedidos do filtro que estão em um status de origem válido")
+    void deveAlterarPorFiltro() {
+        AlteracaoStatusLoteDTO alteracao = new AlteracaoStatusLoteDTO();
+        alteracao.setDataInicio(dia.atStartOfDay());
+        alteracao.setDataFim(dia.plusDays(1).atStartOfDay());
+        alteracao.setNovoStatus(StatusPedido.PAGO);
+
+        ResultadoAlteracaoStatusDTO resultado = alteracaoStatusLoteService.alterarStatus(alteracao);
+
+        assertThat(resultado.getAlterados()).isEqualTo(3);
+        assertThat(resultado.getIgnorados()).extracting(PedidoIgnoradoDTO::getPedidoId)
+                .containsExactlyInAnyOrder(pedidos.get(3).getId(), pedidos.get(4).getId());
+        assertThat(pedidoRepository.findAll()).extracting(Pedido::getStatusPedido)
+                .containsOnly(StatusPedido.PAGO, StatusPedido.CANCELADO);
+
+        Map<StatusPedido, VendaDiaria> vendas = vendasPorStatus();
+        assertThat(vendas.get(StatusPedido.PENDENTE_PAGAMENTO).getQuantidadePedidos()).isZero();
+        assertThat(vendas.get(StatusPedido.PAGO).getQuantidadePedidos()).isEqualTo(4L);
+        assertThat(vendas.get(StatusPedido.PAGO).getValorTotal()).isEqualByComparingTo("1000.00");
+        assertMesmoResultadoDaReconstrucao(vendas);
+    }
+
+    @Test
+    @DisplayName("Deve recusar uma alteração com ids e filtros ao mesmo tempo ou sem nenhum dos dois")
+    void deveRecusarAlteracaoAmbigua() {
+        AlteracaoStatusLoteDTO ambos = new AlteracaoStatusLoteDTO();
+        ambos.setIds(List.of(pedidos.get(0).getId()));
+        ambos.setStatus(StatusPedido.PENDENTE_PAGAMENTO);
+        ambos.setNovoStatus(StatusPedido.PAGO);
+        assertThatThrownBy(() -> alteracaoStatusLoteService.alterarStatus(ambos)).isInstanceOf(BusinessException.class);
+
+        AlteracaoStatusLoteDTO nenhum = new AlteracaoStatusLoteDTO();
+        nenhum.setNovoStatus(StatusPedido.PAGO);
+        assertThatThrownBy(() -> alteracaoStatusLoteService.alterarStatus(nenhum)).isInstanceOf(BusinessException.class);
+    }
+
+    private Map<StatusPedido, VendaDiaria> vendasPorStatus() {
+        return vendaDiariaRepository.findAll().stream()
+                .collect(Collectors.toMap(VendaDiaria::getStatusPedido, venda -> venda));
+    }
+
+    /**
+     * Os totais mantidos incrementalmente devem ser os mesmos de uma reconstrução a partir de PEDIDO
+     */
+    private void assertMesmoResultadoDaReconstrucao(Map<StatusPedido, VendaDiaria> incrementais) {
+        vendaDiariaService.reconstruir(dia, dia.plusDays(1));
+        Map<StatusPedido, VendaDiaria> reconstruidas = vendasPorStatus();
+        incrementais.forEach((status, venda) -> {
+            VendaDiaria reconstruida = reconstruidas.get(status);
+            if (venda.getQuantidadePedidos() == 0L) {
+                assertThat(reconstruida).isNull();
+                return;
+            }
+            assertThat(reconstruida.getQuantidadePedidos()).isEqualTo(venda.getQuantidadePedidos());
+            assertThat(reconstruida.getValorTotal()).isEqualByComparingTo(venda.getValorTotal());
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.dtos.SugestaoProdutoDTO;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do AutocompleteProdutos")
+class AutocompleteProdutosTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @InjectMocks
+    private AutocompleteProdutos autocompleteProdutos;
+
+    @Test
+    @DisplayName("Deve sugerir produtos ativos pelo início do título e depois pelas demais palavras")
+    void deveSugerirPorPrefixo() {
+        when(produtoRepository.findAll()).thenReturn(List.of(
+                produto(1L, "Notebook Dell Inspiron", StatusProduto.ATIVO),
+                produto(2L, "Capa para Notebook", StatusProduto.ATIVO),
+                produto(3L, "Notebook Acer", StatusProduto.ATIVO),
+                produto(4L, "Notebook Antigo", StatusProduto.INATIVO),
+                produto(5L, "Monitor Dell", StatusProduto.ATIVO)));
+        autocompleteProdutos.recarregar();
+
+        assertThat(ids(autocompleteProdutos.sugerir("NOTE", 10))).containsExactly(3L, 1L, 2L);
+        assertThat(ids(autocompleteProdutos.sugerir("note", 2))).containsExactly(3L, 1L);
+        assertThat(ids(autocompleteProdutos.sugerir("notebook  d", 10))).containsExactly(1L);
+        assertThat(ids(autocompleteProdutos.sugerir("dell", 10))).containsExactly(5L, 1L);
+        assertThat(autocompleteProdutos.sugerir("ebook", 10)).isEmpty();
+        assertThat(autocompleteProdutos.sugerir(" ", 10)).isEmpty();
+        assertThat(autocompleteProdutos.sugerir("monitor", 10).get(0).getTitulo()).isEqualTo("Monitor Dell");
+        assertThatThrownBy(() -> autocompleteProdutos.sugerir("note", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> autocompleteProdutos.sugerir("note", AutocompleteProdutos.LIMITE_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Deve refletir criação, alteração de título e status e remoção sem consultar o banco")
+    void deveAtualizarIncrementalmente() {
+        autocompleteProdutos.atualizar(dto(1L, "Câmera Canon", StatusProduto.ATIVO));
+        assertThat(ids(autocompleteProdutos.sugerir("camera", 10))).containsExactly(1L);
+
+        autocompleteProdutos.atualizar(dto(1L, "Lente Canon", StatusProduto.ATIVO));
+        assertThat(autocompleteProdutos.sugerir("camera", 10)).isEmpty();
+        assertThat(ids(autocompleteProdutos.sugerir("canon", 10))).containsExactly(1L);
+
+        autocompleteProdutos.atualizar(dto(1L, "Lente Canon", StatusProduto.ESGOTADO));
+        assertThat(autocompleteProdutos.sugerir("lente", 10)).isEmpty();
+
+        autocompleteProdutos.atualizar(dto(1L, "Lente Canon", StatusProduto.ATIVO));
+        autocompleteProdutos.remover(1L);
+        assertThat(autocompleteProdutos.sugerir("lente", 10)).isEmpty();
+        verifyNoMoreInteractions(produtoRepository);
+    }
+
+    @Test
+    @DisplayName("Teste de latência - sugestões sobre 50 mil produtos")
+    void testeLatenciaSugestoes() {
+        String[] palavras = {"notebook", "monitor", "teclado", "mouse", "cadeira", "mesa", "cabo", "fone",
+                "camera", "impressora", "roteador", "tablet", "gamer", "sem fio", "usb", "hdmi"};
+        Random random = new Random(42);
+        List<Produto> produtos = new ArrayList<>();
+        for (long id = 1; id <= 50_000; id++) {
+            produtos.add(produto(id, palavras[random.nextInt(palavras.length)] + " "
+                    + palavras[random.nextInt(palavras.length)] + " " + id, StatusProduto.ATIVO));
+        }
+        when(produtoRepository.findAll()).thenReturn(produtos);
+        autocompleteProdutos.recarregar();
+
+        String[] consultas = {"n", "no", "not", "note", "noteb", "m", "mo", "mon", "ca", "cab", "cam", "ro", "x"};
+        int sugestoes = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sugestoes += autocompleteProdutos.sugerir(consultas[i % consultas.length], 10).size();
+        }
+
+        int consultasMedidas = 100_000;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultasMedidas; i++) {
+            sugestoes += autocompleteProdutos.sugerir(consultas[i % consultas.length], 10).size();
+        }
+        double mediaMicros = (System.nanoTime() - inicio) / 1_000.0 / consultasMedidas;
+
+        System.out.println("=== Resultados do Teste de Autocomplete ===");
+        System.out.println("Produtos: " + produtos.size() + ", consultas: " + consultasMedidas);
+        System.out.println("Tempo médio por consulta: " + mediaMicros + "µs");
+
+        assertThat(sugestoes).isPositive();
+        assertThat(mediaMicros).isLessThan(1_000);
+        verify(produtoRepository).findAll();
+    }
+
+    private static Produto produto(Long id, String titulo, StatusProduto status) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setTitulo(titulo);
+        produto.setValor(BigDecimal.TEN);
+        produto.setStatus(status);
+        return produto;
+    }
+
+    private static ProdutoDTO dto(Long id, String titulo, StatusProduto status) {
+        return new ProdutoDTO(id, titulo, null, BigDecimal.TEN, "Fotografia", status, null, null);
+    }
+
+    private static List<Long> ids(List<SugestaoProdutoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoProdutoDTO::getId).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.services.impl.ProdutoServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoServiceImpl.class, ProdutoCache.class, CatalogoProdutos.class, IndiceBuscaProdutos.class,
+        AutocompleteProdutos.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do CatalogoProdutos")
+class CatalogoProdutosTest {
+
+    @Autowired
+    private CatalogoProdutos catalogoProdutos;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void limparBanco() {
+        produtoRepository.deleteAll();
+        catalogoProdutos.invalidar();
+    }
+
+    @Test
+    @DisplayName("Deve servir o mesmo snapshot até um produto ser alterado")
+    void deveManterSnapshotAteAlteracao() throws IOException {
+        for (int i = 0; i < 20; i++) {
+            produtoService.createProduct(new ProdutoDTO(null, "Produto " + i, "Descrição do produto " + i,
+                    BigDecimal.valueOf(1_000 + i, 2), "Categoria", StatusProduto.ATIVO, null, null));
+        }
+
+        CatalogoProdutos.Snapshot primeiro = catalogoProdutos.snapshot();
+        assertThat(catalogoProdutos.snapshot()).isSameAs(primeiro);
+        assertThat(primeiro.corresponde(primeiro.etag())).isTrue();
+        assertThat(primeiro.corresponde("\"outro\", W/" + primeiro.etagGzip())).isTrue();
+        assertThat(primeiro.corresponde("\"outro\"")).isFalse();
+
+        JsonNode produtos = objectMapper.readTree(primeiro.json());
+        assertThat(produtos).hasSize(20);
+        assertThat(produtos.get(0).get("titulo").asText()).isEqualTo("Produto 0");
+        assertThat(primeiro.gzip()).isNotNull().hasSizeLessThan(primeiro.json().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(primeiro.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(primeiro.json());
+        }
+
+        Long id = produtos.get(0).get("id").asLong();
+        ProdutoDTO alterado = produtoService.getProductById(id);
+        produtoService.updateProduct(id, new ProdutoDTO(id, "Produto alterado", alterado.getDescricao(),
+                alterado.getValor(), alterado.getCategoria(), alterado.getStatus(), null, null));
+
+        CatalogoProdutos.Snapshot segundo = catalogoProdutos.snapshot();
+        assertThat(segundo).isNotSameAs(primeiro);
+        assertThat(segundo.etag()).isNotEqualTo(primeiro.etag());
+        assertThat(segundo.corresponde(primeiro.etag())).isFalse();
+        assertThat(objectMapper.readTree(segundo.json()).get(0).get("titulo").asText()).isEqualTo("Produto alterado");
+    }
+
+    @Test
+    @DisplayName("Deve remontar o snapshot vencido e trazer alterações feitas fora do serviço")
+    void deveRemontarSnapshotVencido() {
+        CatalogoProdutos semValidade = new CatalogoProdutos(produtoRepository, objectMapper, true, 0);
+        produtoService.createProduct(new ProdutoDTO(null, "Produto", "Descrição do produto",
+                new BigDecimal("10.00"), "Categoria", StatusProduto.ATIVO, null, null));
+
+        CatalogoProdutos.Snapshot primeiro = semValidade.snapshot();
+        CatalogoProdutos.Snapshot remontado = semValidade.snapshot();
+        assertThat(remontado).isNotSameAs(primeiro);
+        assertThat(remontado.etag()).isEqualTo(primeiro.etag());
+
+        // Escrita direta no banco, como a de outra instância ou de uma importação
+        Produto produto = produtoRepository.findAll().get(0);
+        produto.setTitulo("Produto importado");
+        produtoRepository.save(produto);
+
+        CatalogoProdutos.Snapshot atualizado = semValidade.snapshot();
+        assertThat(atualizado.corresponde(primeiro.etag())).isFalse();
+        assertThat(new String(atualizado.json(), StandardCharsets.UTF_8)).contains("Produto importado");
+    }
+}
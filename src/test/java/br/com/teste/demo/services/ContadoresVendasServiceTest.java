@@ -0,0 +1,161 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.events.VendaDiariaAlteradaEvent;
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do ContadoresVendasService")
+class ContadoresVendasServiceTest {
+
+    @Mock
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @InjectMocks
+    private ContadoresVendasService contadoresVendasService;
+
+    private final LocalDate hoje = LocalDate.now();
+    private final LocalDate inicioMes = hoje.withDayOfMonth(1);
+    private final LocalDate fimMes = inicioMes.plusMonths(1);
+
+    private VendaDiaria vendaDiaria(StatusPedido status, long pedidos, String valorTotal, long itens) {
+        VendaDiaria venda = new VendaDiaria();
+        venda.setData(hoje);
+        venda.setStatusPedido(status);
+        venda.setFormaPagamento(FormaPagamento.PIX);
+        venda.setQuantidadePedidos(pedidos);
+        venda.setValorTotal(new BigDecimal(valorTotal));
+        venda.setDesconto(BigDecimal.ZERO);
+        venda.setFrete(BigDecimal.ZERO);
+        venda.setQuantidadeItens(itens);
+        return venda;
+    }
+
+    private VendaDiariaAlteradaEvent variacao(StatusPedido status, long pedidos, String valorTotal, long itens) {
+        return new VendaDiariaAlteradaEvent(hoje, status, FormaPagamento.PIX, pedidos, new BigDecimal(valorTotal),
+                BigDecimal.ZERO, BigDecimal.ZERO, itens);
+    }
+
+    private void confirmar(VendaDiariaAlteradaEvent evento) {
+        contadoresVendasService.onVendaDiariaPublicada(evento);
+        contadoresVendasService.onVendaDiariaAlterada(evento);
+        contadoresVendasService.onVendaDiariaConcluida(evento);
+    }
+
+    @Test
+    @DisplayName("Deve aquecer os contadores e somar as variações confirmadas")
+    void deveAquecerESomarVariacoes() {
+        when(vendaDiariaRepository.findByDataGreaterThanEqualAndDataLessThan(inicioMes, fimMes))
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 2, "200.00", 4)));
+        contadoresVendasService.reconciliar();
+
+        confirmar(variacao(StatusPedido.PAGO, 1, "50.00", 1));
+        confirmar(variacao(StatusPedido.PAGO, -1, "-100.00", -2));
+        confirmar(variacao(StatusPedido.CANCELADO, 1, "100.00", 2));
+
+        ResumoVendas resumo = contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(3L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("250.00");
+        assertThat(resumo.quantidadeProdutos()).isEqualTo(5L);
+
+        List<TotalPorStatus> totais = contadoresVendasService.totaisPorStatus(inicioMes, fimMes);
+        assertThat(totais).hasSize(StatusPedido.values().length);
+        assertThat(totais)
+                .filteredOn(total -> total.status() == StatusPedido.PAGO)
+                .singleElement()
+                .satisfies(total -> {
+                    assertThat(total.quantidade()).isEqualTo(2L);
+                    assertThat(total.valorTotal()).isEqualByComparingTo("150.00");
+                });
+    }
+
+    @Test
+    @DisplayName("Deve trazer as vendas de outras instâncias e adiar o agrupamento com variação durante a leitura")
+    void deveReconciliarSemContarDuasVezesVariacoesConcorrentes() {
+        when(vendaDiariaRepository.findByDataGreaterThanEqualAndDataLessThan(inicioMes, fimMes))
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 2, "200.00", 4)))
+                .thenAnswer(invocation -> {
+                    // Confirmada enquanto a reconciliação lê o banco: a leitura já a inclui
+                    confirmar(variacao(StatusPedido.PAGO, 1, "30.00", 1));
+                    // Inclui também as vendas registradas por outra instância
+                    return List.of(vendaDiaria(StatusPedido.PAGO, 5, "500.00", 9),
+                            vendaDiaria(StatusPedido.CANCELADO, 1, "40.00", 1));
+                })
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 5, "500.00", 9),
+                        vendaDiaria(StatusPedido.CANCELADO, 1, "40.00", 1)));
+        contadoresVendasService.reconciliar();
+        assertThat(contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1)).totalPedidos()).isEqualTo(2L);
+
+        contadoresVendasService.reconciliar();
+
+        // PAGO fica para a próxima reconciliação; CANCELADO, sem variação local, já é corrigido
+        ResumoVendas resumo = contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(4L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("270.00");
+
+        contadoresVendasService.reconciliar();
+
+        resumo = contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(6L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("540.00");
+        assertThat(resumo.quantidadeProdutos()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Deve adiar o agrupamento com variação ainda não concluída")
+    void deveAdiarAgrupamentoComVariacaoEmAndamento() {
+        when(vendaDiariaRepository.findByDataGreaterThanEqualAndDataLessThan(inicioMes, fimMes))
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 2, "200.00", 4)))
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 3, "250.00", 5)));
+        contadoresVendasService.reconciliar();
+
+        VendaDiariaAlteradaEvent evento = variacao(StatusPedido.PAGO, 1, "50.00", 1);
+        contadoresVendasService.onVendaDiariaPublicada(evento);
+        contadoresVendasService.reconciliar();
+        assertThat(contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1)).totalPedidos()).isEqualTo(2L);
+
+        contadoresVendasService.onVendaDiariaAlterada(evento);
+        contadoresVendasService.onVendaDiariaConcluida(evento);
+        contadoresVendasService.reconciliar();
+
+        ResumoVendas resumo = contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(3L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("250.00");
+    }
+
+    @Test
+    @DisplayName("Deve corrigir a diferença em relação ao banco")
+    void deveCorrigirDiferencaEmRelacaoAoBanco() {
+        when(vendaDiariaRepository.findByDataGreaterThanEqualAndDataLessThan(inicioMes, fimMes))
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 2, "200.00", 4)))
+                // Dia reconstruído diretamente no banco
+                .thenReturn(List.of(vendaDiaria(StatusPedido.PAGO, 1, "120.00", 2)));
+        contadoresVendasService.reconciliar();
+        // Variação aplicada em memória cuja escrita não chegou a VENDA_DIARIA
+        confirmar(variacao(StatusPedido.CANCELADO, 1, "10.00", 1));
+
+        contadoresVendasService.reconciliar();
+
+        ResumoVendas resumo = contadoresVendasService.resumoVendas(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(1L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("120.00");
+        assertThat(resumo.quantidadeProdutos()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.FormatoExportacao;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ExportacaoService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@DisplayName("Testes do ExportacaoService")
+class ExportacaoServiceTest {
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime fim = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        pagamentoRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    private Pedido salvarPedido(long numero, LocalDateTime data) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(numero);
+        pedido.setStatusPedido(StatusPedido.PAGO);
+        pedido.setSubtotal(new BigDecimal("100.00"));
+        pedido.setValorTotal(new BigDecimal("100.00"));
+        pedido.setDataCadastro(data);
+        return pedidoRepository.save(pedido);
+    }
+
+    @Test
+    @DisplayName("Deve exportar em CSV somente os pedidos do período e liberá-los do contexto")
+    void deveExportarPedidosEmCsv() throws Exception {
+        salvarPedido(1L, inicio.plusDays(1));
+        salvarPedido(2L, inicio.plusDays(2));
+        salvarPedido(3L, fim.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportarPedidos(inicio, fim, FormatoExportacao.CSV, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas[0]).startsWith("id,numero,statusPedido");
+        assertThat(linhas[1]).contains(",1,PAGO,100.00,");
+        assertThat(linhas[2]).contains(",2,PAGO,100.00,");
+        assertThat(entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContext().getNumberOfManagedEntities()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve exportar pagamentos filtrados em NDJSON, um objeto por linha")
+    void deveExportarPagamentosEmNdjson() throws Exception {
+        Pedido pedido = salvarPedido(1L, inicio.plusDays(1));
+        Pagamento pagamento = new Pagamento();
+        pagamento.setPedido(pedido);
+        pagamento.setFormaPagamento(FormaPagamento.PIX);
+        pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+        pagamento.setValor(new BigDecimal("100.00"));
+        pagamento.setObservacao("pago, \"confirmado\"");
+        pagamento.setDataPagamento(inicio.plusDays(1));
+        pagamentoRepository.save(pagamento);
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoService.exportarPagamentos(FormaPagamento.PIX, null, inicio, fim, FormatoExportacao.NDJSON, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(linhas).hasSize(1);
+        JsonNode linha = objectMapper.readTree(linhas[0]);
+        assertThat(linha.get("pedidoId").asLong()).isEqualTo(pedido.getId());
+        assertThat(linha.get("formaPagamento").asText()).isEqualTo("PIX");
+        assertThat(linha.get("observacao").asText()).isEqualTo("pago, \"confirmado\"");
+    }
+}
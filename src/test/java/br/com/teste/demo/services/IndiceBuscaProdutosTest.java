@@ -0,0 +1,136 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.PaginaDTO;
+import br.com.teste.demo.dtos.ProdutoDTO;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.services.IndiceBuscaProdutos.Campo;
+import br.com.teste.demo.services.IndiceBuscaProdutos.Resultado;
+import br.com.teste.demo.services.impl.ProdutoServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoServiceImpl.class, ProdutoCache.class, CatalogoProdutos.class, IndiceBuscaProdutos.class,
+        AutocompleteProdutos.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do IndiceBuscaProdutos")
+class IndiceBuscaProdutosTest {
+
+    @Autowired
+    private IndiceBuscaProdutos indiceBuscaProdutos;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @AfterEach
+    void limparBanco() {
+        // Pelo serviço, para não deixar produtos removidos no cache compartilhado com outras classes de teste
+        produtoRepository.findAllIds().forEach(produtoService::deleteProduct);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar por prefixo, sem acentos, exigindo todas as palavras e ordenando por relevância")
+    void deveBuscarPorPalavras() {
+        Long notebook = criar("Notebook Dell", "Informática", "Tela de 15 polegadas");
+        Long capa = criar("Capa para notebook", "Acessórios", "Proteção acolchoada");
+        Long monitor = criar("Monitor Dell", "Informática", "Ótimo para notebook");
+        criar("Mouse sem fio", "Informática", "Bateria de longa duração");
+
+        assertThat(ids(indiceBuscaProdutos.buscar("note", EnumSet.of(Campo.TITULO))))
+                .containsExactly(notebook, capa);
+        assertThat(ids(indiceBuscaProdutos.buscar("NOTEBOOK", EnumSet.allOf(Campo.class))))
+                .containsExactly(notebook, capa, monitor);
+        assertThat(ids(indiceBuscaProdutos.buscar("otimo", EnumSet.allOf(Campo.class)))).containsExactly(monitor);
+        assertThat(ids(indiceBuscaProdutos.buscar("dell informatica", EnumSet.allOf(Campo.class))))
+                .containsExactlyInAnyOrder(notebook, monitor);
+        assertThat(indiceBuscaProdutos.buscar("dell acessorios", EnumSet.allOf(Campo.class))).isEmpty();
+        assertThat(indiceBuscaProdutos.buscar("ebook", EnumSet.of(Campo.TITULO))).isEmpty();
+        assertThat(indiceBuscaProdutos.buscar(" - ", EnumSet.allOf(Campo.class))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve refletir alterações, remoções e a remontagem a partir do banco")
+    void deveAcompanharAlteracoes() {
+        Long id = criar("Teclado mecânico", "Informática", null);
+        assertThat(ids(indiceBuscaProdutos.buscar("teclado", EnumSet.of(Campo.TITULO)))).containsExactly(id);
+
+        ProdutoDTO produto = produtoService.getProductById(id);
+        produto.setTitulo("Headset gamer");
+        produtoService.updateProduct(id, produto);
+        assertThat(indiceBuscaProdutos.buscar("teclado", EnumSet.of(Campo.TITULO))).isEmpty();
+        assertThat(ids(indiceBuscaProdutos.buscar("headset", EnumSet.of(Campo.TITULO)))).containsExactly(id);
+
+        produtoService.deleteProduct(id);
+        assertThat(indiceBuscaProdutos.buscar("headset", EnumSet.of(Campo.TITULO))).isEmpty();
+
+        // Gravado direto no banco, como por outra instância, só aparece após a remontagem
+        Produto direto = new Produto();
+        direto.setTitulo("Webcam HD");
+        direto.setValor(BigDecimal.TEN);
+        direto.setStatus(StatusProduto.ATIVO);
+        direto.setDataCadastro(LocalDateTime.now());
+        Long webcam = produtoRepository.save(direto).getId();
+        assertThat(indiceBuscaProdutos.buscar("webcam", EnumSet.of(Campo.TITULO))).isEmpty();
+        // O filtro por título vai ao banco: já o encontra, e por qualquer trecho do título
+        assertThat(produtoService.findPagina("bca", null, null, null, null, null, 10).getItens())
+                .extracting(ProdutoDTO::getId).containsExactly(webcam);
+        indiceBuscaProdutos.recarregar();
+        assertThat(ids(indiceBuscaProdutos.buscar("webcam", EnumSet.of(Campo.TITULO)))).containsExactly(webcam);
+    }
+
+    @Test
+    @DisplayName("Deve paginar a busca por relevância")
+    void devePaginarPorRelevancia() {
+        List<Long> exatos = new ArrayList<>();
+        List<Long> prefixos = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            exatos.add(criar("Cabo " + i, i % 2 == 0 ? "Cabos" : "Outros", null));
+            prefixos.add(criar("Cabeamento " + i, "Cabos", null));
+        }
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaDTO<ProdutoDTO> pagina = produtoService.buscar("cabo", cursor, 3);
+            assertThat(pagina.getItens()).hasSizeLessThanOrEqualTo(3);
+            pagina.getItens().forEach(produto -> vistos.add(produto.getId()));
+            cursor = pagina.getNext();
+        } while (cursor != null);
+        assertThat(vistos).hasSize(14).doesNotHaveDuplicates();
+        // "cabo" inteiro no título vale mais que só o prefixo na categoria; no empate, a ordem é a do id
+        assertThat(vistos.subList(0, 7)).containsExactly(exatos.get(0), exatos.get(2), exatos.get(4), exatos.get(6),
+                exatos.get(1), exatos.get(3), exatos.get(5));
+        assertThat(vistos.subList(7, 14)).containsExactlyElementsOf(prefixos);
+    }
+
+    private Long criar(String titulo, String categoria, String descricao) {
+        return produtoService.createProduct(new ProdutoDTO(null, titulo, descricao, BigDecimal.TEN, categoria,
+                StatusProduto.ATIVO, null, null)).getId();
+    }
+
+    private static List<Long> ids(List<Resultado> resultados) {
+        return resultados.stream().map(Resultado::id).toList();
+    }
+}
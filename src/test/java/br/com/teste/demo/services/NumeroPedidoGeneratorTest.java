@@ -0,0 +1,129 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.services.impl.SequenciaNumeroPedidoGenerator;
+import br.com.teste.demo.services.impl.SnowflakeNumeroPedidoGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes dos geradores de número de pedido")
+class NumeroPedidoGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMEROS_POR_THREAD = 250_000;
+
+    /**
+     * Gera os números em paralelo e devolve todos ordenados, conferindo que cada thread recebeu números crescentes
+     */
+    private long[] gerarEmParalelo(NumeroPedidoGenerator generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<long[]>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futuros.add(executor.submit(() -> {
+                    long[] numeros = new long[NUMEROS_POR_THREAD];
+                    largada.await();
+                    for (int i = 0; i < numeros.length; i++) {
+                        numeros[i] = generator.proximoNumero();
+                    }
+                    return numeros;
+                }));
+            }
+            largada.countDown();
+
+            long[] todos = new long[THREADS * NUMEROS_POR_THREAD];
+            int posicao = 0;
+            for (Future<long[]> futuro : futuros) {
+                long[] numeros = futuro.get();
+                for (int i = 1; i < numeros.length; i++) {
+                    assertThat(numeros[i]).isGreaterThan(numeros[i - 1]);
+                }
+                System.arraycopy(numeros, 0, todos, posicao, numeros.length);
+                posicao += numeros.length;
+            }
+            Arrays.sort(todos);
+            return todos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int duplicados(long[] ordenados) {
+        int duplicados = 0;
+        for (int i = 1; i < ordenados.length; i++) {
+            if (ordenados[i] == ordenados[i - 1]) {
+                duplicados++;
+            }
+        }
+        return duplicados;
+    }
+
+    @Test
+    @DisplayName("Deve gerar milhões de números snowflake entre threads sem duplicidade")
+    void deveGerarNumerosSnowflakeSemDuplicidade() throws Exception {
+        long[] numeros = gerarEmParalelo(new SnowflakeNumeroPedidoGenerator(7));
+
+        assertThat(duplicados(numeros)).isZero();
+        assertThat(numeros[0]).isPositive();
+        assertThat(Arrays.stream(numeros).map(numero -> (numero >>> 12) & 1023).distinct().toArray())
+                .containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("Deve distribuir milhões de números dos blocos reservados entre threads sem duplicidade nem lacunas")
+    void deveDistribuirBlocosSemDuplicidade() throws Exception {
+        AtomicLong sequencia = new AtomicLong(1_000_000L);
+        AtomicInteger reservas = new AtomicInteger();
+        NumeroPedidoGenerator generator = new SequenciaNumeroPedidoGenerator(null, null, 1000) {
+            @Override
+            protected long reservarBloco(int tamanho) {
+                reservas.incrementAndGet();
+                return sequencia.getAndAdd(tamanho);
+            }
+        };
+
+        long[] numeros = gerarEmParalelo(generator);
+
+        assertThat(duplicados(numeros)).isZero();
+        assertThat(numeros[0]).isEqualTo(1_000_000L);
+        assertThat(numeros[numeros.length - 1]).isEqualTo(1_000_000L + numeros.length - 1);
+        assertThat(reservas.get()).isEqualTo(numeros.length / 1000);
+    }
+
+    @Test
+    @DisplayName("Deve recusar na inicialização sequência existente com INCREMENT BY diferente do tamanho do bloco")
+    void deveRecusarSequenciaComIncrementoDiferente() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:numero_pedido;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("CREATE SEQUENCE " + SequenciaNumeroPedidoGenerator.SEQUENCIA
+                + " START WITH 1000000 INCREMENT BY 1000");
+
+        SequenciaNumeroPedidoGenerator generator = new SequenciaNumeroPedidoGenerator(dataSource, null, 500);
+
+        assertThatThrownBy(generator::criarSequencia)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("(1000)")
+                .hasMessageContaining("(500)");
+    }
+
+    @Test
+    @DisplayName("Deve recusar id de nó fora do intervalo de 10 bits")
+    void deveRecusarNoInvalido() {
+        assertThatThrownBy(() -> new SnowflakeNumeroPedidoGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
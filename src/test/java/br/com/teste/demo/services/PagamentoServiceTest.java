@@ -0,0 +1,106 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.services.impl.PagamentoServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PagamentoServiceImpl.class, VendaDiariaService.class, RetentativaConcorrencia.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do PagamentoService")
+class PagamentoServiceTest {
+
+    @Autowired
+    private PagamentoService pagamentoService;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @BeforeEach
+    @AfterEach
+    void limparBanco() {
+        vendaDiariaRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    private Pagamento pagamentoPendente(StatusPedido statusPedido) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(1L);
+        pedido.setStatusPedido(statusPedido);
+        pedido.setSubtotal(new BigDecimal("100.00"));
+        pedido.setValorTotal(new BigDecimal("100.00"));
+        pedido.setDataCadastro(LocalDateTime.now());
+        pedidoRepository.save(pedido);
+
+        Pagamento pagamento = new Pagamento();
+        pagamento.setPedido(pedido);
+        pagamento.setFormaPagamento(FormaPagamento.PIX);
+        pagamento.setStatusPagamento(StatusPagamento.PENDENTE);
+        pagamento.setValor(pedido.getValorTotal());
+        pagamento.setDataCadastro(LocalDateTime.now());
+        return pagamentoRepository.save(pagamento);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a aprovação de pagamento de pedido cancelado sem alterar pedido nem pagamento")
+    void deveRecusarAprovacaoDePedidoCancelado() {
+        Pagamento pagamento = pagamentoPendente(StatusPedido.CANCELADO);
+
+        assertThatThrownBy(() -> pagamentoService.updateStatusPagamento(pagamento.getId(), StatusPagamento.APROVADO))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("CANCELADO");
+        assertThatThrownBy(() -> pagamentoService.processarPagamento(pagamento.getId()))
+                .isInstanceOf(BusinessException.class);
+
+        assertThat(pedidoRepository.findById(pagamento.getPedido().getId()).orElseThrow().getStatusPedido())
+                .isEqualTo(StatusPedido.CANCELADO);
+        assertThat(pagamentoRepository.findById(pagamento.getId()).orElseThrow().getStatusPagamento())
+                .isEqualTo(StatusPagamento.PENDENTE);
+    }
+
+    @Test
+    @DisplayName("Não deve atualizar o pedido quando o status do pagamento muda sem mudar o do pedido")
+    void naoDeveAtualizarPedidoSemMudancaDeStatus() {
+        Pagamento pagamento = pagamentoPendente(StatusPedido.PENDENTE_PAGAMENTO);
+        Pedido antes = pedidoRepository.findById(pagamento.getPedido().getId()).orElseThrow();
+
+        pagamentoService.updateStatusPagamento(pagamento.getId(), StatusPagamento.PROCESSANDO);
+
+        Pedido depois = pedidoRepository.findById(antes.getId()).orElseThrow();
+        assertThat(depois.getVersao()).isEqualTo(antes.getVersao());
+        assertThat(depois.getStatusPedido()).isEqualTo(StatusPedido.PENDENTE_PAGAMENTO);
+        assertThat(pagamentoRepository.findById(pagamento.getId()).orElseThrow().getStatusPagamento())
+                .isEqualTo(StatusPagamento.PROCESSANDO);
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.PaginaDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes da Paginacao")
+class PaginacaoTest {
+
+    private record Linha(LocalDateTime dataCadastro, Long id) {
+    }
+
+    private final LocalDateTime agora = LocalDateTime.of(2025, 1, 10, 12, 30, 15, 123_000_000);
+
+    @Test
+    @DisplayName("Deve devolver o cursor da última linha quando há próxima página")
+    void deveGerarCursorDaUltimaLinha() {
+        List<Linha> linhas = List.of(new Linha(agora, 3L), new Linha(agora, 2L), new Linha(agora.minusDays(1), 1L));
+
+        PaginaDTO<Long> pagina = Paginacao.montar(linhas, 2, Linha::dataCadastro, Linha::id, Linha::id);
+
+        assertThat(pagina.getItens()).containsExactly(3L, 2L);
+        assertThat(Paginacao.decodificar(pagina.getNext())).isEqualTo(new Paginacao.Cursor(agora, 2L));
+    }
+
+    @Test
+    @DisplayName("Não deve devolver cursor na última página")
+    void naoDeveGerarCursorNaUltimaPagina() {
+        PaginaDTO<Long> pagina = Paginacao.montar(List.of(new Linha(agora, 1L)), 2,
+                Linha::dataCadastro, Linha::id, Linha::id);
+
+        assertThat(pagina.getItens()).containsExactly(1L);
+        assertThat(pagina.getNext()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor adulterado e limite fora da faixa")
+    void deveRejeitarCursorELimiteInvalidos() {
+        assertThatThrownBy(() -> Paginacao.decodificar("nao-e-um-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Paginacao.limiteConsulta(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Paginacao.limiteConsulta(Paginacao.LIMITE_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Label;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Label("Propriedades do PedidoCalculoService")
+class PedidoCalculoServicePropertyTest {
+
+    private final PedidoCalculoService pedidoCalculoService = new PedidoCalculoService();
+
+    private static Pedido pedido(List<BigDecimal> valoresItens, BigDecimal desconto, BigDecimal frete) {
+        Pedido pedido = new Pedido();
+        for (BigDecimal valor : valoresItens) {
+            pedido.getItens().add(new ItemPedido(null, pedido, null, 1, valor, valor));
+        }
+        pedido.setDesconto(desconto);
+        pedido.setFrete(frete);
+        return pedido;
+    }
+
+    @Property(tries = 20_000)
+    @Label("O cálculo em long deve dar os mesmos valores e escalas que o cálculo em BigDecimal")
+    void calculoEmUnidadesIgualAoDecimal(@ForAll("valoresItens") List<BigDecimal> valoresItens,
+                                         @ForAll("valoresManuais") BigDecimal desconto,
+                                         @ForAll("valoresManuais") BigDecimal frete) {
+        Pedido calculado = pedido(valoresItens, desconto, frete);
+        Pedido referencia = pedido(valoresItens, desconto, frete);
+
+        pedidoCalculoService.calcularValoresPedido(calculado);
+        pedidoCalculoService.calcularValoresPedidoDecimal(referencia);
+
+        // equals do BigDecimal compara valor e escala
+        assertThat(calculado.getSubtotal()).isEqualTo(referencia.getSubtotal());
+        assertThat(calculado.getDesconto()).isEqualTo(referencia.getDesconto());
+        assertThat(calculado.getFrete()).isEqualTo(referencia.getFrete());
+        assertThat(calculado.getValorTotal()).isEqualTo(referencia.getValorTotal());
+    }
+
+    @Property(tries = 5_000)
+    @Label("Com qualquer tabela de preços válida os dois cálculos devem dar o mesmo resultado")
+    void calculoEmUnidadesIgualAoDecimalComTabelaQualquer(@ForAll("tabelas") TabelaPrecos tabela,
+                                                          @ForAll("valoresItens") List<BigDecimal> valoresItens,
+                                                          @ForAll("valoresManuais") BigDecimal frete) {
+        PedidoCalculoService servico = new PedidoCalculoService();
+        servico.atualizarTabelaPrecos(tabela);
+        Pedido calculado = pedido(valoresItens, BigDecimal.ZERO, frete);
+        Pedido referencia = pedido(valoresItens, BigDecimal.ZERO, frete);
+
+        servico.calcularValoresPedido(calculado);
+        servico.calcularValoresPedidoDecimal(referencia);
+
+        assertThat(calculado.getDesconto()).isEqualTo(referencia.getDesconto());
+        assertThat(calculado.getFrete()).isEqualTo(referencia.getFrete());
+        assertThat(calculado.getValorTotal()).isEqualTo(referencia.getValorTotal());
+    }
+
+    @Provide
+    Arbitrary<TabelaPrecos> tabelas() {
+        Arbitrary<BigDecimal> limites = Arbitraries.bigDecimals()
+                .between(BigDecimal.ZERO, new BigDecimal("3000")).ofScale(2);
+        Arbitrary<RegraPrecoDTO> descontos = Combinators.combine(limites,
+                        Arbitraries.integers().between(2, 4).flatMap(escala -> Arbitraries.bigDecimals()
+                                .between(new BigDecimal("0.01"), new BigDecimal("0.90")).ofScale(escala)))
+                .as((limite, percentual) -> new RegraPrecoDTO(TipoRegraPreco.DESCONTO, limite, percentual, null));
+        Arbitrary<RegraPrecoDTO> fretes = Combinators.combine(limites.injectNull(0.2),
+                        Arbitraries.bigDecimals().between(BigDecimal.ZERO, new BigDecimal("80")).ofScale(2))
+                .as((limite, valor) -> new RegraPrecoDTO(TipoRegraPreco.FRETE, limite, null, valor));
+        return Combinators.combine(
+                        descontos.list().ofMaxSize(4).uniqueElements(RegraPrecoDTO::getValorMinimo),
+                        fretes.list().ofMaxSize(4).uniqueElements(RegraPrecoDTO::getValorMinimo))
+                .as((regrasDesconto, regrasFrete) -> {
+                    List<RegraPrecoDTO> regras = new ArrayList<>(regrasDesconto);
+                    regras.addAll(regrasFrete);
+                    return TabelaPrecos.de(regras);
+                });
+    }
+
+    @Provide
+    Arbitrary<List<BigDecimal>> valoresItens() {
+        Arbitrary<BigDecimal> limites = Arbitraries.of("1000.00", "999.99", "1000", "500.00", "499.99",
+                "555.56", "555.55", "222.22", "222.23", "200.00", "199.99", "0.00", "0").map(BigDecimal::new);
+        Arbitrary<BigDecimal> valores = Arbitraries.frequencyOf(
+                Tuple.of(4, Arbitraries.integers().between(0, 2)),
+                Tuple.of(1, Arbitraries.integers().between(3, 5)))
+                .flatMap(escala -> Arbitraries.bigDecimals()
+                        .between(new BigDecimal("-100"), new BigDecimal("3000"))
+                        .ofScale(escala));
+        Arbitrary<BigDecimal> enormes = Arbitraries.bigDecimals()
+                .between(new BigDecimal("1E14"), new BigDecimal("1E16"))
+                .ofScale(2);
+        return Arbitraries.frequencyOf(
+                        Tuple.of(3, limites),
+                        Tuple.of(6, valores),
+                        Tuple.of(1, enormes))
+                .list().ofMaxSize(6);
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> valoresManuais() {
+        return Arbitraries.frequencyOf(
+                Tuple.of(3, Arbitraries.just((BigDecimal) null)),
+                Tuple.of(3, Arbitraries.of(BigDecimal.ZERO, new BigDecimal("0.00"))),
+                Tuple.of(4, Arbitraries.integers().between(0, 5)
+                        .flatMap(escala -> Arbitraries.bigDecimals()
+                                .between(new BigDecimal("-50"), new BigDecimal("800"))
+                                .ofScale(escala))));
+    }
+}
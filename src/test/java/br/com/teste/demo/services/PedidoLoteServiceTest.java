@@ -0,0 +1,139 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ItemPedidoDTO;
+import br.com.teste.demo.dtos.PedidoDTO;
+import br.com.teste.demo.dtos.ResultadoPedidoLoteDTO;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.services.impl.SequenciaNumeroPedidoGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PedidoLoteService.class, PedidoCalculoService.class, VendaDiariaService.class,
+        SequenciaNumeroPedidoGenerator.class})
+@TestPropertySource(properties = "pedido.lote.tamanho-commit=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do PedidoLoteService")
+class PedidoLoteServiceTest {
+
+    @Autowired
+    private PedidoLoteService pedidoLoteService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        produto = new Produto();
+        produto.setTitulo("Notebook Dell");
+        produto.setValor(new BigDecimal("100.00"));
+        produto.setStatus(StatusProduto.ATIVO);
+        produto.setDataCadastro(LocalDateTime.now());
+        produtoRepository.save(produto);
+    }
+
+    @AfterEach
+    void limparBanco() {
+        vendaDiariaRepository.deleteAll();
+        pedidoRepository.deleteAll();
+        produtoRepository.deleteAll();
+    }
+
+    private PedidoDTO pedido(Long... produtoIds) {
+        PedidoDTO pedidoDTO = new PedidoDTO();
+        List<ItemPedidoDTO> itens = new ArrayList<>();
+        for (Long produtoId : produtoIds) {
+            itens.add(new ItemPedidoDTO(produtoId, 1));
+        }
+        pedidoDTO.setItens(itens);
+        return pedidoDTO;
+    }
+
+    @Test
+    @DisplayName("Deve gravar os pedidos válidos em blocos e informar o resultado de cada um")
+    void deveGravarPedidosValidosEmBlocos() {
+        List<PedidoDTO> lote = List.of(
+                pedido(produto.getId()),
+                pedido(produto.getId(), 999L),
+                pedido(produto.getId(), produto.getId()),
+                pedido(),
+                pedido(produto.getId()));
+
+        List<ResultadoPedidoLoteDTO> resultados = pedidoLoteService.createOrders(lote);
+
+        assertThat(resultados).extracting(ResultadoPedidoLoteDTO::getIndice).containsExactly(0, 1, 2, 3, 4);
+        assertThat(resultados).extracting(ResultadoPedidoLoteDTO::isSucesso)
+                .containsExactly(true, false, true, false, true);
+        assertThat(resultados.get(1).getErro()).contains("999");
+        assertThat(resultados.get(0).getPedidoId()).isNotNull();
+        assertThat(resultados).filteredOn(ResultadoPedidoLoteDTO::isSucesso)
+                .extracting(ResultadoPedidoLoteDTO::getNumero)
+                .doesNotHaveDuplicates()
+                .allSatisfy(numero -> assertThat(numero).isGreaterThanOrEqualTo(1_000_000L));
+
+        assertThat(pedidoRepository.count()).isEqualTo(3);
+        assertThat(pedidoRepository.findByStatusPedido(StatusPedido.PENDENTE_PAGAMENTO))
+                .allSatisfy(pedido -> assertThat(pedido.getItens()).isNotEmpty());
+
+        LocalDate hoje = LocalDate.now();
+        ResumoVendas resumo = vendaDiariaRepository.resumoVendasByPeriodo(hoje, hoje.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(3L);
+        assertThat(resumo.quantidadeProdutos()).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Deve refazer um a um os pedidos do bloco que falhou e recusar só o que não pôde ser gravado")
+    void deveRecusarSoOPedidoQueFalhouNoBloco() {
+        // Frete maior que a precisão da coluna: passa na validação e só falha ao gravar
+        PedidoDTO invalidoNoBanco = pedido(produto.getId());
+        invalidoNoBanco.setFrete(new BigDecimal("1E+40"));
+        PedidoDTO quantidadeZero = pedido(produto.getId());
+        quantidadeZero.getItens().get(0).setQuantidade(0);
+
+        List<ResultadoPedidoLoteDTO> resultados = pedidoLoteService.createOrders(List.of(
+                pedido(produto.getId()), invalidoNoBanco, pedido(produto.getId()), quantidadeZero));
+
+        assertThat(resultados).extracting(ResultadoPedidoLoteDTO::isSucesso)
+                .containsExactly(true, false, true, false);
+        assertThat(resultados.get(1).getErro()).startsWith("Falha ao gravar o pedido");
+        assertThat(resultados.get(3).getErro()).contains("maior que zero");
+        assertThat(pedidoRepository.count()).isEqualTo(2);
+
+        LocalDate hoje = LocalDate.now();
+        assertThat(vendaDiariaRepository.resumoVendasByPeriodo(hoje, hoje.plusDays(1)).totalPedidos()).isEqualTo(2L);
+    }
+}
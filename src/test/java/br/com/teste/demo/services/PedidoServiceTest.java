@@ -0,0 +1,122 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.ItemPedidoDTO;
+import br.com.teste.demo.dtos.PedidoDTO;
+import br.com.teste.demo.exceptions.ResourceNotFoundException;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.services.impl.PedidoServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do PedidoService")
+class PedidoServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Spy
+    private PedidoCalculoService pedidoCalculoService;
+
+    @Mock
+    private VendaDiariaService vendaDiariaService;
+
+    @Mock
+    private NumeroPedidoGenerator numeroPedidoGenerator;
+
+    private PedidoServiceImpl pedidoService;
+
+    @BeforeEach
+    void setUp() {
+        pedidoService = new PedidoServiceImpl(pedidoRepository, produtoRepository, pedidoCalculoService,
+                vendaDiariaService, numeroPedidoGenerator, null, new ProdutoCache(produtoRepository, 100, 60));
+    }
+
+    private Produto produto(long id, String valor) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setTitulo("Produto " + id);
+        produto.setValor(new BigDecimal(valor));
+        return produto;
+    }
+
+    private PedidoDTO pedidoComItens(long... produtoIds) {
+        PedidoDTO pedidoDTO = new PedidoDTO();
+        List<ItemPedidoDTO> itens = new ArrayList<>();
+        for (long produtoId : produtoIds) {
+            itens.add(new ItemPedidoDTO(produtoId, 2));
+        }
+        pedidoDTO.setItens(itens);
+        return pedidoDTO;
+    }
+
+    @Test
+    @DisplayName("Deve buscar todos os produtos do pedido em uma única consulta")
+    void deveBuscarProdutosEmUmaConsulta() {
+        when(produtoRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(produto(1L, "10.00"), produto(2L, "5.00")));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        pedidoService.createOrder(pedidoComItens(1L, 2L, 1L));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(produtoRepository, times(1)).findAllById(ids.capture());
+        verify(produtoRepository, never()).findById(any());
+        assertThat(ids.getValue()).containsExactly(1L, 2L);
+
+        ArgumentCaptor<Pedido> pedido = ArgumentCaptor.forClass(Pedido.class);
+        verify(pedidoRepository).save(pedido.capture());
+        assertThat(pedido.getValue().getItens()).hasSize(3);
+        assertThat(pedido.getValue().getSubtotal()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Deve listar todos os produtos inexistentes em um único erro")
+    void deveListarTodosProdutosInexistentes() {
+        when(produtoRepository.findAllById(List.of(1L, 7L, 9L))).thenReturn(List.of(produto(1L, "10.00")));
+
+        assertThatThrownBy(() -> pedidoService.createOrder(pedidoComItens(1L, 7L, 9L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("7")
+                .hasMessageContaining("9");
+
+        verify(pedidoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar item com quantidade menor ou igual a zero, como na criação em lote")
+    void deveRecusarQuantidadeInvalida() {
+        PedidoDTO pedidoDTO = pedidoComItens(1L);
+        pedidoDTO.getItens().get(0).setQuantidade(0);
+
+        assertThatThrownBy(() -> pedidoService.createOrder(pedidoDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maior que zero");
+
+        verify(produtoRepository, never()).findAllById(anyIterable());
+        verify(pedidoRepository, never()).save(any());
+    }
+}
@@ -1,17 +1,20 @@
 package br.com.teste.demo.services;
 
+import br.com.teste.demo.dtos.PaginaDTO;
 import br.com.teste.demo.dtos.ProdutoDTO;
 import br.com.teste.demo.enums.StatusProduto;
 import br.com.teste.demo.models.Produto;
 import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.repositories.projections.ChaveProduto;
+import br.com.teste.demo.repositories.projections.ProdutoRelevancia;
 import br.com.teste.demo.services.impl.ProdutoServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,6 +25,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -32,7 +36,6 @@ class ProdutoServiceTest {
     @Mock
     private ProdutoRepository produtoRepository;
 
-    @InjectMocks
     private ProdutoServiceImpl produtoService;
 
     private Produto produto;
@@ -40,6 +43,9 @@ class ProdutoServiceTest {
 
     @BeforeEach
     void setUp() {
+        produtoService = new ProdutoServiceImpl(produtoRepository, new ProdutoCache(produtoRepository, 100, 60),
+                mock(CatalogoProdutos.class), mock(IndiceBuscaProdutos.class), mock(AutocompleteProdutos.class));
+
         produto = new Produto();
         produto.setId(1L);
         produto.setTitulo("Notebook Dell");
@@ -61,13 +67,21 @@ class ProdutoServiceTest {
     @Test
     @DisplayName("Deve retornar todos os produtos")
     void deveRetornarTodosProdutos() {
-        when(produtoRepository.findAll()).thenReturn(Arrays.asList(produto));
+        when(produtoRepository.findChavesPagina(null, null, Limit.of(51)))
+                .thenReturn(List.of(new ChaveProduto(1L, produto.getDataCadastro())));
+        when(produtoRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(produto));
+
+        PaginaDTO<ProdutoDTO> produtos = produtoService.getAllProducts(null, 50);
 
-        List<ProdutoDTO> produtos = produtoService.getAllProducts();
+        assertThat(produtos.getItens()).hasSize(1);
+        assertThat(produtos.getItens().get(0).getTitulo()).isEqualTo("Notebook Dell");
+        assertThat(produtos.getNext()).isNull();
+        verify(produtoRepository, times(1)).findChavesPagina(null, null, Limit.of(51));
+        verify(produtoRepository, never()).findAll();
 
-        assertThat(produtos).hasSize(1);
-        assertThat(produtos.get(0).getTitulo()).isEqualTo("Notebook Dell");
-        verify(produtoRepository, times(1)).findAll();
+        // Na segunda leitura o produto vem do cache; só as chaves voltam ao banco
+        produtoService.getAllProducts(null, 50);
+        verify(produtoRepository, times(1)).findAllById(anyIterable());
     }
 
     @Test
@@ -82,6 +96,23 @@ class ProdutoServiceTest {
         verify(produtoRepository, times(1)).findById(1L);
     }
 
+    @Test
+    @DisplayName("Deve servir do cache as buscas repetidas por ID e recarregar o produto após a atualização")
+    void deveUsarCacheNaBuscaPorId() {
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+        when(produtoRepository.save(any(Produto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        produtoService.getProductById(1L);
+        produtoService.getProductById(1L);
+        verify(produtoRepository, times(1)).findById(1L);
+
+        produtoDTO.setTitulo("Notebook Dell Atualizado");
+        produtoService.updateProduct(1L, produtoDTO);
+
+        assertThat(produtoService.getProductById(1L).getTitulo()).isEqualTo("Notebook Dell Atualizado");
+        verify(produtoRepository, times(3)).findById(1L);
+    }
+
     @Test
     @DisplayName("Deve lançar exceção quando produto não for encontrado por ID")
     void deveLancarExcecaoQuandoProdutoNaoForEncontradoPorId() {
@@ -159,75 +190,82 @@ class ProdutoServiceTest {
     }
 
     @Test
-    @DisplayName("Deve buscar produtos por título")
+    @DisplayName("Deve buscar produtos por título em ordem de relevância")
     void deveBuscarProdutosPorTitulo() {
-        when(produtoRepository.findByTituloContainingIgnoreCase("note")).thenReturn(Arrays.asList(produto));
+        when(produtoRepository.findPaginaByTitulo("note", null, null, null, null, null, null, Limit.of(51)))
+                .thenReturn(List.of(new ProdutoRelevancia(produto, 1)));
 
-        List<ProdutoDTO> produtos = produtoService.findByTitulo("note");
+        PaginaDTO<ProdutoDTO> produtos = produtoService.findPagina("note", null, null, null, null, null, 50);
 
-        assertThat(produtos).hasSize(1);
-        assertThat(produtos.get(0).getTitulo()).contains("Notebook");
-        verify(produtoRepository, times(1)).findByTituloContainingIgnoreCase("note");
+        assertThat(produtos.getItens()).hasSize(1);
+        assertThat(produtos.getItens().get(0).getTitulo()).contains("Notebook");
+        assertThat(produtos.getNext()).isNull();
+        verify(produtoRepository, times(1)).findPaginaByTitulo("note", null, null, null, null, null, null, Limit.of(51));
     }
 
     @Test
     @DisplayName("Deve buscar produtos por categoria")
     void deveBuscarProdutosPorCategoria() {
-        when(produtoRepository.findByCategoria("Informática")).thenReturn(Arrays.asList(produto));
+        when(produtoRepository.findPaginaByFiltros(null, "Informática", null, null, null, null, null, Limit.of(51)))
+                .thenReturn(List.of(produto));
 
-        List<ProdutoDTO> produtos = produtoService.findByCategoria("Informática");
+        PaginaDTO<ProdutoDTO> produtos = produtoService.findPagina(null, "Informática", null, null, null, null, 50);
 
-        assertThat(produtos).hasSize(1);
-        assertThat(produtos.get(0).getCategoria()).isEqualTo("Informática");
-        verify(produtoRepository, times(1)).findByCategoria("Informática");
+        assertThat(produtos.getItens()).hasSize(1);
+        assertThat(produtos.getItens().get(0).getCategoria()).isEqualTo("Informática");
+        verify(produtoRepository, times(1))
+                .findPaginaByFiltros(null, "Informática", null, null, null, null, null, Limit.of(51));
     }
 
     @Test
     @DisplayName("Deve buscar produtos por status")
     void deveBuscarProdutosPorStatus() {
-        when(produtoRepository.findByStatus(StatusProduto.ATIVO)).thenReturn(Arrays.asList(produto));
+        when(produtoRepository.findPaginaByFiltros(null, null, null, null, StatusProduto.ATIVO, null, null, Limit.of(51)))
+                .thenReturn(List.of(produto));
 
-        List<ProdutoDTO> produtos = produtoService.findByStatus(StatusProduto.ATIVO);
+        PaginaDTO<ProdutoDTO> produtos = produtoService.findPagina(null, null, null, null, StatusProduto.ATIVO, null, 50);
 
-        assertThat(produtos).hasSize(1);
-        assertThat(produtos.get(0).getStatus()).isEqualTo(StatusProduto.ATIVO);
-        verify(produtoRepository, times(1)).findByStatus(StatusProduto.ATIVO);
+        assertThat(produtos.getItens()).hasSize(1);
+        assertThat(produtos.getItens().get(0).getStatus()).isEqualTo(StatusProduto.ATIVO);
+        verify(produtoRepository, times(1))
+                .findPaginaByFiltros(null, null, null, null, StatusProduto.ATIVO, null, null, Limit.of(51));
     }
 
     @Test
     @DisplayName("Deve buscar produtos por faixa de valor")
     void deveBuscarProdutosPorFaixaDeValor() {
-        when(produtoRepository.findByValorBetween(any(BigDecimal.class), any(BigDecimal.class)))
-                .thenReturn(Arrays.asList(produto));
+        BigDecimal minimo = new BigDecimal("1000.00");
+        BigDecimal maximo = new BigDecimal("5000.00");
+        when(produtoRepository.findPaginaByFiltros(null, null, minimo, maximo, null, null, null, Limit.of(51)))
+                .thenReturn(List.of(produto));
 
-        List<ProdutoDTO> produtos = produtoService.findByValorRange(
-                new BigDecimal("1000.00"),
-                new BigDecimal("5000.00")
-        );
+        PaginaDTO<ProdutoDTO> produtos = produtoService.findPagina(null, null, minimo, maximo, null, null, 50);
 
-        assertThat(produtos).hasSize(1);
-        verify(produtoRepository, times(1)).findByValorBetween(any(BigDecimal.class), any(BigDecimal.class));
+        assertThat(produtos.getItens()).hasSize(1);
+        verify(produtoRepository, times(1))
+                .findPaginaByFiltros(null, null, minimo, maximo, null, null, null, Limit.of(51));
     }
 
     @Test
     @DisplayName("Deve buscar produtos por filtros customizados")
     void deveBuscarProdutosPorFiltros() {
-        when(produtoRepository.findByFiltros(anyString(), anyString(), any(BigDecimal.class),
-                any(BigDecimal.class), any(StatusProduto.class)))
-                .thenReturn(Arrays.asList(produto));
+        when(produtoRepository.findPaginaByTitulo(anyString(), anyString(), any(BigDecimal.class),
+                any(BigDecimal.class), any(StatusProduto.class), isNull(), isNull(), eq(Limit.of(2))))
+                .thenReturn(List.of(new ProdutoRelevancia(produto, 1), new ProdutoRelevancia(produto, 1)));
 
-        List<ProdutoDTO> produtos = produtoService.findByFiltros(
+        PaginaDTO<ProdutoDTO> produtos = produtoService.findPagina(
                 "note",
                 "Informática",
                 new BigDecimal("1000.00"),
                 new BigDecimal("5000.00"),
-                StatusProduto.ATIVO
+                StatusProduto.ATIVO,
+                null,
+                1
         );
 
-        assertThat(produtos).hasSize(1);
-        verify(produtoRepository, times(1)).findByFiltros(
-                anyString(), anyString(), any(BigDecimal.class),
-                any(BigDecimal.class), any(StatusProduto.class)
-        );
+        assertThat(produtos.getItens()).hasSize(1);
+        assertThat(produtos.getNext()).isNotNull();
+        verify(produtoRepository, never()).findPaginaByFiltros(
+                any(), any(), any(), any(), any(), any(), any(), any());
     }
 }
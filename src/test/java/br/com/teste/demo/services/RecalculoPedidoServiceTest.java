@@ -0,0 +1,232 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.JobRecalculoDTO;
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.enums.StatusJobRecalculo;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.enums.StatusProduto;
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.JobRecalculo;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.Produto;
+import br.com.teste.demo.repositories.JobRecalculoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.ProdutoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RecalculoPedidoService.class, PedidoCalculoService.class, VendaDiariaService.class,
+        RetentativaConcorrencia.class})
+@TestPropertySource(properties = {"pedido.recalculo.tamanho-bloco=2", "pedido.recalculo.threads=2"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Testes do RecalculoPedidoService")
+class RecalculoPedidoServiceTest {
+
+    @Autowired
+    private RecalculoPedidoService recalculoPedidoService;
+
+    @Autowired
+    private PedidoCalculoService pedidoCalculoService;
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private JobRecalculoRepository jobRecalculoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDate dia = LocalDate.of(2025, 3, 10);
+    private final List<Pedido> pedidos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Produto produto = new Produto();
+        produto.setTitulo("Monitor");
+        produto.setValor(new BigDecimal("600.00"));
+        produto.setStatus(StatusProduto.ATIVO);
+        produto.setDataCadastro(LocalDateTime.now());
+        produtoRepository.save(produto);
+
+        // 600,00 com a tabela padrão: 5% de desconto e frete grátis, total 570,00
+        for (int i = 0; i < 5; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setNumero(1_000L + i);
+            pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
+            pedido.setDataCadastro(dia.atTime(10, i));
+
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setProduto(produto);
+            item.setQuantidade(1);
+            item.setValorUnitario(produto.getValor());
+            item.setValorTotal(produto.getValor());
+            pedido.getItens().add(item);
+
+            pedidoCalculoService.calcularValoresPedido(pedido);
+            pedidos.add(pedidoRepository.save(pedido));
+        }
+        vendaDiariaService.registrarNovos(pedidos);
+
+        // Nova regra: 20% a partir de 500,00; 600,00 passa a ter desconto de 120,00, frete de 20,00 e total de 500,00
+        List<RegraPrecoDTO> regras = new ArrayList<>(TabelaPrecos.PADRAO.regras());
+        regras.removeIf(regra -> regra.getTipo() == TipoRegraPreco.DESCONTO);
+        regras.add(new RegraPrecoDTO(TipoRegraPreco.DESCONTO, new BigDecimal("500.00"), new BigDecimal("0.20"), null));
+        pedidoCalculoService.atualizarTabelaPrecos(TabelaPrecos.de(regras));
+    }
+
+    @AfterEach
+    void limparBanco() {
+        pedidoCalculoService.atualizarTabelaPrecos(TabelaPrecos.PADRAO);
+        jobRecalculoRepository.deleteAll();
+        vendaDiariaRepository.deleteAll();
+        pedidoRepository.deleteAll();
+        produtoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve recalcular em blocos todos os pedidos do filtro e ajustar as vendas diárias")
+    void deveRecalcularPedidosDoFiltro() throws InterruptedException {
+        JobRecalculoDTO iniciado = recalculoPedidoService.iniciar(StatusPedido.PENDENTE_PAGAMENTO,
+                dia.atStartOfDay(), dia.plusDays(1).atStartOfDay(), null, null);
+        assertThat(iniciado.getTotalPedidos()).isEqualTo(5);
+
+        JobRecalculoDTO job = aguardarFim(iniciado.getId());
+
+        assertThat(job.getStatus()).isEqualTo(StatusJobRecalculo.CONCLUIDO);
+        assertThat(job.getProcessados()).isEqualTo(5);
+        assertThat(job.getAlterados()).isEqualTo(5);
+        assertThat(job.getProgresso()).isEqualTo(100);
+        assertThat(pedidoRepository.findAll()).allSatisfy(pedido -> {
+            assertThat(pedido.getDesconto()).isEqualByComparingTo("120.00");
+            assertThat(pedido.getFrete()).isEqualByComparingTo("20.00");
+            assertThat(pedido.getValorTotal()).isEqualByComparingTo("500.00");
+        });
+
+        ResumoVendas resumo = vendaDiariaRepository.resumoVendasByPeriodo(dia, dia.plusDays(1));
+        assertThat(resumo.totalPedidos()).isEqualTo(5L);
+        assertThat(resumo.valorTotal()).isEqualByComparingTo("2500.00");
+        assertThat(resumo.valorDescontos()).isEqualByComparingTo("600.00");
+        assertThat(resumo.valorFrete()).isEqualByComparingTo("100.00");
+
+        // Com os valores já atualizados, um novo recálculo não altera nenhum pedido
+        JobRecalculoDTO repetido = aguardarFim(recalculoPedidoService.iniciar(null, null, null, null, null).getId());
+        assertThat(repetido.getProcessados()).isEqualTo(5);
+        assertThat(repetido.getAlterados()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve retomar um job parado a partir do último bloco confirmado")
+    void deveRetomarJobParadoDoUltimoBloco() throws InterruptedException {
+        // Os dois pedidos mais recentes já foram confirmados por uma instância que parou de responder
+        Pedido ultimoConfirmado = pedidos.get(3);
+        JobRecalculo parado = new JobRecalculo();
+        parado.setStatus(StatusJobRecalculo.EXECUTANDO);
+        parado.setTotalPedidos(5);
+        parado.setProcessados(2);
+        parado.setAlterados(2);
+        parado.setCursorDataCadastro(ultimoConfirmado.getDataCadastro());
+        parado.setCursorId(ultimoConfirmado.getId());
+        parado.setDataCadastro(LocalDateTime.now().minusHours(1));
+        parado.setDataAtualizacao(LocalDateTime.now().minusHours(1));
+        parado = jobRecalculoRepository.save(parado);
+
+        recalculoPedidoService.retomarInterrompidos();
+        JobRecalculoDTO job = aguardarFim(parado.getId());
+
+        assertThat(job.getStatus()).isEqualTo(StatusJobRecalculo.CONCLUIDO);
+        assertThat(job.getProcessados()).isEqualTo(5);
+        assertThat(job.getAlterados()).isEqualTo(5);
+        assertThat(pedidoRepository.findById(pedidos.get(4).getId()).orElseThrow().getValorTotal())
+                .isEqualByComparingTo("570.00");
+        assertThat(pedidoRepository.findById(pedidos.get(3).getId()).orElseThrow().getValorTotal())
+                .isEqualByComparingTo("570.00");
+        for (int i = 0; i < 3; i++) {
+            assertThat(pedidoRepository.findById(pedidos.get(i).getId()).orElseThrow().getValorTotal())
+                    .isEqualByComparingTo("500.00");
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar progresso e conclusão da execução que perdeu o job")
+    void deveRecusarGravacaoDeExecucaoSubstituida() {
+        JobRecalculo job = new JobRecalculo();
+        job.setStatus(StatusJobRecalculo.PENDENTE);
+        job.setTotalPedidos(5);
+        job.setDataCadastro(LocalDateTime.now().minusHours(1));
+        job.setDataAtualizacao(job.getDataCadastro());
+        Long id = jobRecalculoRepository.save(job).getId();
+
+        LocalDateTime inicio = LocalDateTime.now().minusHours(1);
+        assertThat(atualizar(() -> jobRecalculoRepository.assumir(id, "lenta",
+                StatusJobRecalculo.PENDENTE, StatusJobRecalculo.EXECUTANDO, inicio, inicio))).isEqualTo(1);
+        // Sem renovar desde o início, a execução lenta é tomada como parada e outra assume o job
+        LocalDateTime agora = LocalDateTime.now();
+        assertThat(atualizar(() -> jobRecalculoRepository.assumir(id, "nova",
+                StatusJobRecalculo.PENDENTE, StatusJobRecalculo.EXECUTANDO, agora.minusMinutes(5), agora)))
+                .isEqualTo(1);
+
+        assertThat(atualizar(() -> jobRecalculoRepository.renovar(id, "lenta", agora))).isZero();
+        assertThat(atualizar(() -> jobRecalculoRepository.registrarProgresso(id, "lenta",
+                agora, 1L, 2, 2, agora))).isZero();
+        assertThat(atualizar(() -> jobRecalculoRepository.finalizar(id, "lenta",
+                StatusJobRecalculo.CONCLUIDO, null, agora))).isZero();
+
+        JobRecalculo atual = jobRecalculoRepository.findById(id).orElseThrow();
+        assertThat(atual.getStatus()).isEqualTo(StatusJobRecalculo.EXECUTANDO);
+        assertThat(atual.getExecucao()).isEqualTo("nova");
+        assertThat(atual.getProcessados()).isZero();
+    }
+
+    private int atualizar(Supplier<Integer> atualizacao) {
+        return new TransactionTemplate(transactionManager).execute(status -> atualizacao.get());
+    }
+
+    private JobRecalculoDTO aguardarFim(Long id) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        JobRecalculoDTO job = recalculoPedidoService.buscar(id);
+        while (job.getStatus() == StatusJobRecalculo.PENDENTE || job.getStatus() == StatusJobRecalculo.EXECUTANDO) {
+            assertThat(System.currentTimeMillis()).as("tempo de espera do job").isLessThan(limite);
+            Thread.sleep(20);
+            job = recalculoPedidoService.buscar(id);
+        }
+        return job;
+    }
+}
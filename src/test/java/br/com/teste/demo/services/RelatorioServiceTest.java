@@ -0,0 +1,151 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.RelatorioGeralDTO;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.repositories.ItemPedidoRepository;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import br.com.teste.demo.repositories.projections.TotalPorStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do RelatorioService")
+class RelatorioServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private ItemPedidoRepository itemPedidoRepository;
+
+    @Mock
+    private PagamentoRepository pagamentoRepository;
+
+    @Mock
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @Mock
+    private ContadoresVendasService contadoresVendasService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+
+    private final LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime fim = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private RelatorioService criarService(long timeoutMs) {
+        return new RelatorioService(pedidoRepository, itemPedidoRepository, pagamentoRepository,
+                vendaDiariaRepository, contadoresVendasService, transactionManager, executor, timeoutMs);
+    }
+
+    private void configurarSecoesRapidas() {
+        when(vendaDiariaRepository.resumoVendasByPeriodo(inicio.toLocalDate(), fim.toLocalDate()))
+                .thenReturn(new ResumoVendas(2L, new BigDecimal("100.00"), BigDecimal.ZERO, BigDecimal.ZERO, 3L));
+        when(pedidoRepository.totaisPorStatusByPeriodo(inicio, fim))
+                .thenReturn(List.of(new TotalPorStatus(StatusPedido.PAGO, 2L, new BigDecimal("100.00"))));
+        when(itemPedidoRepository.findProdutosMaisVendidosByPeriodo(any(), any(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Deve montar o relatório geral completo quando todas as seções terminam")
+    void deveMontarRelatorioGeralCompleto() {
+        configurarSecoesRapidas();
+        when(pagamentoRepository.totaisPorFormaPagamentoByPeriodo(inicio, fim)).thenReturn(List.of());
+
+        RelatorioGeralDTO relatorio = criarService(5_000).relatorioGeral(inicio, fim);
+
+        assertThat(relatorio.isParcial()).isFalse();
+        assertThat(relatorio.getSecoesPendentes()).isEmpty();
+        assertThat(relatorio.getVendas().getTotalPedidos()).isEqualTo(2);
+        assertThat(relatorio.getPedidosPorStatus()).hasSize(StatusPedido.values().length);
+    }
+
+    @Test
+    @DisplayName("Deve devolver relatório parcial quando uma seção excede o timeout")
+    void deveDevolverRelatorioParcialNoTimeout() {
+        configurarSecoesRapidas();
+        when(pagamentoRepository.totaisPorFormaPagamentoByPeriodo(inicio, fim)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+
+        RelatorioGeralDTO relatorio = criarService(300).relatorioGeral(inicio, fim);
+
+        assertThat(relatorio.isParcial()).isTrue();
+        assertThat(relatorio.getSecoesPendentes()).containsExactly("formasPagamento");
+        assertThat(relatorio.getVendas()).isNotNull();
+        assertThat(relatorio.getFormasPagamento()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve cancelar as demais seções quando uma falha e limitar as transações ao prazo")
+    void deveCancelarSecoesQuandoUmaFalha() throws InterruptedException {
+        CountDownLatch formasIniciou = new CountDownLatch(1);
+        CountDownLatch formasInterrompida = new CountDownLatch(1);
+        when(pagamentoRepository.totaisPorFormaPagamentoByPeriodo(inicio, fim)).thenAnswer(invocation -> {
+            formasIniciou.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                formasInterrompida.countDown();
+            }
+            return List.of();
+        });
+        when(vendaDiariaRepository.resumoVendasByPeriodo(inicio.toLocalDate(), fim.toLocalDate()))
+                .thenAnswer(invocation -> {
+                    formasIniciou.await();
+                    throw new IllegalStateException("falha no banco");
+                });
+
+        assertThatThrownBy(() -> criarService(5_000).relatorioGeral(inicio, fim))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("falha no banco");
+
+        assertThat(formasInterrompida.await(1, TimeUnit.SECONDS)).isTrue();
+        ArgumentCaptor<TransactionDefinition> transacoes = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(transacoes.capture());
+        assertThat(transacoes.getAllValues()).allSatisfy(transacao -> {
+            assertThat(transacao.isReadOnly()).isTrue();
+            assertThat(transacao.getTimeout()).isBetween(1, 5);
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.dtos.RegraPrecoDTO;
+import br.com.teste.demo.enums.TipoRegraPreco;
+import br.com.teste.demo.exceptions.BusinessException;
+import br.com.teste.demo.models.ItemPedido;
+import br.com.teste.demo.models.Pedido;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Testes da TabelaPrecos")
+class TabelaPrecosTest {
+
+    private static RegraPrecoDTO desconto(String valorMinimo, String percentual) {
+        return new RegraPrecoDTO(TipoRegraPreco.DESCONTO,
+                valorMinimo != null ? new BigDecimal(valorMinimo) : null, new BigDecimal(percentual), null);
+    }
+
+    private static RegraPrecoDTO frete(String valorMinimo, String valor) {
+        return new RegraPrecoDTO(TipoRegraPreco.FRETE,
+                valorMinimo != null ? new BigDecimal(valorMinimo) : null, null, new BigDecimal(valor));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar a maior faixa com valor mínimo até o valor, em BigDecimal e em long")
+    void deveEncontrarFaixaPorBuscaBinaria() {
+        TabelaPrecos tabela = TabelaPrecos.de(List.of(
+                desconto("1000.00", "0.10"), desconto("300.00", "0.03"), desconto("500.00", "0.05"),
+                frete(null, "30.00"), frete("200.00", "20.00")));
+
+        assertThat(tabela.faixaDesconto(new BigDecimal("299.99"))).isEqualTo(-1);
+        assertThat(tabela.percentual(tabela.faixaDesconto(new BigDecimal("300.00")))).isEqualTo("0.03");
+        assertThat(tabela.percentual(tabela.faixaDesconto(new BigDecimal("999.99")))).isEqualTo("0.05");
+        assertThat(tabela.percentual(tabela.faixaDesconto(new BigDecimal("5000")))).isEqualTo("0.10");
+        assertThat(tabela.faixaDesconto(2_999_999L)).isEqualTo(-1);
+        assertThat(tabela.faixaDesconto(5_000_000L)).isEqualTo(tabela.faixaDesconto(new BigDecimal("500.00")));
+
+        assertThat(tabela.valorFrete(tabela.faixaFrete(new BigDecimal("-10")))).isEqualTo("30.00");
+        assertThat(tabela.valorFrete(tabela.faixaFrete(new BigDecimal("200.00")))).isEqualTo("20.00");
+        assertThat(tabela.valorFreteUnidades(tabela.faixaFrete(1_999_999L))).isEqualTo(300_000L);
+    }
+
+    @Test
+    @DisplayName("Deve manter os percentuais com 2 casas ao ler colunas com mais casas")
+    void deveNormalizarPercentualLidoDoBanco() {
+        TabelaPrecos tabela = TabelaPrecos.de(List.of(desconto("500.00", "0.1000"), desconto("800.00", "0.1250")));
+
+        assertThat(tabela.percentual(0).scale()).isEqualTo(2);
+        assertThat(tabela.percentual(1)).isEqualTo(new BigDecimal("0.125"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar regras inválidas")
+    void deveRecusarRegrasInvalidas() {
+        assertThatThrownBy(() -> TabelaPrecos.de(List.of(desconto("500.00", "0.05"), desconto("500", "0.10"))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("mais de uma regra");
+        assertThatThrownBy(() -> TabelaPrecos.de(List.of(desconto("500.00", "1.5"))))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> TabelaPrecos.de(List.of(desconto("500.00", "0.00001"))))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> TabelaPrecos.de(List.of(frete("200.001", "20.00"))))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> TabelaPrecos.de(List.of(frete(null, "-1"))))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a nova tabela nos cálculos seguintes depois da troca")
+    void deveAplicarNovaTabelaDepoisDaTroca() {
+        PedidoCalculoService pedidoCalculoService = new PedidoCalculoService();
+        pedidoCalculoService.atualizarTabelaPrecos(TabelaPrecos.de(List.of(
+                desconto("100.00", "0.20"), frete(null, "15.00"))));
+
+        Pedido pedido = new Pedido();
+        BigDecimal valor = new BigDecimal("150.00");
+        pedido.getItens().add(new ItemPedido(null, pedido, null, 1, valor, valor));
+        pedido.setFrete(null);
+        pedidoCalculoService.calcularValoresPedido(pedido);
+
+        assertThat(pedido.getDesconto()).isEqualTo(new BigDecimal("30.0000"));
+        assertThat(pedido.getFrete()).isEqualTo(new BigDecimal("15.00"));
+        assertThat(pedido.getValorTotal()).isEqualTo(new BigDecimal("135.0000"));
+    }
+}
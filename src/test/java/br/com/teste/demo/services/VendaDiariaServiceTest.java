@@ -0,0 +1,186 @@
+package br.com.teste.demo.services;
+
+import br.com.teste.demo.enums.FormaPagamento;
+import br.com.teste.demo.enums.StatusPagamento;
+import br.com.teste.demo.enums.StatusPedido;
+import br.com.teste.demo.models.Pagamento;
+import br.com.teste.demo.models.Pedido;
+import br.com.teste.demo.models.VendaDiaria;
+import br.com.teste.demo.repositories.CapturaSql;
+import br.com.teste.demo.repositories.PagamentoRepository;
+import br.com.teste.demo.repositories.PedidoRepository;
+import br.com.teste.demo.repositories.VendaDiariaRepository;
+import br.com.teste.demo.repositories.projections.ResumoVendas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = CapturaSql.PROPRIEDADE)
+@ActiveProfiles("test")
+@Import(VendaDiariaService.class)
+@DisplayName("Testes do VendaDiariaService")
+class VendaDiariaServiceTest {
+
+    @Autowired
+    private VendaDiariaService vendaDiariaService;
+
+    @Autowired
+    private VendaDiariaRepository vendaDiariaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDate dia = LocalDate.of(2025, 1, 10);
+
+    @BeforeEach
+    void setUp() {
+        vendaDiariaRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        pedidoRepository.deleteAll();
+    }
+
+    private long proximoNumero = 1;
+
+    private Pedido salvarPedido(String valorTotal) {
+        Pedido pedido = new Pedido();
+        pedido.setNumero(proximoNumero++);
+        pedido.setStatusPedido(StatusPedido.PENDENTE_PAGAMENTO);
+        pedido.setSubtotal(new BigDecimal(valorTotal));
+        pedido.setValorTotal(new BigDecimal(valorTotal));
+        pedido.setDataCadastro(dia.atTime(10, 0));
+        return pedidoRepository.save(pedido);
+    }
+
+    private ResumoVendas resumoDoDia() {
+        return vendaDiariaRepository.resumoVendasByPeriodo(dia, dia.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Deve acumular e retirar pedidos incrementalmente")
+    void deveAcumularERetirarPedidos() {
+        Pedido pedido1 = salvarPedido("100.00");
+        Pedido pedido2 = salvarPedido("50.00");
+        vendaDiariaService.registrar(pedido1);
+        vendaDiariaService.registrar(pedido2);
+
+        assertThat(resumoDoDia().totalPedidos()).isEqualTo(2L);
+        assertThat(resumoDoDia().valorTotal()).isEqualByComparingTo("150.00");
+
+        vendaDiariaService.remover(pedido2);
+
+        assertThat(resumoDoDia().totalPedidos()).isEqualTo(1L);
+        assertThat(resumoDoDia().valorTotal()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("Deve acumular os pedidos sem pagamento aprovado em uma única linha")
+    void deveAcumularPedidosSemPagamentoNaMesmaLinha() {
+        vendaDiariaService.registrar(salvarPedido("100.00"));
+        vendaDiariaService.registrar(salvarPedido("50.00"));
+        entityManager.clear();
+
+        assertThat(vendaDiariaRepository.findAll())
+                .singleElement()
+                .satisfies(venda -> {
+                    assertThat(venda.getFormaPagamento()).isNull();
+                    assertThat(venda.getQuantidadePedidos()).isEqualTo(2L);
+                    assertThat(venda.getValorTotal()).isEqualByComparingTo("150.00");
+                });
+        assertThat(entityManager.getEntityManager()
+                .createNativeQuery("SELECT FORMA_PAGAMENTO FROM VENDA_DIARIA").getSingleResult())
+                .isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve registrar pedido aguardando pagamento sem consultar os pagamentos")
+    void deveRegistrarPedidoPendenteSemConsultarPagamentos() {
+        Pedido pedido = salvarPedido("100.00");
+        entityManager.flush();
+        CapturaSql.limpar();
+
+        vendaDiariaService.registrar(pedido);
+
+        assertThat(CapturaSql.unica()).startsWith("merge into venda_diaria");
+    }
+
+    @Test
+    @DisplayName("Deve mover o pedido para o status e forma de pagamento aprovados")
+    void deveMoverPedidoAoAprovarPagamento() {
+        Pedido pedido = salvarPedido("100.00");
+        vendaDiariaService.registrar(pedido);
+
+        vendaDiariaService.remover(pedido);
+        Pagamento pagamento = new Pagamento();
+        pagamento.setPedido(pedido);
+        pagamento.setFormaPagamento(FormaPagamento.PIX);
+        pagamento.setStatusPagamento(StatusPagamento.APROVADO);
+        pagamento.setValor(pedido.getValorTotal());
+        pagamentoRepository.save(pagamento);
+        pedido.setStatusPedido(StatusPedido.PAGO);
+        vendaDiariaService.registrar(pedido);
+        entityManager.clear();
+
+        List<VendaDiaria> vendas = vendaDiariaRepository.findAll();
+        assertThat(vendas)
+                .filteredOn(venda -> venda.getStatusPedido() == StatusPedido.PAGO)
+                .singleElement()
+                .satisfies(venda -> {
+                    assertThat(venda.getFormaPagamento()).isEqualTo(FormaPagamento.PIX);
+                    assertThat(venda.getQuantidadePedidos()).isEqualTo(1L);
+                });
+        assertThat(vendas)
+                .filteredOn(venda -> venda.getStatusPedido() == StatusPedido.PENDENTE_PAGAMENTO)
+                .singleElement()
+                .satisfies(venda -> assertThat(venda.getQuantidadePedidos()).isZero());
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o período a partir dos pedidos")
+    void deveReconstruirPeriodo() {
+        salvarPedido("100.00");
+        salvarPedido("50.00");
+        VendaDiaria divergente = new VendaDiaria();
+        divergente.setData(dia);
+        divergente.setStatusPedido(StatusPedido.CANCELADO);
+        divergente.setQuantidadePedidos(99L);
+        vendaDiariaRepository.save(divergente);
+
+        vendaDiariaService.reconstruir(dia, dia.plusDays(1));
+
+        assertThat(resumoDoDia().totalPedidos()).isEqualTo(2L);
+        assertThat(resumoDoDia().valorTotal()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    @DisplayName("Deve cobrir nos limites do dia os mesmos pedidos que a consulta a PEDIDO")
+    void deveConcordarComPedidosNosLimitesDoDia() {
+        salvarPedido("100.00").setDataCadastro(dia.atStartOfDay());
+        salvarPedido("50.00").setDataCadastro(dia.plusDays(1).atStartOfDay());
+        pedidoRepository.flush();
+
+        vendaDiariaService.reconstruir(dia, dia.plusDays(2));
+
+        ResumoVendas pedidos = pedidoRepository.resumoVendasByPeriodo(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+        assertThat(pedidos.totalPedidos()).isEqualTo(1L);
+        assertThat(resumoDoDia().totalPedidos()).isEqualTo(pedidos.totalPedidos());
+        assertThat(resumoDoDia().valorTotal()).isEqualByComparingTo(pedidos.valorTotal());
+    }
+}